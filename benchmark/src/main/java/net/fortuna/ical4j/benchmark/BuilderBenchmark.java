@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ComponentHandler;
+import net.fortuna.ical4j.data.ContentLineParser;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures building of calendar models using the different input modes supported by
+ * {@link CalendarBuilder}.
+ *
+ * @author Ben Fortuna
+ */
+@State(Scope.Benchmark)
+public class BuilderBenchmark {
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public void build(CalendarData data, Blackhole blackhole) throws IOException, ParserException {
+        for (int i = 0; i < data.getCalendars().size(); i++) {
+            blackhole.consume(new CalendarBuilder().build(data.reader(i)));
+        }
+    }
+
+    @Benchmark
+    public void buildContentLineParser(CalendarData data, Blackhole blackhole) throws IOException, ParserException {
+        for (int i = 0; i < data.getCalendars().size(); i++) {
+            blackhole.consume(new CalendarBuilder(new ContentLineParser()).build(data.reader(i)));
+        }
+    }
+
+    @Benchmark
+    public void buildComponents(CalendarData data, final Blackhole blackhole) throws IOException, ParserException {
+        final ComponentHandler handler = new ComponentHandler() {
+            public void component(CalendarComponent component) {
+                blackhole.consume(component);
+            }
+        };
+        for (int i = 0; i < data.getCalendars().size(); i++) {
+            blackhole.consume(new CalendarBuilder().build(data.reader(i), handler));
+        }
+    }
+
+    @Benchmark
+    public void buildConcurrent(CalendarData data, Blackhole blackhole) throws IOException, ParserException {
+        for (int i = 0; i < data.getCalendars().size(); i++) {
+            blackhole.consume(new CalendarBuilder().build(data.reader(i), executor));
+        }
+    }
+
+    @Benchmark
+    public void buildFile(CalendarData data, Blackhole blackhole) throws IOException, ParserException {
+        for (int i = 0; i < data.getFiles().size(); i++) {
+            blackhole.consume(new CalendarBuilder().build(data.getFiles().get(i)));
+        }
+    }
+}
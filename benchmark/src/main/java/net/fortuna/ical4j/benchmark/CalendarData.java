@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.fortuna.ical4j.util.CompatibilityHints;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state providing iCalendar input, either the contents of the sample corpus or a synthetic
+ * calendar of a given size.
+ *
+ * @author Ben Fortuna
+ */
+@State(Scope.Benchmark)
+public class CalendarData {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Either "samples" for the etc/samples/valid corpus, or "small"/"large"/"timezones" for generated data.
+     */
+    @Param({"samples", "small", "large", "timezones"})
+    public String input;
+
+    /**
+     * Location of the sample corpus, relative to the working directory.
+     */
+    @Param("../etc/samples/valid")
+    public String samplesDir;
+
+    private List<String> calendars;
+
+    private List<File> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        // same hints as used for the sample corpus in CalendarBuilderTest..
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING, true);
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_NOTES_COMPATIBILITY, true);
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_VALIDATION, true);
+
+        calendars = new ArrayList<String>();
+        files = new ArrayList<File>();
+        if ("samples".equals(input)) {
+            final File[] samples = new File(samplesDir).listFiles();
+            if (samples == null) {
+                throw new IOException("Sample directory not found: " + new File(samplesDir).getAbsolutePath());
+            }
+            Arrays.sort(samples);
+            for (File sample : samples) {
+                if (sample.isFile() && sample.getName().endsWith(".ics")) {
+                    calendars.add(read(sample));
+                    files.add(sample);
+                }
+            }
+        }
+        else {
+            final CalendarGenerator generator;
+            if ("small".equals(input)) {
+                generator = new CalendarGenerator(10, 1, false);
+            }
+            else if ("large".equals(input)) {
+                generator = new CalendarGenerator(5000, 0, true);
+            }
+            else if ("timezones".equals(input)) {
+                generator = new CalendarGenerator(2000, 8, true);
+            }
+            else {
+                throw new IllegalArgumentException("Unknown input: " + input);
+            }
+            final String calendar = generator.generate();
+            calendars.add(calendar);
+
+            final File file = File.createTempFile("ical4j-benchmark-", ".ics");
+            file.deleteOnExit();
+            final Writer out = new OutputStreamWriter(new FileOutputStream(file), UTF_8);
+            try {
+                out.write(calendar);
+            }
+            finally {
+                out.close();
+            }
+            files.add(file);
+        }
+    }
+
+    /**
+     * @return the calendars of this input as strings
+     */
+    public List<String> getCalendars() {
+        return calendars;
+    }
+
+    /**
+     * @return the calendars of this input as files
+     */
+    public List<File> getFiles() {
+        return files;
+    }
+
+    /**
+     * @param index the calendar index
+     * @return a new reader over the specified calendar
+     */
+    public Reader reader(int index) {
+        return new StringReader(calendars.get(index));
+    }
+
+    private static String read(File file) throws IOException {
+        final InputStream in = new FileInputStream(file);
+        try {
+            final Reader reader = new InputStreamReader(in, UTF_8);
+            final StringBuilder b = new StringBuilder((int) file.length());
+            final char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) >= 0) {
+                b.append(buffer, 0, read);
+            }
+            return b.toString();
+        }
+        finally {
+            in.close();
+        }
+    }
+}
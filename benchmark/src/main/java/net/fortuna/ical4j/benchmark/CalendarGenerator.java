@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import net.fortuna.ical4j.model.TimeZoneRegistry;
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+
+/**
+ * Generates synthetic iCalendar data for benchmarks. Output is deterministic for a given set of
+ * arguments so that successive benchmark runs measure identical input.
+ *
+ * @author Ben Fortuna
+ */
+public final class CalendarGenerator {
+
+    private static final String CRLF = "\r\n";
+
+    private static final int MAX_LINE_LENGTH = 75;
+
+    private static final String[] TZIDS = {"Europe/London", "America/New_York", "Australia/Melbourne",
+        "Asia/Tokyo", "America/Los_Angeles", "Europe/Berlin", "Asia/Kolkata", "America/Sao_Paulo"};
+
+    private static final String[] RRULES = {"FREQ=DAILY;COUNT=30", "FREQ=WEEKLY;BYDAY=MO,WE,FR",
+        "FREQ=MONTHLY;BYDAY=-1FR", "FREQ=YEARLY;BYMONTH=3;BYMONTHDAY=15", "FREQ=DAILY;INTERVAL=3;UNTIL=20151231T000000Z"};
+
+    private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit; sed do eiusmod "
+        + "tempor incididunt ut labore et dolore magna aliqua, ut enim ad minim veniam. Quis nostrud exercitation "
+        + "ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+    private final int events;
+
+    private final int timezones;
+
+    private final boolean recurring;
+
+    /**
+     * @param events the number of VEVENT components to generate
+     * @param timezones the number of distinct timezones referenced (and defined) by the events. Zero
+     * generates UTC date-times only
+     * @param recurring indicates whether events include recurrence rules and exceptions
+     */
+    public CalendarGenerator(int events, int timezones, boolean recurring) {
+        this.events = events;
+        this.timezones = Math.min(timezones, TZIDS.length);
+        this.recurring = recurring;
+    }
+
+    /**
+     * @return a complete iCalendar stream (with folded content lines) as a string
+     */
+    public String generate() {
+        final StringBuilder b = new StringBuilder(events * 512);
+        line(b, "BEGIN:VCALENDAR");
+        line(b, "PRODID:-//Ben Fortuna//iCal4j Benchmark//EN");
+        line(b, "VERSION:2.0");
+        line(b, "CALSCALE:GREGORIAN");
+
+        final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+        for (int i = 0; i < timezones; i++) {
+            // component strings are not folded..
+            final String[] lines = registry.getTimeZone(TZIDS[i]).getVTimeZone().toString().split(CRLF);
+            for (int j = 0; j < lines.length; j++) {
+                line(b, lines[j]);
+            }
+        }
+
+        final SimpleDateFormat utcFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        utcFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        final SimpleDateFormat localFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss");
+        localFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        final Random random = new Random(events);
+        final Calendar base = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        base.clear();
+        base.set(2012, Calendar.JANUARY, 1, 0, 0, 0);
+        final String stamp = utcFormat.format(base.getTime());
+
+        for (int i = 0; i < events; i++) {
+            // several events per day, in business hours to avoid local times skipped by daylight savings..
+            final Calendar start = (Calendar) base.clone();
+            start.add(Calendar.DAY_OF_YEAR, i / 4);
+            start.set(Calendar.HOUR_OF_DAY, 8 + random.nextInt(10));
+            start.set(Calendar.MINUTE, 15 * random.nextInt(4));
+            final Calendar end = (Calendar) start.clone();
+            end.add(Calendar.MINUTE, 15 * (1 + random.nextInt(8)));
+
+            line(b, "BEGIN:VEVENT");
+            line(b, "UID:" + i + "-benchmark@ical4j.mnode.org");
+            line(b, "DTSTAMP:" + stamp);
+            if (timezones > 0) {
+                final String tzParam = ";TZID=" + TZIDS[i % timezones] + ":";
+                line(b, "DTSTART" + tzParam + localFormat.format(start.getTime()));
+                line(b, "DTEND" + tzParam + localFormat.format(end.getTime()));
+            }
+            else {
+                line(b, "DTSTART:" + utcFormat.format(start.getTime()));
+                line(b, "DTEND:" + utcFormat.format(end.getTime()));
+            }
+            line(b, "SUMMARY:Event " + i);
+            line(b, "DESCRIPTION:" + LOREM.substring(0, 60 + random.nextInt(LOREM.length() - 60))
+                    .replaceAll("([,;])", "\\\\$1"));
+            line(b, "LOCATION:Room " + random.nextInt(100));
+            line(b, "ORGANIZER;CN=Organiser " + i % 10 + ":mailto:organiser" + i % 10 + "@example.com");
+            line(b, "ATTENDEE;ROLE=REQ-PARTICIPANT;PARTSTAT=NEEDS-ACTION;RSVP=TRUE;CN=Attendee " + i % 7
+                    + ":mailto:attendee" + i % 7 + "@example.com");
+            if (recurring) {
+                line(b, "RRULE:" + RRULES[i % RRULES.length]);
+                final Calendar exception = (Calendar) start.clone();
+                exception.add(Calendar.DAY_OF_YEAR, 7);
+                if (timezones > 0) {
+                    line(b, "EXDATE;TZID=" + TZIDS[i % timezones] + ":" + localFormat.format(exception.getTime()));
+                }
+                else {
+                    line(b, "EXDATE:" + utcFormat.format(exception.getTime()));
+                }
+            }
+            line(b, "END:VEVENT");
+        }
+        line(b, "END:VCALENDAR");
+        return b.toString();
+    }
+
+    /**
+     * Appends a content line, folding at 75 characters.
+     */
+    private static void line(StringBuilder b, String line) {
+        int offset = 0;
+        while (line.length() - offset > MAX_LINE_LENGTH) {
+            b.append(line, offset, offset + MAX_LINE_LENGTH).append(CRLF).append(' ');
+            offset += MAX_LINE_LENGTH;
+        }
+        b.append(line, offset, line.length()).append(CRLF);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.ParseException;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.Dur;
+import net.fortuna.ical4j.model.component.VFreeBusy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures free/busy computation over a calendar of recurring events, which exercises recurrence set
+ * calculation and period merging.
+ *
+ * @author Ben Fortuna
+ */
+@State(Scope.Benchmark)
+public class FreeBusyBenchmark {
+
+    @Param({"100", "1000"})
+    public int events;
+
+    private Calendar calendar;
+
+    private VFreeBusy busyRequest;
+
+    private VFreeBusy freeRequest;
+
+    @Setup
+    public void setUp() throws IOException, ParserException, ParseException {
+        final String data = new CalendarGenerator(events, 2, true).generate();
+        calendar = new CalendarBuilder().build(new StringReader(data));
+
+        final DateTime start = new DateTime("20120101T000000Z");
+        final DateTime end = new DateTime("20120401T000000Z");
+        busyRequest = new VFreeBusy(start, end);
+        freeRequest = new VFreeBusy(start, end, new Dur(0, 1, 0, 0));
+    }
+
+    @Benchmark
+    public VFreeBusy busyTime() {
+        return new VFreeBusy(busyRequest, calendar.getComponents());
+    }
+
+    @Benchmark
+    public VFreeBusy freeTime() {
+        return new VFreeBusy(freeRequest, calendar.getComponents());
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.text.ParseException;
+
+import net.fortuna.ical4j.model.Date;
+import net.fortuna.ical4j.model.DateList;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.PropertyList;
+import net.fortuna.ical4j.model.component.Standard;
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.model.property.DtStart;
+import net.fortuna.ical4j.model.property.RDate;
+import net.fortuna.ical4j.model.property.TzOffsetFrom;
+import net.fortuna.ical4j.model.property.TzOffsetTo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures onset calculation for timezone observances with many recurrence dates (typical of historical
+ * observances), both single-threaded and with all available threads sharing the observance definition. Onset
+ * calculation doesn't share mutable state, so throughput per thread should be comparable in both cases.
+ *
+ * @author Ben Fortuna
+ */
+@State(Scope.Benchmark)
+public class OnsetBenchmark {
+
+    private PropertyList properties;
+
+    private Date date;
+
+    @Setup
+    public void setUp() throws ParseException {
+        properties = new PropertyList();
+        properties.add(new DtStart("19160501T020000"));
+        properties.add(new TzOffsetFrom("+0000"));
+        properties.add(new TzOffsetTo("+0100"));
+        final DateList rdates = new DateList(Value.DATE_TIME);
+        for (int year = 1917; year < 1967; year++) {
+            rdates.add(new DateTime(year + "0401T020000"));
+        }
+        properties.add(new RDate(rdates));
+        date = new DateTime("19700101T000000Z");
+    }
+
+    /**
+     * Calculates onsets with a single thread.
+     */
+    @Benchmark
+    @Threads(1)
+    public Date calculateOnsets() {
+        return new Standard(properties).getLatestOnset(date);
+    }
+
+    /**
+     * Calculates onsets concurrently with all available threads.
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Date calculateOnsetsContended() {
+        return new Standard(properties).getLatestOnset(date);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.ValidationException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures output of calendar models, including escaping and folding of content lines.
+ *
+ * @author Ben Fortuna
+ */
+@State(Scope.Benchmark)
+public class OutputterBenchmark {
+
+    private List<Calendar> calendars;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp(CalendarData data) throws IOException, ParserException {
+        calendars = new ArrayList<Calendar>();
+        for (int i = 0; i < data.getCalendars().size(); i++) {
+            calendars.add(new CalendarBuilder().build(data.reader(i)));
+        }
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public void output(Blackhole blackhole) throws IOException, ValidationException {
+        final CalendarOutputter outputter = new CalendarOutputter(false);
+        for (Calendar calendar : calendars) {
+            final StringWriter out = new StringWriter();
+            outputter.output(calendar, out);
+            blackhole.consume(out.getBuffer());
+        }
+    }
+
+    @Benchmark
+    public void outputConcurrent(Blackhole blackhole) throws IOException, ValidationException {
+        final CalendarOutputter outputter = new CalendarOutputter(false);
+        for (Calendar calendar : calendars) {
+            final StringWriter out = new StringWriter();
+            outputter.output(calendar, out, executor);
+            blackhole.consume(out.getBuffer());
+        }
+    }
+
+    @Benchmark
+    public void toStringValue(Blackhole blackhole) {
+        for (Calendar calendar : calendars) {
+            blackhole.consume(calendar.toString());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.io.IOException;
+
+import net.fortuna.ical4j.data.CalendarParser;
+import net.fortuna.ical4j.data.CalendarParserImpl;
+import net.fortuna.ical4j.data.ContentHandler;
+import net.fortuna.ical4j.data.ContentLineParser;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.data.UnfoldingReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures raw parsing (tokenising and unfolding) without building a calendar model.
+ *
+ * @author Ben Fortuna
+ */
+public class ParserBenchmark {
+
+    @Benchmark
+    public void calendarParserImpl(CalendarData data, Blackhole blackhole) throws IOException, ParserException {
+        parse(new CalendarParserImpl(), data, true, blackhole);
+    }
+
+    @Benchmark
+    public void contentLineParser(CalendarData data, Blackhole blackhole) throws IOException, ParserException {
+        // content lines are unfolded by the parser, as when building a calendar..
+        parse(new ContentLineParser(), data, false, blackhole);
+    }
+
+    private static void parse(CalendarParser parser, CalendarData data, boolean unfoldingReader,
+            Blackhole blackhole) throws IOException, ParserException {
+
+        final ContentHandler handler = new ConsumingContentHandler(blackhole);
+        for (int i = 0; i < data.getCalendars().size(); i++) {
+            if (unfoldingReader) {
+                parser.parse(new UnfoldingReader(data.reader(i)), handler);
+            }
+            else {
+                parser.parse(data.reader(i), handler);
+            }
+        }
+    }
+
+    /**
+     * Passes all parser events to a blackhole so that no work is eliminated.
+     */
+    private static class ConsumingContentHandler implements ContentHandler {
+
+        private final Blackhole blackhole;
+
+        public ConsumingContentHandler(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        public void startCalendar() {
+        }
+
+        public void endCalendar() {
+        }
+
+        public void startComponent(String name) {
+            blackhole.consume(name);
+        }
+
+        public void endComponent(String name) {
+            blackhole.consume(name);
+        }
+
+        public void startProperty(String name) {
+            blackhole.consume(name);
+        }
+
+        public void propertyValue(String value) {
+            blackhole.consume(value);
+        }
+
+        public void endProperty(String name) {
+            blackhole.consume(name);
+        }
+
+        public void parameter(String name, String value) {
+            blackhole.consume(name);
+            blackhole.consume(value);
+        }
+    }
+}
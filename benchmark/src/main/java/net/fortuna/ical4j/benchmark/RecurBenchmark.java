@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.text.ParseException;
+
+import net.fortuna.ical4j.model.DateList;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.Recur;
+import net.fortuna.ical4j.model.TimeZone;
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+import net.fortuna.ical4j.model.parameter.Value;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures recurrence expansion. The seed lies well before the query period so that the cost of
+ * advancing to the period (deep expansion) is included alongside the cost of generating instances.
+ *
+ * @author Ben Fortuna
+ */
+@State(Scope.Benchmark)
+public class RecurBenchmark {
+
+    @Param({"FREQ=DAILY", "FREQ=HOURLY;BYMINUTE=0,30", "FREQ=WEEKLY;BYDAY=MO,WE,FR",
+        "FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1", "FREQ=YEARLY;BYMONTH=1,7;BYDAY=SU;BYHOUR=9,17"})
+    public String rule;
+
+    /**
+     * Timezone of the seed date, or "UTC".
+     */
+    @Param({"UTC", "Australia/Melbourne"})
+    public String tzId;
+
+    private Recur recur;
+
+    private DateTime seed;
+
+    private DateTime periodStart;
+
+    private DateTime weekEnd;
+
+    private DateTime yearEnd;
+
+    @Setup
+    public void setUp() throws ParseException {
+        recur = new Recur(rule);
+        if ("UTC".equals(tzId)) {
+            seed = new DateTime("19920101T090000Z");
+            periodStart = new DateTime("20120101T000000Z");
+            weekEnd = new DateTime("20120108T000000Z");
+            yearEnd = new DateTime("20130101T000000Z");
+        }
+        else {
+            final TimeZone timezone = TimeZoneRegistryFactory.getInstance().createRegistry().getTimeZone(tzId);
+            seed = new DateTime("19920101T090000", timezone);
+            periodStart = new DateTime("20120101T000000", timezone);
+            weekEnd = new DateTime("20120108T000000", timezone);
+            yearEnd = new DateTime("20130101T000000", timezone);
+        }
+    }
+
+    @Benchmark
+    public DateList week() {
+        return recur.getDates(seed, periodStart, weekEnd, Value.DATE_TIME);
+    }
+
+    @Benchmark
+    public DateList year() {
+        return recur.getDates(seed, periodStart, yearEnd, Value.DATE_TIME);
+    }
+
+    @Benchmark
+    public DateList first100() {
+        return recur.getDates(seed, seed, yearEnd, Value.DATE_TIME, 100);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.benchmark;
+
+import java.text.ParseException;
+
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.TimeZone;
+import net.fortuna.ical4j.model.TimeZoneRegistry;
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures timezone loading and offset resolution against VTIMEZONE definitions.
+ *
+ * @author Ben Fortuna
+ */
+@State(Scope.Benchmark)
+public class TimeZoneBenchmark {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Param({"Europe/London", "America/New_York", "Australia/Melbourne"})
+    public String tzId;
+
+    private TimeZone timezone;
+
+    private long start;
+
+    @Setup
+    public void setUp() throws ParseException {
+        timezone = TimeZoneRegistryFactory.getInstance().createRegistry().getTimeZone(tzId);
+        start = new DateTime("19700101T000000Z").getTime();
+    }
+
+    /**
+     * Loads a timezone definition into an empty registry.
+     */
+    @Benchmark
+    public TimeZone load() {
+        final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+        return registry.getTimeZone(tzId);
+    }
+
+    /**
+     * Resolves offsets for one instant per day over fifty years.
+     */
+    @Benchmark
+    public void getOffset(Blackhole blackhole) {
+        for (int i = 0; i < 365 * 50; i++) {
+            blackhole.consume(timezone.getOffset(start + i * DAY));
+        }
+    }
+
+    /**
+     * Parses local date-times in the timezone, which requires resolving the applicable observance.
+     */
+    @Benchmark
+    public void parseDateTime(Blackhole blackhole) throws ParseException {
+        for (int month = 1; month <= 12; month++) {
+            blackhole.consume(new DateTime("2012" + (month < 10 ? "0" : "") + month + "15T093000", timezone));
+        }
+    }
+}
@@ -79,7 +79,7 @@ public abstract class AbstractOutputter {
 
     /**
      * @param validating indicates whether to validate calendar when outputting to stream
-     * @param foldLength maximum number of characters before a line is folded
+     * @param foldLength maximum number of octets before a line is folded
      */
     public AbstractOutputter(final boolean validating, final int foldLength) {
         this.validating = validating;
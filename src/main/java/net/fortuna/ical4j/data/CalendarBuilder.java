@@ -31,20 +31,33 @@
  */
 package net.fortuna.ical4j.data;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.net.URISyntaxException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import net.fortuna.ical4j.model.Calendar;
 import net.fortuna.ical4j.model.CalendarException;
 import net.fortuna.ical4j.model.Component;
 import net.fortuna.ical4j.model.ComponentFactory;
+import net.fortuna.ical4j.model.ComponentList;
 import net.fortuna.ical4j.model.Escapable;
 import net.fortuna.ical4j.model.Parameter;
 import net.fortuna.ical4j.model.ParameterFactory;
@@ -52,6 +65,7 @@ import net.fortuna.ical4j.model.ParameterFactoryRegistry;
 import net.fortuna.ical4j.model.Property;
 import net.fortuna.ical4j.model.PropertyFactory;
 import net.fortuna.ical4j.model.PropertyFactoryRegistry;
+import net.fortuna.ical4j.model.PropertyList;
 import net.fortuna.ical4j.model.TimeZone;
 import net.fortuna.ical4j.model.TimeZoneRegistry;
 import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
@@ -90,14 +104,40 @@ public class CalendarBuilder {
 
     private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
 
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The default maximum number of components awaiting timezone definitions when building via a
+     * {@link ComponentHandler}.
+     */
+    public static final int DEFAULT_MAX_DEFERRED_COMPONENTS = 1000;
+
     private final CalendarParser parser;
     
     private final ContentHandler contentHandler;
 
     private final TimeZoneRegistry tzRegistry;
+
+    private final PropertyFactoryRegistry propertyFactoryRegistry;
+
+    private final ParameterFactoryRegistry parameterFactoryRegistry;
     
     private List<Property> datesMissingTimezones;
 
+    private ComponentHandler componentHandler;
+
+    private int componentDatesMissingTimezones;
+
+    private List<DeferredComponent> deferredComponents;
+
+    private int maxDeferredComponents = DEFAULT_MAX_DEFERRED_COMPONENTS;
+
+    private boolean deferredParsing;
+
+    private boolean indexedProperties;
+
+    private boolean indexedComponents;
+
     /**
      * The calendar instance created by the builder.
      */
@@ -166,6 +206,8 @@ public class CalendarBuilder {
 
         this.parser = parser;
         this.tzRegistry = tzRegistry;
+        this.propertyFactoryRegistry = propertyFactoryRegistry;
+        this.parameterFactoryRegistry = parameterFactoryRegistry;
         this.contentHandler = new ContentHandlerImpl(ComponentFactory.getInstance(),
                 propertyFactoryRegistry, parameterFactoryRegistry);
     }
@@ -184,13 +226,18 @@ public class CalendarBuilder {
 
     /**
      * Builds an iCalendar model from the specified reader. An <code>UnfoldingReader</code> is applied to the
-     * specified reader to ensure the data stream is correctly unfolded where appropriate.
+     * specified reader to ensure the data stream is correctly unfolded where appropriate (unless the configured
+     * parser performs its own unfolding).
      * @param in a reader to read calendar data from
      * @return a calendar parsed from the specified reader
      * @throws IOException where an error occurs reading data from the specified reader
      * @throws ParserException where an error occurs parsing data from the reader
      */
     public Calendar build(final Reader in) throws IOException, ParserException {
+        if (parser instanceof ContentLineParser) {
+            // content lines are unfolded by the parser..
+            return buildCalendar(in);
+        }
         return build(new UnfoldingReader(in));
     }
 
@@ -203,17 +250,301 @@ public class CalendarBuilder {
      */
     public Calendar build(final UnfoldingReader uin) throws IOException,
             ParserException {
-        // re-initialise..
+        return buildCalendar(uin);
+    }
+
+    /**
+     * Builds an iCalendar model from the specified input stream, notifying the specified handler of each top-level
+     * component as it is parsed. Components are not added to the resulting calendar, such that memory usage is
+     * bounded by the size of the largest component rather than the size of the stream.
+     * @param in an input stream to read calendar data from
+     * @param handler a handler notified of each calendar component
+     * @return a calendar containing the calendar properties parsed from the specified input stream
+     * @throws IOException where an error occurs reading data from the specified stream
+     * @throws ParserException where an error occurs parsing data from the stream
+     * @see #build(Reader, ComponentHandler)
+     */
+    public Calendar build(final InputStream in, final ComponentHandler handler) throws IOException,
+            ParserException {
+        return build(new InputStreamReader(in, DEFAULT_CHARSET), handler);
+    }
+
+    /**
+     * Builds an iCalendar model from the specified reader, notifying the specified handler of each top-level
+     * component as it is parsed. Components are not added to the resulting calendar, such that memory usage is
+     * bounded by the size of the largest component rather than the size of the stream.
+     * 
+     * Timezone definitions are registered before the handler is notified of a <code>VTIMEZONE</code> component.
+     * Where a component references a timezone that has not yet been defined, notification is deferred until the
+     * timezone definition is parsed (or the end of the stream is reached), and as such components may not be
+     * received in the same order as they appear in the stream. Where more components than the configured maximum
+     * are awaiting timezone definitions, the earliest is notified with any timezones it references that cannot be
+     * resolved from the registry left undefined.
+     * @param in a reader to read calendar data from
+     * @param handler a handler notified of each calendar component
+     * @return a calendar containing the calendar properties parsed from the specified reader
+     * @throws IOException where an error occurs reading data from the specified reader
+     * @throws ParserException where an error occurs parsing data from the reader
+     * @see #setMaxDeferredComponents(int)
+     */
+    public Calendar build(final Reader in, final ComponentHandler handler) throws IOException,
+            ParserException {
+        componentHandler = handler;
+        deferredComponents = new ArrayList<DeferredComponent>();
+        try {
+            return build(in);
+        }
+        finally {
+            componentHandler = null;
+            deferredComponents = null;
+        }
+    }
+
+    /**
+     * Builds an iCalendar model from the specified input stream, parsing top-level components concurrently.
+     * @param in an input stream to read calendar data from
+     * @param executor an executor service used to parse components
+     * @return a calendar parsed from the specified input stream
+     * @throws IOException where an error occurs reading data from the specified stream
+     * @throws ParserException where an error occurs parsing data from the stream
+     * @see #build(Reader, ExecutorService)
+     */
+    public Calendar build(final InputStream in, final ExecutorService executor) throws IOException,
+            ParserException {
+        return build(new InputStreamReader(in, DEFAULT_CHARSET), executor);
+    }
+
+    /**
+     * Builds an iCalendar model from the specified reader, parsing top-level components concurrently. All data is
+     * read from the specified reader and split into chunks of consecutive top-level components, which are parsed
+     * by separate tasks (each using a new instance of the configured parser) submitted to the specified executor
+     * service.
+     * 
+     * Chunks containing <code>VTIMEZONE</code> components are parsed first such that timezone definitions are
+     * registered before dependent date properties are resolved. Components are added to the resulting calendar in
+     * the order they appear in the data. Where top-level component boundaries cannot be determined, or the
+     * configured parser is not a {@link CalendarParserImpl} or {@link ContentLineParser} (such that new instances
+     * cannot be created for each chunk), the data is parsed sequentially.
+     * @param in a reader to read calendar data from
+     * @param executor an executor service used to parse components
+     * @return a calendar parsed from the specified reader
+     * @throws IOException where an error occurs reading data from the specified reader
+     * @throws ParserException where an error occurs parsing data from the reader
+     */
+    public Calendar build(final Reader in, final ExecutorService executor) throws IOException,
+            ParserException {
+        return build(in, executor, ComponentChunker.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in a reader to read calendar data from
+     * @param executor an executor service used to parse components
+     * @param chunkSize the approximate size (in characters) of data parsed by each task
+     * @return a calendar parsed from the specified reader
+     * @throws IOException where an error occurs reading data from the specified reader
+     * @throws ParserException where an error occurs parsing data from the reader
+     */
+    final Calendar build(final Reader in, final ExecutorService executor, final int chunkSize)
+            throws IOException, ParserException {
+        
+        final StringBuilder b = new StringBuilder();
+        final char[] buffer = new char[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            b.append(buffer, 0, read);
+        }
+        final String data = b.toString();
+        
+        List<ComponentChunker.Chunk> chunks = null;
+        if (createParser(0) != null) {
+            chunks = new ComponentChunker(chunkSize).split(data);
+        }
+        if (chunks == null) {
+            // parse sequentially to report errors..
+            return build(new StringReader(data));
+        }
+
+        final Calendar[] results = new Calendar[chunks.size()];
+        final List<Future<Calendar>> futures = new ArrayList<Future<Calendar>>();
+        boolean complete = false;
+        try {
+            // parse calendar properties and register all timezone definitions before submitting other
+            // components, as timezones may appear after the components that reference them..
+            for (int i = 0; i < results.length; i++) {
+                if (i == 0 || chunks.get(i).isTimezones()) {
+                    results[i] = buildChunk(data, chunks.get(i));
+                }
+            }
+            for (int i = 0; i < results.length; i++) {
+                final ComponentChunker.Chunk chunk = chunks.get(i);
+                if (results[i] != null) {
+                    futures.add(null);
+                }
+                else {
+                    futures.add(executor.submit(new Callable<Calendar>() {
+                        public Calendar call() throws IOException, ParserException {
+                            return buildChunk(data, chunk);
+                        }
+                    }));
+                }
+            }
+            
+            for (int i = 0; i < results.length; i++) {
+                if (futures.get(i) != null) {
+                    results[i] = futures.get(i).get();
+                }
+            }
+            complete = true;
+        }
+        catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ParserException) {
+                throw (ParserException) cause;
+            }
+            else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CalendarException(cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        finally {
+            if (!complete) {
+                // abandon remaining chunks..
+                for (Future<Calendar> future : futures) {
+                    if (future != null) {
+                        future.cancel(true);
+                    }
+                }
+            }
+        }
+        
+        calendar = results[0];
+        for (int i = 1; i < results.length; i++) {
+            calendar.getProperties().addAll(results[i].getProperties());
+            calendar.getComponents().addAll(results[i].getComponents());
+        }
+        return calendar;
+    }
+
+    /**
+     * Builds a calendar from a chunk of iCalendar data.
+     */
+    private Calendar buildChunk(final String data, final ComponentChunker.Chunk chunk) throws IOException,
+            ParserException {
+        
+        final CalendarBuilder builder = new CalendarBuilder(createParser(chunk.getLineOffset()),
+                propertyFactoryRegistry, parameterFactoryRegistry, tzRegistry);
+        builder.setDeferredParsing(deferredParsing);
+        builder.setIndexedProperties(indexedProperties);
+        builder.setIndexedComponents(indexedComponents);
+        return builder.build(new StringReader(chunk.toCalendar(data)));
+    }
+
+    /**
+     * @param lineOffset the number of lines preceding the data parsed by the new instance
+     * @return a new instance of the configured parser, or null if the configured parser isn't one of the parsers
+     * provided by this library
+     */
+    private CalendarParser createParser(final int lineOffset) {
+        if (ContentLineParser.class.equals(parser.getClass())) {
+            return new ContentLineParser(lineOffset);
+        }
+        else if (CalendarParserImpl.class.equals(parser.getClass())) {
+            return new CalendarParserImpl(lineOffset);
+        }
+        return null;
+    }
+
+    /**
+     * Builds an iCalendar model from the specified file. The file is memory-mapped and decoded directly by a
+     * {@link ContentLineParser}, such that no intermediate readers are required.
+     * @param file a file to read calendar data from
+     * @return a calendar parsed from the specified file
+     * @throws IOException where an error occurs reading data from the specified file
+     * @throws ParserException where an error occurs parsing data from the file
+     * @see #build(FileChannel)
+     */
+    public Calendar build(final File file) throws IOException, ParserException {
+        final FileInputStream fin = new FileInputStream(file);
+        try {
+            return build(fin.getChannel());
+        }
+        finally {
+            fin.close();
+        }
+    }
+
+    /**
+     * Builds an iCalendar model from the specified file channel. The channel is memory-mapped (from position zero)
+     * and UTF-8 encoded data is decoded directly by a {@link ContentLineParser}, such that no intermediate readers are
+     * required. Files too large to be mapped to a single buffer are read via an input stream.
+     * @param channel a file channel to read calendar data from
+     * @return a calendar parsed from the specified file channel
+     * @throws IOException where an error occurs reading data from the specified channel
+     * @throws ParserException where an error occurs parsing data from the channel
+     */
+    public Calendar build(final FileChannel channel) throws IOException, ParserException {
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            return build(Channels.newInputStream(channel.position(0)));
+        }
+        
+        final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        
+        final ContentLineParser contentLineParser;
+        if (parser instanceof ContentLineParser) {
+            contentLineParser = (ContentLineParser) parser;
+        }
+        else {
+            contentLineParser = new ContentLineParser();
+        }
+        
+        reset();
+        contentLineParser.parse(new ContentLineLexer(bytes, DEFAULT_CHARSET,
+                CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING)), contentHandler);
+        return complete();
+    }
+
+    private Calendar buildCalendar(final Reader uin) throws IOException, ParserException {
+        reset();
+        parser.parse(uin, contentHandler);
+        return complete();
+    }
+
+    /**
+     * Re-initialise the builder prior to parsing.
+     */
+    private void reset() {
         calendar = null;
         component = null;
         subComponent = null;
         property = null;
         datesMissingTimezones = new ArrayList<Property>();
+    }
 
-        parser.parse(uin, contentHandler);
-
+    /**
+     * Resolve outstanding timezone references after parsing.
+     */
+    private Calendar complete() throws IOException {
         if (datesMissingTimezones.size() > 0 && tzRegistry != null) {
-            resolveTimezones();
+            resolveTimezones(datesMissingTimezones);
+        }
+        
+        if (componentHandler != null) {
+            // notify of components still awaiting timezone definitions..
+            for (DeferredComponent deferred : deferredComponents) {
+                notifyDeferredComponent(deferred);
+            }
+            deferredComponents.clear();
         }
         
         return calendar;
@@ -257,6 +588,33 @@ public class CalendarBuilder {
                 }
                 subComponent = null;
             }
+            else if (componentHandler != null) {
+                if (component instanceof VTimeZone && tzRegistry != null) {
+                    // register the timezone for use with iCalendar objects..
+                    tzRegistry.register(new TimeZone((VTimeZone) component));
+                }
+                
+                final List<Property> componentDates = datesMissingTimezones.subList(
+                        componentDatesMissingTimezones, datesMissingTimezones.size());
+                if (componentDates.isEmpty()) {
+                    componentHandler.component(component);
+                }
+                else {
+                    // wait for timezone definitions..
+                    deferredComponents.add(new DeferredComponent(component,
+                            new ArrayList<Property>(componentDates)));
+                    componentDates.clear();
+                    if (deferredComponents.size() > maxDeferredComponents) {
+                        // bound memory usage where timezone definitions are missing from the stream..
+                        notifyDeferredComponent(deferredComponents.remove(0));
+                    }
+                }
+                
+                if (component instanceof VTimeZone && tzRegistry != null) {
+                    notifyDeferredComponents();
+                }
+                component = null;
+            }
             else {
                 calendar.getComponents().add(component);
                 if (component instanceof VTimeZone && tzRegistry != null) {
@@ -317,6 +675,9 @@ public class CalendarBuilder {
             if (property instanceof Escapable) {
                 property.setValue(Strings.unescape(value));
             }
+            else if (deferredParsing) {
+                property.setDeferredValue(value);
+            }
             else {
                 property.setValue(value);
             }
@@ -326,7 +687,8 @@ public class CalendarBuilder {
          * {@inheritDoc}
          */
         public void startCalendar() {
-            calendar = new Calendar();
+            calendar = new Calendar(new PropertyList(indexedProperties),
+                    new ComponentList<CalendarComponent>(indexedComponents));
         }
 
         /**
@@ -334,10 +696,11 @@ public class CalendarBuilder {
          */
         public void startComponent(final String name) {
             if (component != null) {
-                subComponent = componentFactory.createComponent(name);
+                subComponent = componentFactory.createComponent(name, new PropertyList(indexedProperties));
             }
             else {
-                component = componentFactory.createComponent(name);
+                component = componentFactory.createComponent(name, new PropertyList(indexedProperties));
+                componentDatesMissingTimezones = datesMissingTimezones.size();
             }
         }
 
@@ -362,6 +725,86 @@ public class CalendarBuilder {
         }
     }
 
+    /**
+     * @return true if parsing of typed property values is deferred, otherwise false
+     * @see #setDeferredParsing(boolean)
+     */
+    public final boolean isDeferredParsing() {
+        return deferredParsing;
+    }
+
+    /**
+     * Specifies whether parsing of typed property values (such as dates, recurrence rules, periods, durations and
+     * URIs) is deferred until the value is first accessed. This reduces the cost of building calendars where only
+     * some property values are used, however invalid values are reported via a {@link CalendarException} on access
+     * rather than a {@link ParserException} during parsing. Deferred values are parsed while holding the lock of
+     * the property, such that built calendars may be read concurrently.
+     * @param deferredParsing true to defer parsing of property values, otherwise false
+     * @see Property#setDeferredValue(String)
+     */
+    public final void setDeferredParsing(final boolean deferredParsing) {
+        this.deferredParsing = deferredParsing;
+    }
+
+    /**
+     * @return the maximum number of components awaiting timezone definitions
+     * @see #setMaxDeferredComponents(int)
+     */
+    public final int getMaxDeferredComponents() {
+        return maxDeferredComponents;
+    }
+
+    /**
+     * Specifies the maximum number of components held while awaiting timezone definitions when building via a
+     * {@link ComponentHandler}. This bounds memory usage for streams that reference timezones which are never
+     * defined, at the cost of notifying components referencing a timezone defined later in the stream without it.
+     * @param maxDeferredComponents a maximum number of deferred components
+     * @see #build(Reader, ComponentHandler)
+     */
+    public final void setMaxDeferredComponents(final int maxDeferredComponents) {
+        if (maxDeferredComponents < 0) {
+            throw new IllegalArgumentException("Invalid maximum deferred components: " + maxDeferredComponents);
+        }
+        this.maxDeferredComponents = maxDeferredComponents;
+    }
+
+    /**
+     * @return true if built calendars and components contain indexed property lists, otherwise false
+     * @see #setIndexedProperties(boolean)
+     */
+    public final boolean isIndexedProperties() {
+        return indexedProperties;
+    }
+
+    /**
+     * Specifies whether built calendars and components contain property lists indexed by property name. This
+     * reduces the cost of repeated property lookups (e.g. during validation or recurrence expansion) at the cost of
+     * additional memory per component.
+     * @param indexedProperties true to index properties by name, otherwise false
+     * @see PropertyList#PropertyList(boolean)
+     */
+    public final void setIndexedProperties(final boolean indexedProperties) {
+        this.indexedProperties = indexedProperties;
+    }
+
+    /**
+     * @return true if built calendars contain an indexed component list, otherwise false
+     * @see #setIndexedComponents(boolean)
+     */
+    public final boolean isIndexedComponents() {
+        return indexedComponents;
+    }
+
+    /**
+     * Specifies whether built calendars contain a component list indexed by component name. This reduces the cost
+     * of repeated lookups of components of a given type (e.g. all VEVENT or VTIMEZONE components) in large calendars.
+     * @param indexedComponents true to index components by name, otherwise false
+     * @see ComponentList#ComponentList(boolean)
+     */
+    public final void setIndexedComponents(final boolean indexedComponents) {
+        this.indexedComponents = indexedComponents;
+    }
+
     /**
      * Returns the timezone registry used in the construction of calendars.
      * @return a timezone registry
@@ -392,8 +835,59 @@ public class CalendarBuilder {
         }
     }
     
-    private void resolveTimezones() 
-        throws IOException {
+    /**
+     * Notifies the component handler of deferred components for which all referenced timezones are now defined.
+     */
+    private void notifyDeferredComponents() {
+        for (Iterator<DeferredComponent> i = deferredComponents.iterator(); i.hasNext();) {
+            final DeferredComponent deferred = i.next();
+            boolean resolvable = true;
+            for (Property property : deferred.datesMissingTimezones) {
+                final Parameter tzParam = property.getParameter(Parameter.TZID);
+                if (tzParam != null && tzRegistry.getTimeZone(tzParam.getValue()) == null) {
+                    resolvable = false;
+                    break;
+                }
+            }
+            if (resolvable) {
+                notifyDeferredComponent(deferred);
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * Resolves timezones referenced by a deferred component where possible and notifies the component handler.
+     */
+    private void notifyDeferredComponent(final DeferredComponent deferred) {
+        if (tzRegistry != null) {
+            try {
+                resolveTimezones(deferred.datesMissingTimezones);
+            }
+            catch (IOException e) {
+                // shouldn't happen as its already been parsed
+                throw new CalendarException(e);
+            }
+        }
+        componentHandler.component(deferred.component);
+    }
+
+    /**
+     * A component awaiting definition of the timezones it references.
+     */
+    private static class DeferredComponent {
+        
+        private final CalendarComponent component;
+        
+        private final List<Property> datesMissingTimezones;
+        
+        public DeferredComponent(CalendarComponent component, List<Property> datesMissingTimezones) {
+            this.component = component;
+            this.datesMissingTimezones = datesMissingTimezones;
+        }
+    }
+    
+    private void resolveTimezones(List<Property> datesMissingTimezones) throws IOException {
         
         // Go through each property and try to resolve the TZID.
         for (Property property : datesMissingTimezones) {
@@ -32,23 +32,42 @@
 package net.fortuna.ical4j.data;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.CalendarException;
 import net.fortuna.ical4j.model.ValidationException;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.util.Strings;
 
 /**
  * <pre>
  * $Id$ [Apr 5, 2004]
  * </pre>
  *
- * Writes an iCalendar model to an output stream.
+ * Writes an iCalendar model to an output stream. Components and properties are written directly to the output
+ * (rather than via the string representation of the calendar), such that output of large calendars doesn't require
+ * a copy of the entire calendar in memory.
  * @author Ben Fortuna
  */
 public class CalendarOutputter extends AbstractOutputter {
 
+    /**
+     * The default number of top-level components written by each task when rendering concurrently.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 100;
+
     /**
      * Default constructor.
      */
@@ -65,7 +84,7 @@ public class CalendarOutputter extends AbstractOutputter {
 
     /**
      * @param validating indicates whether to validate calendar when outputting to stream
-     * @param foldLength maximum number of characters before a line is folded
+     * @param foldLength maximum number of octets before a line is folded
      */
     public CalendarOutputter(final boolean validating, final int foldLength) {
         super(validating, foldLength);
@@ -83,6 +102,20 @@ public class CalendarOutputter extends AbstractOutputter {
         output(calendar, new OutputStreamWriter(out, DEFAULT_CHARSET));
     }
 
+    /**
+     * Outputs an iCalender string to the specified output stream, rendering top-level components concurrently.
+     * @param calendar calendar to write to ouput stream
+     * @param out an output stream
+     * @param executor an executor service used to render components
+     * @throws IOException thrown when unable to write to output stream
+     * @throws ValidationException where calendar validation fails
+     * @see #output(Calendar, Writer, ExecutorService)
+     */
+    public final void output(final Calendar calendar, final OutputStream out, final ExecutorService executor)
+            throws IOException, ValidationException {
+        output(calendar, new OutputStreamWriter(out, DEFAULT_CHARSET), executor);
+    }
+
     /**
      * Outputs an iCalender string to the specified writer.
      * @param calendar calendar to write to writer
@@ -98,10 +131,114 @@ public class CalendarOutputter extends AbstractOutputter {
 
         final FoldingWriter writer = new FoldingWriter(out, foldLength);
         try {
-            writer.write(calendar.toString());
+            writeStart(calendar, writer);
+            for (final CalendarComponent component : calendar.getComponents()) {
+                component.write(writer);
+            }
+            writeEnd(writer);
         }
         finally {
             writer.close();
         }
     }
+
+    /**
+     * Outputs an iCalender string to the specified writer, rendering top-level components concurrently. Consecutive
+     * components are rendered in chunks by separate tasks submitted to the specified executor service, and chunks
+     * are written to the writer in order as they are completed. Output is identical to that of
+     * {@link #output(Calendar, Writer)}.
+     * @param calendar calendar to write to writer
+     * @param out a writer
+     * @param executor an executor service used to render components
+     * @throws IOException thrown when unable to write to writer
+     * @throws ValidationException where calendar validation fails
+     */
+    public final void output(final Calendar calendar, final Writer out, final ExecutorService executor)
+            throws IOException, ValidationException {
+        output(calendar, out, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param calendar calendar to write to writer
+     * @param out a writer
+     * @param executor an executor service used to render components
+     * @param chunkSize the number of top-level components rendered by each task
+     * @throws IOException thrown when unable to write to writer
+     * @throws ValidationException where calendar validation fails
+     */
+    final void output(final Calendar calendar, final Writer out, final ExecutorService executor,
+            final int chunkSize) throws IOException, ValidationException {
+        
+        if (isValidating()) {
+            calendar.validate();
+        }
+
+        // limit the number of rendered chunks held in memory..
+        final int maxPending = Runtime.getRuntime().availableProcessors() * 2;
+        final LinkedList<Future<String>> pending = new LinkedList<Future<String>>();
+        final FoldingWriter writer = new FoldingWriter(out, foldLength);
+        try {
+            writeStart(calendar, writer);
+            final Iterator<CalendarComponent> components = calendar.getComponents().iterator();
+            while (components.hasNext() || !pending.isEmpty()) {
+                while (components.hasNext() && pending.size() < maxPending) {
+                    final List<CalendarComponent> chunk = new LinkedList<CalendarComponent>();
+                    while (components.hasNext() && chunk.size() < chunkSize) {
+                        chunk.add(components.next());
+                    }
+                    pending.add(executor.submit(new Callable<String>() {
+                        public String call() throws IOException {
+                            final StringWriter chunkOut = new StringWriter();
+                            for (final CalendarComponent component : chunk) {
+                                component.write(chunkOut);
+                            }
+                            return chunkOut.toString();
+                        }
+                    }));
+                }
+                // chunks begin on a new line, and so are folded the same as if written directly..
+                writer.write(pending.removeFirst().get());
+            }
+            writeEnd(writer);
+        }
+        catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CalendarException(cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        finally {
+            // abandon remaining chunks..
+            for (Future<String> future : pending) {
+                future.cancel(true);
+            }
+            writer.close();
+        }
+    }
+
+    private static void writeStart(final Calendar calendar, final Writer out) throws IOException {
+        out.write(Calendar.BEGIN);
+        out.write(':');
+        out.write(Calendar.VCALENDAR);
+        out.write(Strings.LINE_SEPARATOR);
+        calendar.getProperties().write(out);
+    }
+
+    private static void writeEnd(final Writer out) throws IOException {
+        out.write(Calendar.END);
+        out.write(':');
+        out.write(Calendar.VCALENDAR);
+        out.write(Strings.LINE_SEPARATOR);
+    }
 }
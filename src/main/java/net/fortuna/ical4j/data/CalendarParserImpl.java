@@ -81,6 +81,23 @@ public class CalendarParserImpl implements CalendarParser {
     private final ParameterListParser paramListParser = new ParameterListParser();
 
     private final ParameterParser paramParser = new ParameterParser();
+
+    private final int lineOffset;
+
+    /**
+     * Default constructor.
+     */
+    public CalendarParserImpl() {
+        this(0);
+    }
+
+    /**
+     * @param lineOffset the number of lines preceding parsed data in the original source, used to report
+     * the line number of parsing errors
+     */
+    CalendarParserImpl(final int lineOffset) {
+        this.lineOffset = lineOffset;
+    }
     
     /**
      * {@inheritDoc}
@@ -516,6 +533,6 @@ public class CalendarParserImpl implements CalendarParser {
             final int unfolded = ((UnfoldingReader) in).getLinesUnfolded();
             line += unfolded;
         }
-        return line;
+        return line + lineOffset;
     }
 }
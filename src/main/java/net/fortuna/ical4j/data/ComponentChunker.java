@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+
+/**
+ * <pre>
+ * $Id$
+ *
+ * Created on 17/10/2026
+ * </pre>
+ *
+ * Splits iCalendar data into chunks of consecutive top-level components that may be parsed independently. The
+ * boundaries of top-level components are identified by tracking the nesting of lines beginning with
+ * <code>BEGIN:</code> and <code>END:</code>. As folded lines always begin with whitespace such lines cannot be
+ * mistaken for a boundary, and so data need not be unfolded to be split.
+ * 
+ * Chunks contain either <code>VTIMEZONE</code> components or other components, but not both. Calendar properties
+ * between components are included in the surrounding chunk.
+ * 
+ * @author Ben Fortuna
+ */
+class ComponentChunker {
+
+    /**
+     * The default approximate size (in characters) of a chunk.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final String BEGIN_PREFIX = Component.BEGIN + ':';
+
+    private static final String END_PREFIX = Component.END + ':';
+
+    private static final String CALENDAR_BEGIN = BEGIN_PREFIX + Calendar.VCALENDAR + "\r\n";
+
+    private static final String CALENDAR_END = END_PREFIX + Calendar.VCALENDAR + "\r\n";
+
+    private static final int WHITESPACE_CHAR_END = 20;
+
+    private final int chunkSize;
+
+    /**
+     * @param chunkSize the approximate size (in characters) at which to split consecutive components into chunks
+     */
+    ComponentChunker(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * A range of iCalendar data.
+     */
+    static class Chunk {
+
+        private final int start;
+
+        private final int end;
+
+        private final int lineNo;
+
+        private final boolean timezones;
+
+        private Chunk(final int start, final int end, final int lineNo, final boolean timezones) {
+            this.start = start;
+            this.end = end;
+            this.lineNo = lineNo;
+            this.timezones = timezones;
+        }
+
+        /**
+         * @return true if this chunk contains <code>VTIMEZONE</code> components
+         */
+        boolean isTimezones() {
+            return timezones;
+        }
+
+        /**
+         * @return the number of lines preceding the content of this chunk when formatted as a calendar
+         */
+        int getLineOffset() {
+            if (start == 0) {
+                return 0;
+            }
+            // account for prepended calendar begin line..
+            return lineNo - 2;
+        }
+
+        /**
+         * @param data the data from which the chunk was split
+         * @return the chunk formatted as a calendar
+         */
+        String toCalendar(final String data) {
+            final StringBuilder b = new StringBuilder(end - start + CALENDAR_BEGIN.length() + CALENDAR_END.length());
+            if (start > 0) {
+                b.append(CALENDAR_BEGIN);
+            }
+            b.append(data, start, end);
+            b.append(CALENDAR_END);
+            return b.toString();
+        }
+    }
+
+    /**
+     * Splits iCalendar data into chunks. The first chunk returned is the calendar header, containing the calendar
+     * begin line and all calendar properties preceding the first component.
+     * @param data iCalendar data
+     * @return a list of chunks, or null if the data is not a well-formed calendar
+     */
+    List<Chunk> split(final String data) {
+        final List<Chunk> chunks = new ArrayList<Chunk>();
+        final int length = data.length();
+        
+        int position = 0;
+        int lineNo = 0;
+        int depth = 0;
+        
+        boolean headerComplete = false;
+        int chunkStart = -1;
+        int chunkLineNo = 0;
+        boolean chunkComponents = false;
+        boolean chunkTimezones = false;
+        boolean closePending = false;
+
+        while (position < length) {
+            final int lineStart = position;
+            lineNo++;
+
+            int lineEnd = position;
+            while (lineEnd < length && data.charAt(lineEnd) != '\r' && data.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            position = lineEnd;
+            if (position < length) {
+                if (data.charAt(position) == '\r' && position + 1 < length && data.charAt(position + 1) == '\n') {
+                    position += 2;
+                }
+                else {
+                    position++;
+                }
+            }
+            
+            final boolean begin = data.startsWith(BEGIN_PREFIX, lineStart);
+            final boolean end = !begin && data.startsWith(END_PREFIX, lineStart);
+
+            if (depth == 0) {
+                if (lineNo > 1 || !begin) {
+                    return null;
+                }
+                depth++;
+            }
+            else if (depth == 1) {
+                if (closePending && !isBlank(data, lineStart, lineEnd)) {
+                    chunks.add(new Chunk(chunkStart, lineStart, chunkLineNo, chunkTimezones));
+                    chunkStart = -1;
+                    chunkComponents = false;
+                    closePending = false;
+                }
+
+                if (begin) {
+                    final boolean timezone = data.startsWith(Component.VTIMEZONE, lineStart + BEGIN_PREFIX.length());
+                    if (!headerComplete) {
+                        chunks.add(new Chunk(0, lineStart, 1, false));
+                        headerComplete = true;
+                    }
+                    else if (chunkComponents && chunkTimezones != timezone) {
+                        chunks.add(new Chunk(chunkStart, lineStart, chunkLineNo, chunkTimezones));
+                        chunkStart = -1;
+                        chunkComponents = false;
+                    }
+                    if (chunkStart < 0) {
+                        chunkStart = lineStart;
+                        chunkLineNo = lineNo;
+                    }
+                    if (!chunkComponents) {
+                        chunkTimezones = timezone;
+                        chunkComponents = true;
+                    }
+                    depth++;
+                }
+                else if (end) {
+                    if (!headerComplete) {
+                        chunks.add(new Chunk(0, lineStart, 1, false));
+                    }
+                    else if (chunkStart >= 0) {
+                        chunks.add(new Chunk(chunkStart, lineStart, chunkLineNo, chunkTimezones));
+                    }
+                    return chunks;
+                }
+                else if (headerComplete && chunkStart < 0) {
+                    // calendar property following a component..
+                    chunkStart = lineStart;
+                    chunkLineNo = lineNo;
+                }
+            }
+            else if (begin) {
+                depth++;
+            }
+            else if (end) {
+                depth--;
+                if (depth == 1 && position - chunkStart >= chunkSize) {
+                    // close chunk at the next non-blank line..
+                    closePending = true;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBlank(final String data, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = data.charAt(i);
+            if (c > WHITESPACE_CHAR_END || c == '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
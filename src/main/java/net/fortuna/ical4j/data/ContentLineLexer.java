@@ -0,0 +1,533 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StreamTokenizer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * <pre>
+ * $Id$
+ *
+ * Created on 17/10/2026
+ * </pre>
+ *
+ * Splits iCalendar data into tokens, one content line at a time. Each (optionally unfolded) content line is copied
+ * into a reusable character buffer, from which tokens are identified by offset such that strings are only created
+ * on request. Data is read in bulk from either a reader or (bypassing any reader) decoded directly from a byte
+ * buffer.
+ * 
+ * Tokens are classified in the same way as the {@link StreamTokenizer} configuration used by
+ * {@link CalendarParserImpl}: characters in the range 0 - 20 (excluding tab) are whitespace, ':', ';', '=', tab and
+ * the remaining control characters are single-character tokens, '"' delimits a quoted string, and all other
+ * characters form words.
+ * 
+ * @author Ben Fortuna
+ */
+class ContentLineLexer {
+
+    /**
+     * Token type indicating the end of the stream.
+     */
+    static final int TT_EOF = StreamTokenizer.TT_EOF;
+
+    /**
+     * Token type indicating the end of a line.
+     */
+    static final int TT_EOL = StreamTokenizer.TT_EOL;
+
+    /**
+     * Token type indicating a word.
+     */
+    static final int TT_WORD = StreamTokenizer.TT_WORD;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int LINE_SIZE = 256;
+
+    private static final int WHITESPACE_CHAR_END = 20;
+
+    private static final int WORD_CHAR_START = 32;
+
+    private final Reader in;
+
+    private final ByteBuffer bytes;
+
+    private final CharsetDecoder decoder;
+
+    private final CharBuffer decoded;
+
+    private boolean flushed;
+
+    private final boolean unfold;
+
+    private final boolean relaxed;
+
+    private final char[] buffer;
+
+    private int position;
+
+    private int limit;
+
+    private char[] line = new char[LINE_SIZE];
+
+    private int length;
+
+    private int cursor;
+
+    private boolean lineRequired = true;
+
+    private boolean endOfStream;
+
+    private boolean lineTerminated;
+
+    private int lineNo;
+
+    private int[] folds = new int[4];
+
+    private int foldCount;
+
+    private int linesUnfolded;
+
+    private int ttype = TT_EOL;
+
+    private int tokenStart;
+
+    private int tokenEnd;
+
+    private String quoted;
+
+    private boolean pushedBack;
+
+    /**
+     * @param in the source of iCalendar data
+     * @param unfold indicates whether lines should be unfolded as they are read
+     * @param relaxed indicates whether relaxed unfolding is enabled
+     */
+    ContentLineLexer(final Reader in, final boolean unfold, final boolean relaxed) {
+        this(in, unfold, relaxed, 0);
+    }
+
+    /**
+     * @param in the source of iCalendar data
+     * @param unfold indicates whether lines should be unfolded as they are read
+     * @param relaxed indicates whether relaxed unfolding is enabled
+     * @param lineOffset the number of lines preceding the data in the original source
+     */
+    ContentLineLexer(final Reader in, final boolean unfold, final boolean relaxed, final int lineOffset) {
+        this.in = in;
+        this.bytes = null;
+        this.decoder = null;
+        this.decoded = null;
+        this.lineNo = lineOffset;
+        this.unfold = unfold;
+        this.relaxed = relaxed;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * @param bytes the source of encoded iCalendar data
+     * @param charset the character set used to decode data
+     * @param relaxed indicates whether relaxed unfolding is enabled
+     */
+    ContentLineLexer(final ByteBuffer bytes, final Charset charset, final boolean relaxed) {
+        this.in = null;
+        this.bytes = bytes;
+        // replace malformed input consistent with java.io.InputStreamReader..
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.unfold = true;
+        this.relaxed = relaxed;
+        this.buffer = new char[BUFFER_SIZE];
+        this.decoded = CharBuffer.wrap(buffer);
+    }
+
+    /**
+     * @return the type of the next token
+     * @throws IOException where an error occurs reading data
+     */
+    final int nextToken() throws IOException {
+        if (pushedBack) {
+            pushedBack = false;
+            return ttype;
+        }
+        quoted = null;
+
+        if (lineRequired) {
+            if (!readLine()) {
+                return ttype = TT_EOF;
+            }
+            lineRequired = false;
+        }
+
+        while (cursor < length && isWhitespace(line[cursor])) {
+            cursor++;
+        }
+        if (cursor == length) {
+            if (lineTerminated) {
+                lineRequired = true;
+                return ttype = TT_EOL;
+            }
+            return ttype = TT_EOF;
+        }
+
+        final char c = line[cursor];
+        if (isWordChar(c)) {
+            tokenStart = cursor;
+            do {
+                cursor++;
+            }
+            while (cursor < length && isWordChar(line[cursor]));
+            tokenEnd = cursor;
+            return ttype = TT_WORD;
+        }
+        else if (c == '"') {
+            quoted = readQuoted();
+            return ttype = c;
+        }
+        cursor++;
+        return ttype = c;
+    }
+
+    /**
+     * Causes the next call to {@link #nextToken()} to return the current token again.
+     */
+    final void pushBack() {
+        pushedBack = true;
+    }
+
+    /**
+     * @return the type of the current token
+     */
+    final int getTokenType() {
+        return ttype;
+    }
+
+    /**
+     * @return the content of the current word or quoted string token, or null if the current token is neither
+     */
+    final String getStringValue() {
+        if (ttype == TT_WORD) {
+            return new String(line, tokenStart, tokenEnd - tokenStart);
+        }
+        return quoted;
+    }
+
+    /**
+     * @param value a string value
+     * @return true if the current token is a word or quoted string equal to the specified value
+     */
+    final boolean isToken(final String value) {
+        if (ttype == TT_WORD) {
+            final int count = tokenEnd - tokenStart;
+            if (count != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (line[tokenStart + i] != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value.equals(quoted);
+    }
+
+    /**
+     * Appends the current word token to the specified buffer.
+     * @param b a string buffer
+     */
+    final void appendWord(final StringBuilder b) {
+        b.append(line, tokenStart, tokenEnd - tokenStart);
+    }
+
+    /**
+     * Reads all remaining content up to the end of the current line. Where the current token is the end of a line the
+     * next line is read in its entirety. The end of line token is consumed.
+     * @return the remaining content of the line, or null if the end of the stream is reached before the end of line
+     * @throws IOException where an error occurs reading data
+     */
+    final String readValue() throws IOException {
+        if (ttype == TT_EOF) {
+            return null;
+        }
+        if (lineRequired) {
+            if (!readLine()) {
+                ttype = TT_EOF;
+                return null;
+            }
+            lineRequired = false;
+        }
+
+        final int start = cursor;
+        int end = start;
+        while (end < length && !isWhitespace(line[end])) {
+            end++;
+        }
+        final String value;
+        if (end == length) {
+            value = new String(line, start, end - start);
+        }
+        else {
+            // strip whitespace characters..
+            final StringBuilder b = new StringBuilder(length - start);
+            b.append(line, start, end - start);
+            for (int i = end; i < length; i++) {
+                if (!isWhitespace(line[i])) {
+                    b.append(line[i]);
+                }
+            }
+            value = b.toString();
+        }
+        cursor = length;
+
+        if (!lineTerminated) {
+            ttype = TT_EOF;
+            return null;
+        }
+        lineRequired = true;
+        ttype = TT_EOL;
+        return value;
+    }
+
+    /**
+     * @return the number of the line containing the current token, including any unfolded lines
+     */
+    final int getLineNumber() {
+        int line = lineNo;
+        if (in instanceof UnfoldingReader) {
+            line += ((UnfoldingReader) in).getLinesUnfolded();
+        }
+        else {
+            line += linesUnfolded;
+            for (int i = 0; i < foldCount; i++) {
+                if (lineRequired || folds[i] <= cursor) {
+                    line++;
+                }
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Reads a quoted string from the current line.
+     */
+    private String readQuoted() {
+        final StringBuilder b = new StringBuilder();
+        // skip opening quote..
+        cursor++;
+        while (cursor < length && line[cursor] != '"') {
+            char c = line[cursor++];
+            if (c == '\\' && cursor < length) {
+                // process escape sequences..
+                c = line[cursor++];
+                if (c >= '0' && c <= '7') {
+                    final char first = c;
+                    int octal = c - '0';
+                    if (cursor < length && line[cursor] >= '0' && line[cursor] <= '7') {
+                        octal = (octal << 3) + (line[cursor++] - '0');
+                        if (cursor < length && line[cursor] >= '0' && line[cursor] <= '7' && first <= '3') {
+                            octal = (octal << 3) + (line[cursor++] - '0');
+                        }
+                    }
+                    c = (char) octal;
+                }
+                else {
+                    switch (c) {
+                        case 'a':
+                            c = 0x7;
+                            break;
+                        case 'b':
+                            c = '\b';
+                            break;
+                        case 'f':
+                            c = 0xC;
+                            break;
+                        case 'n':
+                            c = '\n';
+                            break;
+                        case 'r':
+                            c = '\r';
+                            break;
+                        case 't':
+                            c = '\t';
+                            break;
+                        case 'v':
+                            c = 0xB;
+                            break;
+                        default:
+                    }
+                }
+            }
+            b.append(c);
+        }
+        if (cursor < length) {
+            // skip closing quote..
+            cursor++;
+        }
+        return b.toString();
+    }
+
+    /**
+     * Reads the next (unfolded) line into the line buffer.
+     * @return false if the end of the stream has been reached, otherwise true
+     */
+    private boolean readLine() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        linesUnfolded += foldCount;
+        foldCount = 0;
+        length = 0;
+        cursor = 0;
+
+        while (true) {
+            if (position == limit && !fill()) {
+                endOfStream = true;
+                lineTerminated = false;
+                lineNo++;
+                return length > 0;
+            }
+
+            // copy run of characters up to the next line terminator..
+            int end = position;
+            while (end < limit && buffer[end] != '\r' && buffer[end] != '\n') {
+                end++;
+            }
+            append(position, end);
+            position = end;
+            if (position == limit) {
+                continue;
+            }
+
+            final char c = buffer[position++];
+            boolean crlf = false;
+            if (c == '\r' && peek() == '\n') {
+                position++;
+                crlf = true;
+            }
+            if (unfold && (crlf || (relaxed && c == '\n'))) {
+                final int next = peek();
+                if (next == ' ' || next == '\t') {
+                    position++;
+                    if (foldCount == folds.length) {
+                        final int[] newFolds = new int[folds.length * 2];
+                        System.arraycopy(folds, 0, newFolds, 0, foldCount);
+                        folds = newFolds;
+                    }
+                    folds[foldCount++] = length;
+                    continue;
+                }
+            }
+            lineNo++;
+            lineTerminated = true;
+            return true;
+        }
+    }
+
+    private void append(final int start, final int end) {
+        final int count = end - start;
+        if (count == 0) {
+            return;
+        }
+        if (length + count > line.length) {
+            final char[] newLine = new char[Math.max(line.length * 2, length + count)];
+            System.arraycopy(line, 0, newLine, 0, length);
+            line = newLine;
+        }
+        System.arraycopy(buffer, start, line, length, count);
+        length += count;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        if (bytes != null) {
+            read = decode();
+        }
+        else {
+            do {
+                read = in.read(buffer, 0, buffer.length);
+            }
+            while (read == 0);
+        }
+        position = 0;
+        if (read < 0) {
+            limit = 0;
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    /**
+     * Decodes the next block of characters directly into the character buffer.
+     */
+    private int decode() throws IOException {
+        decoded.clear();
+        if (bytes.hasRemaining()) {
+            final CoderResult result = decoder.decode(bytes, decoded, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+        }
+        if (!bytes.hasRemaining() && !flushed && decoded.hasRemaining()) {
+            decoder.flush(decoded);
+            flushed = true;
+        }
+        if (decoded.position() == 0) {
+            return -1;
+        }
+        return decoded.position();
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c <= WHITESPACE_CHAR_END && c != '\t';
+    }
+
+    private static boolean isWordChar(final char c) {
+        return c >= WORD_CHAR_START && c != ':' && c != ';' && c != '=' && c != '"';
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StreamTokenizer;
+import java.net.URISyntaxException;
+import java.text.MessageFormat;
+import java.text.ParseException;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.util.CompatibilityHints;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <pre>
+ * $Id$
+ *
+ * Created on 17/10/2026
+ * </pre>
+ *
+ * A calendar parser implementation that lexes content lines directly from a character buffer rather than via a
+ * {@link StreamTokenizer}. Lines are unfolded as they are read (unless the source is already an
+ * {@link UnfoldingReader}), and the name, parameters and value of each content line are located by scanning the
+ * buffer for the ':', ';', '=' and '"' delimiters, so that strings are only created for the content passed to the
+ * {@link ContentHandler}.
+ * 
+ * The sequence of content handler notifications is identical to that of {@link CalendarParserImpl}. The only
+ * difference in behaviour is that an unquoted parameter value that is not terminated before the end of the
+ * stream results in a {@link ParserException} (rather than the parser never returning).
+ * 
+ * This parser may be enabled by specifying the following system property:
+ * 
+ * <pre>
+ * net.fortuna.ical4j.parser=net.fortuna.ical4j.data.ContentLineParserFactory
+ * </pre>
+ * 
+ * @author Ben Fortuna
+ */
+public class ContentLineParser implements CalendarParser {
+
+    private static final String UNEXPECTED_TOKEN_MESSAGE = "Expected [{0}], read [{1}]";
+
+    private Log log = LogFactory.getLog(ContentLineParser.class);
+
+    private final int lineOffset;
+
+    /**
+     * Default constructor.
+     */
+    public ContentLineParser() {
+        this(0);
+    }
+
+    /**
+     * @param lineOffset the number of lines preceding parsed data in the original source, used to report
+     * the line number of parsing errors
+     */
+    ContentLineParser(final int lineOffset) {
+        this.lineOffset = lineOffset;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final void parse(final InputStream in, final ContentHandler handler)
+            throws IOException, ParserException {
+        parse(new InputStreamReader(in), handler);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final void parse(final Reader in, final ContentHandler handler)
+            throws IOException, ParserException {
+
+        final ContentLineLexer lexer;
+        if (in instanceof UnfoldingReader) {
+            lexer = new ContentLineLexer(in, false, false, lineOffset);
+        }
+        else {
+            lexer = new ContentLineLexer(in, true,
+                    CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING), lineOffset);
+        }
+        parse(lexer, handler);
+    }
+
+    /**
+     * Parses iCalendar data from the specified lexer.
+     * @param lexer a lexer providing tokens of iCalendar data
+     * @param handler the content handler to notify during parsing
+     * @throws IOException where an error occurs reading data
+     * @throws ParserException where an error occurs parsing data
+     */
+    final void parse(final ContentLineLexer lexer, final ContentHandler handler)
+            throws IOException, ParserException {
+        
+        try {
+            // BEGIN:VCALENDAR
+            assertToken(lexer, Calendar.BEGIN, false);
+
+            assertToken(lexer, ':');
+
+            assertToken(lexer, Calendar.VCALENDAR, true);
+
+            assertToken(lexer, ContentLineLexer.TT_EOL);
+
+            handler.startCalendar();
+
+            // parse calendar properties..
+            parsePropertyList(lexer, handler);
+
+            // parse components..
+            parseComponentList(lexer, handler);
+
+            // END:VCALENDAR
+            assertToken(lexer, ':');
+
+            assertToken(lexer, Calendar.VCALENDAR, true);
+
+            handler.endCalendar();
+        }
+        catch (Exception e) {
+
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            if (e instanceof ParserException) {
+                throw (ParserException) e;
+            }
+            else {
+                throw new ParserException(e.getMessage(), lexer.getLineNumber(), e);
+            }
+        }
+    }
+
+    /**
+     * Parses a list of properties and sub-components until an END token is read.
+     */
+    private void parsePropertyList(final ContentLineLexer lexer, final ContentHandler handler)
+            throws IOException, ParseException, URISyntaxException, ParserException {
+
+        assertToken(lexer, ContentLineLexer.TT_WORD);
+
+        while (!lexer.isToken(Component.END)) {
+            // check for timezones observances or vevent/vtodo alarms..
+            if (lexer.isToken(Component.BEGIN)) {
+                parseComponent(lexer, handler);
+            }
+            else {
+                parseProperty(lexer, handler);
+            }
+            absorbWhitespace(lexer);
+        }
+    }
+
+    /**
+     * Parses a property, including parameters and value.
+     */
+    private void parseProperty(final ContentLineLexer lexer, final ContentHandler handler)
+            throws IOException, ParserException, URISyntaxException, ParseException {
+
+        final String name = lexer.getStringValue();
+
+        // debugging..
+        if (log.isDebugEnabled()) {
+            log.debug("Property [" + name + "]");
+        }
+
+        handler.startProperty(name);
+
+        while (lexer.nextToken() == ';') {
+            parseParameter(lexer, handler);
+        }
+
+        // the remainder of the line (including any further control tokens) is the property value..
+        final String value = lexer.readValue();
+        if (value == null) {
+            throw new ParserException("Unexpected end of file", lexer.getLineNumber());
+        }
+
+        try {
+            handler.propertyValue(value);
+        }
+        catch (ParseException e) {
+            final ParseException eNew = new ParseException("[" + name + "] "
+                    + e.getMessage(), e.getErrorOffset());
+            eNew.initCause(e);
+            throw eNew;
+        }
+
+        handler.endProperty(name);
+    }
+
+    /**
+     * Parses a single parameter.
+     */
+    private void parseParameter(final ContentLineLexer lexer, final ContentHandler handler)
+            throws IOException, ParserException, URISyntaxException {
+
+        assertToken(lexer, ContentLineLexer.TT_WORD);
+
+        final String paramName = lexer.getStringValue();
+
+        // debugging..
+        if (log.isDebugEnabled()) {
+            log.debug("Parameter [" + paramName + "]");
+        }
+
+        assertToken(lexer, '=');
+
+        final String paramValue;
+        
+        int token = lexer.nextToken();
+        // preserve quote chars..
+        if (token == '"') {
+            paramValue = '"' + lexer.getStringValue() + '"';
+        }
+        else if (token == ContentLineLexer.TT_WORD) {
+            final String word = lexer.getStringValue();
+            // check for additional tokens to account for equals (=) in param-value
+            token = lexer.nextToken();
+            if (token == ';' || token == ':') {
+                paramValue = word;
+            }
+            else {
+                final StringBuilder b = new StringBuilder(word);
+                while (token != ';' && token != ':') {
+                    if (token == ContentLineLexer.TT_WORD) {
+                        lexer.appendWord(b);
+                    }
+                    else if (token == ContentLineLexer.TT_EOF) {
+                        throw new ParserException("Unexpected end of file", lexer.getLineNumber());
+                    }
+                    else {
+                        b.append((char) token);
+                    }
+                    token = lexer.nextToken();
+                }
+                paramValue = b.toString();
+            }
+            lexer.pushBack();
+        }
+        else {
+            paramValue = "";
+            lexer.pushBack();
+        }
+
+        try {
+            handler.parameter(paramName, paramValue);
+        }
+        catch (ClassCastException cce) {
+            throw new ParserException("Error parsing parameter", lexer.getLineNumber(), cce);
+        }
+    }
+
+    /**
+     * Parses a list of components.
+     */
+    private void parseComponentList(final ContentLineLexer lexer, final ContentHandler handler)
+            throws IOException, ParseException, URISyntaxException, ParserException {
+
+        while (lexer.isToken(Component.BEGIN)) {
+            parseComponent(lexer, handler);
+            absorbWhitespace(lexer);
+        }
+    }
+
+    /**
+     * Parses a component, including properties and sub-components.
+     */
+    private void parseComponent(final ContentLineLexer lexer, final ContentHandler handler)
+            throws IOException, ParseException, URISyntaxException, ParserException {
+
+        assertToken(lexer, ':');
+
+        assertToken(lexer, ContentLineLexer.TT_WORD);
+
+        final String name = lexer.getStringValue();
+
+        handler.startComponent(name);
+
+        assertToken(lexer, ContentLineLexer.TT_EOL);
+
+        parsePropertyList(lexer, handler);
+
+        assertToken(lexer, ':');
+
+        assertToken(lexer, name, false);
+
+        assertToken(lexer, ContentLineLexer.TT_EOL);
+
+        handler.endComponent(name);
+    }
+
+    /**
+     * Asserts that the next token matches the specified token type.
+     */
+    private void assertToken(final ContentLineLexer lexer, final int token)
+            throws IOException, ParserException {
+
+        if (lexer.nextToken() != token) {
+            throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, new Object[] {
+                    new Integer(token), new Integer(lexer.getTokenType()),
+            }), lexer.getLineNumber());
+        }
+    }
+
+    /**
+     * Asserts that the next token is a word matching the specified string.
+     */
+    private void assertToken(final ContentLineLexer lexer, final String token, final boolean ignoreCase)
+            throws IOException, ParserException {
+
+        // ensure next token is a word token..
+        assertToken(lexer, ContentLineLexer.TT_WORD);
+
+        final boolean matches;
+        if (ignoreCase) {
+            matches = token.equalsIgnoreCase(lexer.getStringValue());
+        }
+        else {
+            matches = lexer.isToken(token);
+        }
+        if (!matches) {
+            throw new ParserException(MessageFormat.format(UNEXPECTED_TOKEN_MESSAGE, new Object[] {
+                    token, lexer.getStringValue(),
+            }), lexer.getLineNumber());
+        }
+    }
+
+    /**
+     * Absorbs extraneous newlines.
+     */
+    private void absorbWhitespace(final ContentLineLexer lexer) throws IOException {
+        // HACK: absorb extraneous whitespace between components (KOrganizer)..
+        while (lexer.nextToken() == ContentLineLexer.TT_EOL) {
+            if (log.isTraceEnabled()) {
+                log.trace("Absorbing extra whitespace..");
+            }
+        }
+    }
+}
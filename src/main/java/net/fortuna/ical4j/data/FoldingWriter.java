@@ -43,7 +43,8 @@ import org.apache.commons.logging.LogFactory;
  * $Id$ [Apr 6, 2004]
  * </pre>
  *
- * A writer that performs iCalendar folding as it writes.
+ * A writer that performs iCalendar folding as it writes. The length of lines is measured in octets of the UTF-8
+ * encoding of the content.
  * @author Ben Fortuna
  */
 public class FoldingWriter extends FilterWriter {
@@ -68,7 +69,7 @@ public class FoldingWriter extends FilterWriter {
 
     /**
      * @param writer a writer to write output to
-     * @param foldLength the maximum line length
+     * @param foldLength the maximum line length (in octets)
      */
     public FoldingWriter(final Writer writer, final int foldLength) {
         super(writer);
@@ -86,12 +87,10 @@ public class FoldingWriter extends FilterWriter {
      * {@inheritDoc}
      */
     public final void write(final int c) throws IOException {
-
-        /*
-         * super.write(c); if (c == '\n') { lineLength = 0; } else { lineLength += 1; } if (lineLength >= FOLD_LENGTH) {
-         * super.write(FOLD_PATTERN); }
-         */
-        write(new char[] { (char) c }, 0, 1);
+        if (fold((char) c)) {
+            super.write(FOLD_PATTERN, 0, FOLD_PATTERN.length);
+        }
+        super.write(c);
     }
 
     /**
@@ -99,33 +98,16 @@ public class FoldingWriter extends FilterWriter {
      */
     public final void write(final char[] buffer, final int offset,
             final int length) throws IOException {
-        final int maxIndex = offset + length - 1;
-        for (int i = offset; i <= maxIndex; i++) {
-
-            // debugging..
-            if (log.isTraceEnabled()) {
-                log.trace("char [" + buffer[i] + "], line length ["
-                        + lineLength + "]");
-            }
-
-            // check for fold first so we don't unnecessarily fold after
-            // no more data..
-            if (lineLength >= foldLength) {
+        final int end = offset + length;
+        int start = offset;
+        for (int i = offset; i < end; i++) {
+            if (fold(buffer[i])) {
+                super.write(buffer, start, i - start);
                 super.write(FOLD_PATTERN, 0, FOLD_PATTERN.length);
-
-                // re-initialise to 1 to account for the space in fold pattern..
-                lineLength = 1;
-            }
-
-            super.write(buffer[i]);
-
-            if (buffer[i] == '\r' || buffer[i] == '\n') {
-                lineLength = 0;
-            }
-            else {
-                lineLength += 1;
+                start = i;
             }
         }
+        super.write(buffer, start, end - start);
     }
 
     /**
@@ -133,7 +115,64 @@ public class FoldingWriter extends FilterWriter {
      */
     public final void write(final String str, final int off, final int len)
             throws IOException {
-        write(str.toCharArray(), off, len);
+        final int end = off + len;
+        int start = off;
+        for (int i = off; i < end; i++) {
+            if (fold(str.charAt(i))) {
+                super.write(str, start, i - start);
+                super.write(FOLD_PATTERN, 0, FOLD_PATTERN.length);
+                start = i;
+            }
+        }
+        super.write(str, start, end - start);
+    }
+
+    /**
+     * Updates the current line length for the specified character. Line length is measured in octets of the UTF-8
+     * encoding of characters, such that lines containing non-ASCII characters are folded within the maximum length.
+     * Surrogate pairs are never split by a fold.
+     * @param c the next character to write
+     * @return true if the line must be folded prior to writing the specified character
+     */
+    private boolean fold(final char c) {
+        final int octets;
+        if (c < 0x80) {
+            octets = 1;
+        }
+        else if (c < 0x800) {
+            octets = 2;
+        }
+        else if (Character.isHighSurrogate(c)) {
+            // account for the whole supplementary character..
+            octets = 4;
+        }
+        else if (Character.isLowSurrogate(c)) {
+            octets = 0;
+        }
+        else {
+            octets = 3;
+        }
+
+        // check for fold first so we don't unnecessarily fold after
+        // no more data..
+        boolean fold = false;
+        if (octets > 0 && lineLength + octets > foldLength) {
+            // re-initialise to 1 to account for the space in fold pattern..
+            lineLength = 1;
+            fold = true;
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("char [" + c + "], line length [" + lineLength + "]");
+        }
+
+        if (c == '\r' || c == '\n') {
+            lineLength = 0;
+        }
+        else {
+            lineLength += octets;
+        }
+        return fold;
     }
 
     /*
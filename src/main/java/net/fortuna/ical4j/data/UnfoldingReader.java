@@ -34,7 +34,6 @@ package net.fortuna.ical4j.data;
 import java.io.IOException;
 import java.io.PushbackReader;
 import java.io.Reader;
-import java.util.Arrays;
 
 import net.fortuna.ical4j.util.CompatibilityHints;
 
@@ -50,8 +49,9 @@ import org.apache.commons.logging.LogFactory;
  * unfolding of non-conformant *.ics files. By specifying the system property "ical4j.unfolding.relaxed=true" iCalendar
  * files created with Mozilla Calendar/Sunbird may be correctly unfolded.
  * 
- * To wrap this reader with a {@link java.io.BufferedReader} you must ensure you specify an identical buffer size
- * to that used in the {@link java.io.BufferedReader}.
+ * Folds are removed from each block of characters read in a single pass, such that wrapping this reader with a
+ * {@link java.io.BufferedReader} (or reading into a large buffer) returns unfolded data a buffer at a time rather
+ * than one line fragment at a time.
  * 
  * @author Ben Fortuna
  */
@@ -60,39 +60,30 @@ public class UnfoldingReader extends PushbackReader {
     private Log log = LogFactory.getLog(UnfoldingReader.class);
 
     /**
-     * The pattern used to identify a fold in an iCalendar data stream.
+     * The length of the longest fold pattern (CRLF followed by a SPACE or HTAB). Folds in Mozilla Calendar/Sunbird
+     * and KOrganizer may omit the CR, and are unfolded where unfolding is relaxed.
      */
-    private static final char[] DEFAULT_FOLD_PATTERN_1 = { '\r', '\n', ' ' };
-    
-    /** 
-     * The pattern used to identify a fold in Microsoft Outlook 2007. 
-     */ 
-    private static final char[] DEFAULT_FOLD_PATTERN_2 = { '\r', '\n', '\t' };
+    private static final int MAX_PATTERN_LENGTH = 3;
+
+    private final boolean relaxed;
 
     /**
-     * The pattern used to identify a fold in Mozilla Calendar/Sunbird and KOrganizer.
+     * Characters read beyond the end of a block to identify a fold spanning the end of the block.
      */
-    private static final char[] RELAXED_FOLD_PATTERN_1 = { '\n', ' ' };
-    
-    /** 
-     * The pattern used to identify a fold in Microsoft Outlook 2007. 
-     */ 
-    private static final char[] RELAXED_FOLD_PATTERN_2 = { '\n', '\t' };
-    
-    private char[][] patterns;
+    private final char[] lookahead = new char[MAX_PATTERN_LENGTH - 1];
+
+    private int lookaheadCount;
 
-    private char[][] buffers;
+    private final char[] single = new char[1];
 
     private int linesUnfolded;
-    
-    private int maxPatternLength = 0;
 
     /**
      * Creates a new unfolding reader instance. Relaxed unfolding flag is read from system property.
      * @param in the reader to unfold from
      */
     public UnfoldingReader(final Reader in) {
-        this(in, DEFAULT_FOLD_PATTERN_1.length, CompatibilityHints
+        this(in, MAX_PATTERN_LENGTH, CompatibilityHints
                 .isHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING));
     }
     
@@ -109,7 +100,7 @@ public class UnfoldingReader extends PushbackReader {
      * @param relaxed indicates whether relaxed unfolding is enabled
      */
     public UnfoldingReader(final Reader in, boolean relaxed) {
-        this(in, DEFAULT_FOLD_PATTERN_1.length, relaxed); 
+        this(in, MAX_PATTERN_LENGTH, relaxed); 
     }
 
     /**
@@ -119,24 +110,8 @@ public class UnfoldingReader extends PushbackReader {
      * @param relaxed specifies whether unfolding is relaxed
      */
     public UnfoldingReader(final Reader in, int size, final boolean relaxed) {
-        super(in, size);
-        if (relaxed) {
-            patterns = new char[4][];
-            patterns[0] = DEFAULT_FOLD_PATTERN_1;
-            patterns[1] = DEFAULT_FOLD_PATTERN_2;
-            patterns[2] = RELAXED_FOLD_PATTERN_1;
-            patterns[3] = RELAXED_FOLD_PATTERN_2;
-        }
-        else {
-            patterns = new char[2][];
-            patterns[0] = DEFAULT_FOLD_PATTERN_1;
-            patterns[1] = DEFAULT_FOLD_PATTERN_2;
-        }
-        buffers = new char[patterns.length][];
-        for (int i = 0; i < patterns.length; i++) {
-            buffers[i] = new char[patterns[i].length];
-            maxPatternLength = Math.max(maxPatternLength, patterns[i].length);
-        }
+        super(in, Math.max(size, MAX_PATTERN_LENGTH));
+        this.relaxed = relaxed;
     }
 
     /**
@@ -150,90 +125,89 @@ public class UnfoldingReader extends PushbackReader {
      * {@inheritDoc}
      */
     public final int read() throws IOException {
-        final int c = super.read();
-        boolean doUnfold = false;
-        for (int i = 0; i < patterns.length; i++) {
-            if (c == patterns[i][0]) {
-                doUnfold = true;
-                break;
-            }
+        if (read(single, 0, 1) < 0) {
+            return -1;
         }
-        if (!doUnfold) {
-            return c;
-        }
-        else {
-            unread(c);
-        }
-
-        unfold();
-
-        return super.read();
+        return single[0];
     }
     
     /**
      * {@inheritDoc}
      */
     public int read(final char[] cbuf, final int off, final int len) throws IOException {
-        final int read = super.read(cbuf, off, len);
-        boolean doUnfold = false;
-        for (int i = 0; i < patterns.length; i++) {
-            if (read > 0 && cbuf[0] == patterns[i][0]) {
-                doUnfold = true;
-                break;
-            }
-            else {
-                for (int j = 0; j < read; j++) {
-                    if (cbuf[j] == patterns[i][0]) {
-                        unread(cbuf, j, read - j);
-                        return j;
-                    }
-                }
+        int count;
+        do {
+            final int read = super.read(cbuf, off, len);
+            if (read <= 0) {
+                return read;
             }
+            count = unfold(cbuf, off, off + read);
         }
-        if (!doUnfold) {
-            return read;
-        }
-        else {
-            unread(cbuf, off, read);
-        }
-
-        unfold();
-
-        return super.read(cbuf, off, maxPatternLength);
+        // all characters read were part of a fold..
+        while (count == 0);
+        return count;
     }
-    
-    private void unfold() throws IOException {
-        // need to loop since one line fold might be directly followed by another
-        boolean didUnfold;
-        do {
-            didUnfold = false;
-
-            for (int i = 0; i < buffers.length; i++) {
-                int read = 0;             
-                while (read < buffers[i].length) {
-                    final int partialRead = super.read(buffers[i], read, buffers[i].length - read);
-                    if (partialRead < 0) {
-                        break;
-                    }
-                    read += partialRead;
+
+    /**
+     * Removes folds from the specified block of characters in place.
+     * @return the number of characters remaining in the block
+     */
+    private int unfold(final char[] cbuf, final int off, final int end) throws IOException {
+        int w = off;
+        int r = off;
+        while (r < end) {
+            final char c = cbuf[r];
+            if (c == '\r' || (relaxed && c == '\n')) {
+                final int foldLength;
+                if (c == '\r') {
+                    foldLength = (charAt(cbuf, r, end, 1) == '\n' && isFoldWhitespace(charAt(cbuf, r, end, 2)))
+                        ? 3 : 0;
                 }
-                if (read > 0) {
-                    if (!Arrays.equals(patterns[i], buffers[i])) {
-                        unread(buffers[i], 0, read);
-                    }
-                    else {
-                        if (log.isTraceEnabled()) {
-                            log.trace("Unfolding...");
-                        }
-                        linesUnfolded++;
-                        didUnfold = true;
+                else {
+                    foldLength = isFoldWhitespace(charAt(cbuf, r, end, 1)) ? 2 : 0;
+                }
+                
+                if (foldLength > 0) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Unfolding...");
                     }
+                    linesUnfolded++;
+                    // any characters read ahead are part of the fold..
+                    lookaheadCount = 0;
+                    r += foldLength;
+                    continue;
                 }
-//                else {
-//                    return read;
-//                }
+                else if (lookaheadCount > 0) {
+                    unread(lookahead, 0, lookaheadCount);
+                    lookaheadCount = 0;
+                }
+            }
+            cbuf[w++] = c;
+            r++;
+        }
+        return w - off;
+    }
+
+    /**
+     * Returns the character at the specified offset from the current position in a block, reading beyond the end of
+     * the block where required.
+     */
+    private int charAt(final char[] cbuf, final int position, final int end, final int offset) throws IOException {
+        if (position + offset < end) {
+            return cbuf[position + offset];
+        }
+        final int index = position + offset - end;
+        while (lookaheadCount <= index) {
+            final int c = super.read();
+            if (c < 0) {
+                return c;
             }
+            lookahead[lookaheadCount++] = (char) c;
         }
-        while (didUnfold);
+        return lookahead[index];
+    }
+
+    private static boolean isFoldWhitespace(final int c) {
+        return c == ' ' || c == '\t';
     }
 }
@@ -33,8 +33,11 @@ package net.fortuna.ical4j.model;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.Iterator;
 
 import net.fortuna.ical4j.model.parameter.Value;
@@ -45,7 +48,9 @@ import net.fortuna.ical4j.model.property.ExDate;
 import net.fortuna.ical4j.model.property.ExRule;
 import net.fortuna.ical4j.model.property.RDate;
 import net.fortuna.ical4j.model.property.RRule;
+import net.fortuna.ical4j.util.Dates;
 import net.fortuna.ical4j.util.Strings;
+import net.fortuna.ical4j.util.TimeZones;
 
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
@@ -147,18 +152,34 @@ public abstract class Component implements Serializable {
      * {@inheritDoc}
      */
     public String toString() {
-        final StringBuffer buffer = new StringBuffer();
-        buffer.append(BEGIN);
-        buffer.append(':');
-        buffer.append(getName());
-        buffer.append(Strings.LINE_SEPARATOR);
-        buffer.append(getProperties());
-        buffer.append(END);
-        buffer.append(':');
-        buffer.append(getName());
-        buffer.append(Strings.LINE_SEPARATOR);
-
-        return buffer.toString();
+        final StringWriter out = new StringWriter();
+        try {
+            write(out);
+        }
+        catch (IOException ioe) {
+            // not thrown by a string writer..
+            throw new RuntimeException(ioe);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the iCalendar representation of this component (including any sub-components) to the specified
+     * writer. Output is equivalent to {@link #toString()}, without constructing an intermediate string
+     * representation of the component. Components containing sub-components override this method to include them.
+     * @param out a writer to write the component to
+     * @throws IOException where an error occurs writing to the specified writer
+     */
+    public void write(final Writer out) throws IOException {
+        out.write(BEGIN);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
+        getProperties().write(out);
+        out.write(END);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
     }
 
     /**
@@ -270,6 +291,20 @@ public abstract class Component implements Serializable {
      * @return a list of periods
      */
     public final PeriodList calculateRecurrenceSet(final Period period) {
+        return calculateRecurrenceSet(period, null);
+    }
+
+    /**
+     * Calculates the recurrence set for this component using the specified period, retaining the expansion of
+     * recurrence and exception rules in the specified cache. Subsequent calculations for the same (unmodified)
+     * component reuse the cached expansions, such that only those parts of the period not previously calculated are
+     * expanded.
+     * @param period a range to calculate recurrences for
+     * @param cache a cache of recurrence rule expansions, or null to calculate without a cache
+     * @return a list of periods
+     * @see #calculateRecurrenceSet(Period)
+     */
+    public final PeriodList calculateRecurrenceSet(final Period period, final RecurrenceSetCache cache) {
         
 //        validate();
         
@@ -348,8 +383,8 @@ public abstract class Component implements Serializable {
         // add recurrence rules..
         for (final Iterator<Property> i = getProperties(Property.RRULE).iterator(); i.hasNext();) {
             final RRule rrule = (RRule) i.next();
-            final DateList rruleDates = rrule.getRecur().getDates(start.getDate(),
-                    new Period(startMinusDuration, period.getEnd()), startValue);
+            final DateList rruleDates = getDates(rrule.getRecur(), start.getDate(),
+                    startMinusDuration, period.getEnd(), startValue, cache);
             for (final Date rruleDate : rruleDates) {
                 recurrenceSet.add(new Period(new DateTime(rruleDate), rDuration));
             }
@@ -377,29 +412,36 @@ public abstract class Component implements Serializable {
             recurrenceSet.add(startPeriod);
         }
         
-        // subtract exception dates..
+        // subtract exception dates and rules, where exceptions are matched by instant..
+        final InstantSet exceptions = new InstantSet();
         for (final Iterator<Property> i = getProperties(Property.EXDATE).iterator(); i.hasNext();) {
             final ExDate exdate = (ExDate) i.next();
-            for (final Iterator<Period> j = recurrenceSet.iterator(); j.hasNext();) {
-                final Period recurrence = j.next();
-                // for DATE-TIME instances check for DATE-based exclusions also..
-                if (exdate.getDates().contains(recurrence.getStart())
-                        || exdate.getDates().contains(new Date(recurrence.getStart()))) {
-                    j.remove();
-                }
-            }
+            exceptions.addAll(exdate.getDates());
         }
-        
-        // subtract exception rules..
         for (final Iterator<Property> i = getProperties(Property.EXRULE).iterator(); i.hasNext();) {
             final ExRule exrule = (ExRule) i.next();
-            final DateList exruleDates = exrule.getRecur().getDates(start.getDate(),
-                    period, startValue);
+            exceptions.addAll(getDates(exrule.getRecur(), start.getDate(),
+                    period.getStart(), period.getEnd(), startValue, cache));
+        }
+        if (!exceptions.isEmpty()) {
+            final boolean utcDates = TimeZones.isUtc(TimeZones.getDateTimeZone());
             for (final Iterator<Period> j = recurrenceSet.iterator(); j.hasNext();) {
                 final Period recurrence = j.next();
+                final long startTime = recurrence.getStart().getTime();
+                if (exceptions.contains(startTime)) {
+                    j.remove();
+                }
                 // for DATE-TIME instances check for DATE-based exclusions also..
-                if (exruleDates.contains(recurrence.getStart())
-                        || exruleDates.contains(new Date(recurrence.getStart()))) {
+                else if (utcDates) {
+                    long time = startTime % Dates.MILLIS_PER_DAY;
+                    if (time < 0) {
+                        time += Dates.MILLIS_PER_DAY;
+                    }
+                    if (exceptions.contains(startTime - time)) {
+                        j.remove();
+                    }
+                }
+                else if (exceptions.contains(new Date(recurrence.getStart()).getTime())) {
                     j.remove();
                 }
             }
@@ -407,4 +449,93 @@ public abstract class Component implements Serializable {
 
         return recurrenceSet;
     }
+
+    /**
+     * Returns the dates of the specified recurrence in the specified period, via the specified cache if applicable.
+     */
+    private DateList getDates(final Recur recur, final Date seed, final Date periodStart, final Date periodEnd,
+            final Value value, final RecurrenceSetCache cache) {
+        if (cache != null) {
+            return cache.getDates(this, recur, seed, periodStart, periodEnd, value);
+        }
+        return recur.getDates(seed, periodStart, periodEnd, value);
+    }
+
+    /**
+     * A set of instants (in milliseconds) using open addressing, such that membership is tested without creating
+     * objects or comparing dates.
+     */
+    private static class InstantSet {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] instants = newTable(16);
+
+        private int size;
+
+        private boolean containsEmpty;
+
+        public void addAll(final DateList dates) {
+            for (final Date date : dates) {
+                add(date.getTime());
+            }
+        }
+
+        public void add(final long instant) {
+            if (instant == EMPTY) {
+                containsEmpty = true;
+                return;
+            }
+            if ((size + 1) * 2 > instants.length) {
+                final long[] old = instants;
+                instants = newTable(old.length * 2);
+                size = 0;
+                for (int i = 0; i < old.length; i++) {
+                    if (old[i] != EMPTY) {
+                        add(old[i]);
+                    }
+                }
+            }
+            int index = indexOf(instant);
+            while (instants[index] != EMPTY) {
+                if (instants[index] == instant) {
+                    return;
+                }
+                index = (index + 1) & (instants.length - 1);
+            }
+            instants[index] = instant;
+            size++;
+        }
+
+        public boolean contains(final long instant) {
+            if (instant == EMPTY) {
+                return containsEmpty;
+            }
+            int index = indexOf(instant);
+            while (instants[index] != EMPTY) {
+                if (instants[index] == instant) {
+                    return true;
+                }
+                index = (index + 1) & (instants.length - 1);
+            }
+            return false;
+        }
+
+        public boolean isEmpty() {
+            return size == 0 && !containsEmpty;
+        }
+
+        private int indexOf(final long instant) {
+            // instants are typically multiples of seconds, so mix all bits..
+            long hash = instant * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 32;
+            return (int) hash & (instants.length - 1);
+        }
+
+        private static long[] newTable(final int capacity) {
+            final long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
 }
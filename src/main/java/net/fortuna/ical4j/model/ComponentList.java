@@ -33,25 +33,49 @@ package net.fortuna.ical4j.model;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 /**
  * $Id$ [Apr 5, 2004]
  *
  * Defines a list of iCalendar components.
+ *
+ * An indexed component list (see {@link #ComponentList(boolean)}) also maintains a list of the components of each
+ * name, such that {@link #getComponent(String)} and {@link #getComponents(String)} don't scan the list. The index is
+ * created on the first lookup and is subsequently updated as components are added, removed or replaced. Lists
+ * returned by {@link #getComponents(String)} for an indexed list are read-only views that reflect subsequent changes
+ * to the list. Iterators over a view traverse the components of the view at the time the iterator is created, such
+ * that components may be removed from the list while iterating over a view.
  * @author Ben Fortuna
  */
 public class ComponentList<T extends Component> extends ArrayList<T> implements Serializable {
 
     private static final long serialVersionUID = 7308557606558767449L;
 
+    private transient int replacementCount;
+
+    private final boolean indexed;
+
+    private transient Map<String, ComponentListView<T>> index;
+
+    /**
+     * The modification count of the list reflected by the index.
+     */
+    private transient int indexModificationCount;
+
     /**
      * Default constructor.
      */
     public ComponentList() {
+        this(false);
     }
 
     /**
@@ -60,10 +84,19 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
      */
     public ComponentList(final int initialCapacity) {
         super(initialCapacity);
+        this.indexed = false;
+    }
+
+    /**
+     * Creates a new instance.
+     * @param indexed indicates whether to index components by name
+     */
+    public ComponentList(final boolean indexed) {
+        this.indexed = indexed;
     }
 
     /**
-     * Creates a deep copy of the specified component list.
+     * Creates a deep copy of the specified component list. The copy is indexed if the specified list is indexed.
      * @param components a component list to copy
      * @throws IOException where an error occurs reading component data
      * @throws ParseException where component data cannot be parsed
@@ -73,6 +106,7 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
 	public ComponentList(ComponentList<? extends T> components) throws ParseException,
             IOException, URISyntaxException {
 
+        this.indexed = components.indexed;
         for (T c : components) {
             add((T) c.copy());
         }
@@ -89,12 +123,31 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
         return buffer.toString();
     }
 
+    /**
+     * Writes the iCalendar representation of all components in the list to the specified writer.
+     * @param out a writer to write the components to
+     * @throws IOException where an error occurs writing to the specified writer
+     * @see Component#write(Writer)
+     */
+    public final void write(final Writer out) throws IOException {
+        for (final T c : this) {
+            c.write(out);
+        }
+    }
+
     /**
      * Returns the first component of specified name.
      * @param aName name of component to return
      * @return a component or null if no matching component found
      */
     public final T getComponent(final String aName) {
+        if (indexed) {
+            final ComponentList<T> components = getView(aName);
+            if (!components.isEmpty()) {
+                return components.get(0);
+            }
+            return null;
+        }
         for (final T c : this) {
             if (c.getName().equals(aName)) {
                 return c;
@@ -104,12 +157,16 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
     }
 
     /**
-     * Returns a list containing all components with specified name.
+     * Returns a list containing all components with specified name. Where this list is indexed the returned list is
+     * a read-only view.
      * @param name name of components to return
      * @return a list of components with the matching name
      */
     @SuppressWarnings("unchecked")
 	public final <C extends T> ComponentList<C> getComponents(final String name) {
+        if (indexed) {
+            return (ComponentList<C>) getView(name);
+        }
         final ComponentList<C> components = new ComponentList<C>();
         for (final Iterator<T> i = iterator(); i.hasNext();) {
             final T c = i.next();
@@ -119,4 +176,297 @@ public class ComponentList<T extends Component> extends ArrayList<T> implements
         }
         return components;
     }
+
+    /**
+     * @return true if components are indexed by name, otherwise false
+     */
+    public final boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean add(final T component) {
+        final boolean current = isIndexCurrent();
+        final boolean result = super.add(component);
+        if (current) {
+            getIndexedView(component.getName()).addView(component);
+            indexModificationCount = getModificationCount();
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void add(final int index, final T component) {
+        final boolean current = isIndexCurrent();
+        super.add(index, component);
+        if (current) {
+            getIndexedView(component.getName()).addView(getViewIndex(index, component.getName()), component);
+            indexModificationCount = getModificationCount();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    public boolean addAll(final Collection<? extends T> c) {
+        final boolean current = isIndexCurrent();
+        final Object[] components = c.toArray();
+        final boolean result = super.addAll(c);
+        if (current) {
+            for (int i = 0; i < components.length; i++) {
+                final T component = (T) components[i];
+                getIndexedView(component.getName()).addView(component);
+            }
+            indexModificationCount = getModificationCount();
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean addAll(final int index, final Collection<? extends T> c) {
+        final boolean result = super.addAll(index, c);
+        updateIndex();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T remove(final int index) {
+        final boolean current = isIndexCurrent();
+        final T component = get(index);
+        final int viewIndex = current ? getViewIndex(index, component.getName()) : -1;
+        super.remove(index);
+        if (current) {
+            getIndexedView(component.getName()).removeView(viewIndex);
+            indexModificationCount = getModificationCount();
+        }
+        return component;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean remove(final Object o) {
+        if (index == null) {
+            return super.remove(o);
+        }
+        final int i = indexOf(o);
+        if (i >= 0) {
+            remove(i);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean removeAll(final Collection<?> c) {
+        final boolean result = super.removeAll(c);
+        updateIndex();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean retainAll(final Collection<?> c) {
+        final boolean result = super.retainAll(c);
+        updateIndex();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clear() {
+        super.clear();
+        updateIndex();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void removeRange(final int fromIndex, final int toIndex) {
+        super.removeRange(fromIndex, toIndex);
+        updateIndex();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T set(final int index, final T component) {
+        final boolean current = isIndexCurrent();
+        final T replaced = get(index);
+        final int viewIndex = current ? getViewIndex(index, replaced.getName()) : -1;
+        replacementCount++;
+        super.set(index, component);
+        if (current) {
+            if (replaced.getName().equals(component.getName())) {
+                getIndexedView(component.getName()).setView(viewIndex, component);
+            }
+            else {
+                getIndexedView(replaced.getName()).removeView(viewIndex);
+                getIndexedView(component.getName()).addView(getViewIndex(index, component.getName()), component);
+            }
+            indexModificationCount = getModificationCount();
+        }
+        return replaced;
+    }
+
+    /**
+     * Returns a count of the modifications made to this list, such that a change in the count indicates that
+     * components have been added, removed or replaced. Note that changes to individual components are not counted.
+     * @return a modification count
+     */
+    public final int getModificationCount() {
+        return modCount + replacementCount;
+    }
+
+    /**
+     * @return true if an index exists and reflects the current state of the list
+     */
+    private boolean isIndexCurrent() {
+        return index != null && indexModificationCount == getModificationCount();
+    }
+
+    /**
+     * Updates an existing index to reflect the current state of the list. Existing views are retained such that
+     * views previously returned also reflect the update.
+     */
+    private void updateIndex() {
+        if (index != null) {
+            for (final ComponentListView<T> view : index.values()) {
+                view.clearView();
+            }
+            for (final T component : this) {
+                getIndexedView(component.getName()).addView(component);
+            }
+            indexModificationCount = getModificationCount();
+        }
+    }
+
+    /**
+     * @return a view of the components with the specified name, creating or updating the index as required
+     */
+    private ComponentListView<T> getView(final String name) {
+        if (index == null) {
+            index = new HashMap<String, ComponentListView<T>>();
+            updateIndex();
+        }
+        else if (indexModificationCount != getModificationCount()) {
+            // the list was modified other than via the methods of this class (e.g. via a sub-list)..
+            updateIndex();
+        }
+        return getIndexedView(name);
+    }
+
+    private ComponentListView<T> getIndexedView(final String name) {
+        ComponentListView<T> view = index.get(name);
+        if (view == null) {
+            view = new ComponentListView<T>();
+            index.put(name, view);
+        }
+        return view;
+    }
+
+    /**
+     * @return the number of components with the specified name preceding the specified index
+     */
+    private int getViewIndex(final int index, final String name) {
+        int viewIndex = 0;
+        for (int i = 0; i < index; i++) {
+            if (get(i).getName().equals(name)) {
+                viewIndex++;
+            }
+        }
+        return viewIndex;
+    }
+
+    /**
+     * A read-only list of the components of a single name, maintained by an indexed list.
+     */
+    private static final class ComponentListView<T extends Component> extends ComponentList<T> {
+
+        private static final long serialVersionUID = -2496213498553283127L;
+
+        private void addView(final T component) {
+            super.add(component);
+        }
+
+        private void addView(final int index, final T component) {
+            super.add(index, component);
+        }
+
+        private void removeView(final int index) {
+            super.remove(index);
+        }
+
+        private void setView(final int index, final T component) {
+            super.set(index, component);
+        }
+
+        private void clearView() {
+            super.clear();
+        }
+
+        /**
+         * @return an iterator over the components of the view at the time of invocation
+         */
+        public Iterator<T> iterator() {
+            return Collections.unmodifiableList(new ArrayList<T>(this)).iterator();
+        }
+
+        public boolean add(final T component) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void add(final int index, final T component) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean addAll(final Collection<? extends T> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean addAll(final int index, final Collection<? extends T> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public T remove(final int index) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean remove(final Object o) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean removeAll(final Collection<?> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean retainAll(final Collection<?> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        protected void removeRange(final int fromIndex, final int toIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        public T set(final int index, final T component) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
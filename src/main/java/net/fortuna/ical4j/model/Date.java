@@ -143,7 +143,7 @@ public class Date extends Iso8601 {
      */
     public Date(final String value) throws ParseException {
         this();
-        setTime(getFormat().parse(value).getTime());
+        setTime(Iso8601Parser.DATE.parse(value, getFormat()));
     }
     
     /**
@@ -33,9 +33,6 @@ package net.fortuna.ical4j.model;
 
 import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import net.fortuna.ical4j.util.CompatibilityHints;
 import net.fortuna.ical4j.util.Dates;
@@ -158,46 +155,6 @@ public class DateTime extends Date {
 
 	private static final long serialVersionUID = -6407231357919440387L;
 
-	private static final String DEFAULT_PATTERN = "yyyyMMdd'T'HHmmss";
-
-	private static final String UTC_PATTERN = "yyyyMMdd'T'HHmmss'Z'";
-
-	private static final String RELAXED_PATTERN = "yyyyMMdd";
-
-	/**
-	 * Used for parsing times in a UTC date-time representation.
-	 */
-	private static final DateFormatCache UTC_FORMAT;
-	static {
-		final DateFormat format = new SimpleDateFormat(UTC_PATTERN);
-		format.setTimeZone(TimeZones.getUtcTimeZone());
-		format.setLenient(false);
-
-		UTC_FORMAT = new DateFormatCache(format);
-	}
-
-	/**
-	 * Used for parsing times in a local date-time representation.
-	 */
-	private static final DateFormatCache DEFAULT_FORMAT;
-	static {
-		final DateFormat format = new SimpleDateFormat(DEFAULT_PATTERN);
-		format.setLenient(false);
-		DEFAULT_FORMAT = new DateFormatCache(format);
-	}
-
-	private static final DateFormatCache LENIENT_DEFAULT_FORMAT;
-	static {
-		final DateFormat format = new SimpleDateFormat(DEFAULT_PATTERN);
-		LENIENT_DEFAULT_FORMAT = new DateFormatCache(format);
-	}
-
-	private static final DateFormatCache RELAXED_FORMAT;
-	static {
-		final DateFormat format = new SimpleDateFormat(RELAXED_PATTERN);
-		RELAXED_FORMAT = new DateFormatCache(format);
-	}
-
 	private Time time;
 
 	private TimeZone timezone;
@@ -287,25 +244,24 @@ public class DateTime extends Date {
 		this.time = new Time(getTime(), getFormat().getTimeZone());
 
 		try {
-			setTime(value, (DateFormat) UTC_FORMAT.get(), null);
+			setTime(Iso8601Parser.UTC_DATE_TIME.parse(value, TimeZones.getUtcTimeZone(), false));
 			setUtc(true);
 		} catch (ParseException pe) {
 			try {
 				if (timezone != null) {
-					setTime(value, (DateFormat) DEFAULT_FORMAT.get(), timezone);
+					setTime(Iso8601Parser.DATE_TIME.parse(value, timezone, false));
 				} else {
 					// Use lenient parsing for floating times. This is to
 					// overcome
 					// the problem of parsing VTimeZone dates that specify dates
 					// that the strict parser does not accept.
-					setTime(value, (DateFormat) LENIENT_DEFAULT_FORMAT.get(),
-							getFormat().getTimeZone());
+					setTime(Iso8601Parser.DATE_TIME.parse(value, getFormat().getTimeZone(), true));
 				}
 			} catch (ParseException pe2) {
 				if (CompatibilityHints
 						.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)) {
 
-					setTime(value, (DateFormat) RELAXED_FORMAT.get(), timezone);
+					setTime(Iso8601Parser.DATE.parse(value, getFormat().getTimeZone(), true));
 				} else {
 					throw pe2;
 				}
@@ -353,8 +309,7 @@ public class DateTime extends Date {
 		final DateFormat format = CalendarDateFormatFactory
 				.getInstance(pattern);
 		if (utc) {
-			setTime(value, format,
-					((DateFormat) UTC_FORMAT.get()).getTimeZone());
+			setTime(value, format, TimeZones.getUtcTimeZone());
 		} else {
 			setTime(value, format, null);
 		}
@@ -366,7 +321,7 @@ public class DateTime extends Date {
 	 * 
 	 * @param value
 	 * @param format
-	 *            a {@code DateFormat}, protected by the use of a ThreadLocal.
+	 *            a {@code DateFormat} that is not shared with other threads
 	 * @param tz
 	 * @throws ParseException
 	 */
@@ -484,24 +439,4 @@ public class DateTime extends Date {
 	public int hashCode() {
 		return new HashCodeBuilder().append(time).append(timezone).toHashCode();
 	}
-
-	private static class DateFormatCache {
-
-		private final Map<Thread, DateFormat> threadMap = new WeakHashMap<Thread, DateFormat>();
-
-		private final DateFormat templateFormat;
-
-		private DateFormatCache(DateFormat dateFormat) {
-			this.templateFormat = dateFormat;
-		}
-
-		public DateFormat get() {
-			DateFormat dateFormat = threadMap.get(Thread.currentThread());
-			if (dateFormat == null) {
-				dateFormat = (DateFormat) templateFormat.clone();
-				threadMap.put(Thread.currentThread(), dateFormat);
-			}
-			return dateFormat;
-		}
-	}
 }
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.model.property.TzUrl;
+import net.fortuna.ical4j.util.Configurator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * The default implementation of a <code>TimeZoneUpdater</code>. This implementation retrieves updated definitions
+ * from the location identified by the TZURL property of a definition using background threads. Where a cache
+ * directory is configured updates are cached on disk, such that subsequent requests within the cache period (and
+ * requests where the TZURL location is not available) are provided from the cache. Updates are not cached by
+ * default, as cached definitions are trusted. A cache directory should therefore only be writable by the current
+ * user. The cache location and period (in seconds) may be configured via the following system properties:
+ * <pre>
+ * net.fortuna.ical4j.timezone.update.cache.dir=&lt;directory&gt;
+ * net.fortuna.ical4j.timezone.update.cache.ttl=&lt;seconds&gt;
+ * </pre>
+ * @author Ben Fortuna
+ */
+public class DefaultTimeZoneUpdater extends TimeZoneUpdater {
+
+    /**
+     * The system property used to specify the directory in which updates are cached.
+     */
+    public static final String KEY_CACHE_DIR = "net.fortuna.ical4j.timezone.update.cache.dir";
+
+    /**
+     * The system property used to specify the period (in seconds) for which cached updates are used.
+     */
+    public static final String KEY_CACHE_TTL = "net.fortuna.ical4j.timezone.update.cache.ttl";
+
+    private static final long DEFAULT_CACHE_TTL = 24 * 60 * 60 * 1000;
+
+    private static final int TIMEOUT = 10000;
+
+    private static final String CACHE_SUFFIX = ".ics";
+
+    private static final Executor DEFAULT_EXECUTOR = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "ical4j-timezone-updater");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Log log = LogFactory.getLog(DefaultTimeZoneUpdater.class);
+
+    private final File cacheDir;
+
+    private final long cacheTtl;
+
+    private final Executor executor;
+
+    /**
+     * Creates a new instance with the configured cache location and period.
+     */
+    public DefaultTimeZoneUpdater() {
+        this(getConfiguredCacheDir(), getConfiguredCacheTtl(), DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * @param cacheDir the directory in which updates are cached, or null to disable caching
+     * @param cacheTtl the period (in milliseconds) for which cached updates are used
+     * @param executor the executor used to retrieve updates
+     */
+    public DefaultTimeZoneUpdater(final File cacheDir, final long cacheTtl, final Executor executor) {
+        this.cacheDir = cacheDir;
+        this.cacheTtl = cacheTtl;
+        this.executor = executor;
+    }
+
+    private static File getConfiguredCacheDir() {
+        final String cacheDir = Configurator.getProperty(KEY_CACHE_DIR);
+        if (cacheDir != null) {
+            return new File(cacheDir);
+        }
+        // caching is disabled by default..
+        return null;
+    }
+
+    private static long getConfiguredCacheTtl() {
+        final String cacheTtl = Configurator.getProperty(KEY_CACHE_TTL);
+        if (cacheTtl != null) {
+            try {
+                return Long.parseLong(cacheTtl) * 1000;
+            }
+            catch (NumberFormatException nfe) {
+                LogFactory.getLog(DefaultTimeZoneUpdater.class).warn("Invalid cache period: " + cacheTtl);
+            }
+        }
+        return DEFAULT_CACHE_TTL;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void update(final VTimeZone vTimeZone, final Callback callback) {
+        final TzUrl tzUrl = vTimeZone.getTimeZoneUrl();
+        if (tzUrl == null || tzUrl.getUri() == null) {
+            return;
+        }
+        executor.execute(new Runnable() {
+            public void run() {
+                final VTimeZone updatedVTimeZone = getUpdate(vTimeZone.getTimeZoneId().getValue(), tzUrl);
+                if (updatedVTimeZone != null) {
+                    callback.updated(updatedVTimeZone);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return an updated definition, or null if no update is available
+     */
+    private VTimeZone getUpdate(final String id, final TzUrl tzUrl) {
+        final File cacheFile = getCacheFile(id);
+        if (cacheFile != null && cacheFile.exists()
+                && System.currentTimeMillis() - cacheFile.lastModified() < cacheTtl) {
+            try {
+                return load(cacheFile);
+            }
+            catch (Exception e) {
+                log.warn("Error loading cached updates for timezone: " + id, e);
+            }
+        }
+
+        try {
+            final byte[] data = fetch(tzUrl.getUri().toURL());
+            final VTimeZone updatedVTimeZone = parse(data);
+            if (updatedVTimeZone != null && cacheFile != null) {
+                store(cacheFile, data);
+            }
+            return updatedVTimeZone;
+        }
+        catch (Exception e) {
+            log.warn("Unable to retrieve updates for timezone: " + id, e);
+        }
+
+        // use an expired update where the update location is unavailable..
+        if (cacheFile != null && cacheFile.exists()) {
+            try {
+                return load(cacheFile);
+            }
+            catch (Exception e) {
+                log.warn("Error loading cached updates for timezone: " + id, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the file in which updates for the specified timezone are cached, or null if caching is disabled
+     */
+    private File getCacheFile(final String id) {
+        if (cacheDir == null) {
+            return null;
+        }
+        try {
+            return new File(cacheDir, URLEncoder.encode(id, "UTF-8") + CACHE_SUFFIX);
+        }
+        catch (UnsupportedEncodingException uee) {
+            // UTF-8 is always supported..
+            throw new RuntimeException(uee);
+        }
+    }
+
+    private static byte[] fetch(final URL url) throws IOException {
+        final URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        final InputStream in = connection.getInputStream();
+        try {
+            final ByteArrayOutputStream data = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            for (int length = in.read(buffer); length >= 0; length = in.read(buffer)) {
+                data.write(buffer, 0, length);
+            }
+            return data.toByteArray();
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    private static VTimeZone parse(final byte[] data) throws IOException, ParserException {
+        final Calendar calendar = new CalendarBuilder().build(new ByteArrayInputStream(data));
+        return (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
+    }
+
+    private static VTimeZone load(final File file) throws IOException, ParserException {
+        final InputStream in = new FileInputStream(file);
+        try {
+            final Calendar calendar = new CalendarBuilder().build(in);
+            return (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes an update to the cache, replacing any existing update only once the update is written in full.
+     */
+    private void store(final File cacheFile, final byte[] data) {
+        try {
+            cacheDir.mkdirs();
+            final File tempFile = File.createTempFile("tzurl", ".tmp", cacheDir);
+            final OutputStream out = new FileOutputStream(tempFile);
+            try {
+                out.write(data);
+            }
+            finally {
+                out.close();
+            }
+            cacheFile.delete();
+            if (!tempFile.renameTo(cacheFile)) {
+                tempFile.delete();
+                log.warn("Unable to cache updates: " + cacheFile);
+            }
+        }
+        catch (IOException ioe) {
+            log.warn("Unable to cache updates: " + cacheFile, ioe);
+        }
+    }
+}
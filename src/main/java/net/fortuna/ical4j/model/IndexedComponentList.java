@@ -31,8 +31,10 @@
  */
 package net.fortuna.ical4j.model;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,13 +43,38 @@ import java.util.Map;
  * Created on 4/02/2006
  *
  * Provides indexing of components on a specific property.
+ *
+ * The index is maintained incrementally where components are added, removed or updated via this class. Other
+ * modifications to the underlying list (e.g. via {@link ComponentList#add(Component)}) are detected via the
+ * list's modification count, and result in the index being rebuilt on the next lookup. Components found by a
+ * lookup are re-indexed where properties have since been added to, removed from or replaced in the component
+ * (as identified by the modification count of its property list), such that components no longer containing the
+ * value aren't returned.
+ *
+ * Note that other changes to the indexed properties of a component, such as changes to the value of an existing
+ * property (e.g. via {@link Property#setValue(String)}) or properties added to components not found by a lookup,
+ * aren't detected and must be notified via {@link #update(Component)}.
  * @author Ben Fortuna
  */
 public class IndexedComponentList<T extends Component> {
 
     private final ComponentList<T> EMPTY_LIST = new ComponentList<T>();
     
-    private Map<String, ComponentList<T>> index;
+    private final ComponentList<T> list;
+
+    private final String propertyName;
+
+    private final Map<String, ComponentList<T>> index;
+
+    /**
+     * The indexed property values of each component, identified by instance.
+     */
+    private final Map<T, Entry> entries;
+
+    /**
+     * The modification count of the list reflected by the index.
+     */
+    private int modificationCount;
     
     /**
      * Creates a new instance indexed on properties with the specified name.
@@ -55,28 +82,24 @@ public class IndexedComponentList<T extends Component> {
      * @param propertyName the name of the properties to index on
      */
     public IndexedComponentList(final ComponentList<T> list, final String propertyName) {
-        final Map<String, ComponentList<T>> indexedComponents = new HashMap<String, ComponentList<T>>();
-        for (final T component : list) {
-            for (final Property property : component.getProperties(propertyName)) {
-                ComponentList<T> components = indexedComponents.get(property.getValue());
-                if (components == null) {
-                    components = new ComponentList<T>();
-                    indexedComponents.put(property.getValue(), components);
-                }
-                components.add(component);
-            }
-        }
-        this.index = Collections.unmodifiableMap(indexedComponents);
+        this.list = list;
+        this.propertyName = propertyName;
+        this.index = new HashMap<String, ComponentList<T>>();
+        this.entries = new IdentityHashMap<T, Entry>();
+        updateIndex();
     }
     
     /**
      * Returns a list of components containing a property with the
-     * specified value.
+     * specified value. The returned list is owned by the index and should
+     * not be modified.
      * @param propertyValue the value of the property contained in the
      * returned components
      * @return a component list
      */
     public ComponentList<T> getComponents(final String propertyValue) {
+        checkIndex();
+        checkComponents(propertyValue);
         ComponentList<T> components = index.get(propertyValue);
         if (components == null) {
             components = EMPTY_LIST;
@@ -99,4 +122,229 @@ public class IndexedComponentList<T extends Component> {
         }
         return null;
     }
+
+    /**
+     * Appends the specified component to the underlying list, and adds it to the index.
+     * @param component the component to add
+     */
+    public void add(final T component) {
+        checkIndex();
+        list.add(component);
+        Entry entry = entries.get(component);
+        if (entry == null) {
+            entry = new Entry(component);
+            entries.put(component, entry);
+        }
+        entry.count++;
+        for (final String value : entry.values) {
+            getIndexedComponents(value).add(component);
+        }
+        modificationCount = list.getModificationCount();
+    }
+
+    /**
+     * Removes the specified component from the underlying list, and from the index. Components are identified by
+     * instance rather than equality.
+     * @param component the component to remove
+     * @return true if the component was removed, or false if the list doesn't contain the component
+     */
+    public boolean remove(final T component) {
+        checkIndex();
+        final int position = indexOf(list, component);
+        if (position < 0) {
+            return false;
+        }
+        list.remove(position);
+        final Entry entry = entries.get(component);
+        for (final String value : entry.values) {
+            final ComponentList<T> components = index.get(value);
+            components.remove(indexOf(components, component));
+            if (components.isEmpty()) {
+                index.remove(value);
+            }
+        }
+        if (--entry.count == 0) {
+            entries.remove(component);
+        }
+        modificationCount = list.getModificationCount();
+        return true;
+    }
+
+    /**
+     * Updates the index to reflect changes to the indexed property values of the specified component, such as
+     * a property value being modified or the property being added or removed.
+     * @param component a component contained in the underlying list
+     */
+    public void update(final T component) {
+        checkIndex();
+        final Entry entry = entries.get(component);
+        if (entry != null) {
+            updateEntry(component, entry);
+        }
+    }
+
+    /**
+     * Re-indexes the specified component according to its current property values.
+     */
+    private void updateEntry(final T component, final Entry entry) {
+        for (final String value : entry.values) {
+            final ComponentList<T> components = index.get(value);
+            if (components != null) {
+                for (int i = components.size() - 1; i >= 0; i--) {
+                    if (components.get(i) == component) {
+                        components.remove(i);
+                    }
+                }
+                if (components.isEmpty()) {
+                    index.remove(value);
+                }
+            }
+        }
+        entry.update(component);
+        for (final String value : entry.values) {
+            if (index.containsKey(value) && indexOf(index.get(value), component) >= 0) {
+                continue;
+            }
+            // merge the component with the indexed components in the order of the underlying list..
+            final ComponentList<T> components = getIndexedComponents(value);
+            final ComponentList<T> merged = new ComponentList<T>(components.size() + entry.count);
+            int position = 0;
+            for (final T c : list) {
+                final int occurrences = frequency(entries.get(c).values, value);
+                if (c == component) {
+                    for (int i = 0; i < occurrences; i++) {
+                        merged.add(component);
+                    }
+                }
+                else if (occurrences > 0) {
+                    merged.addAll(components.subList(position, position + occurrences));
+                    position += occurrences;
+                }
+            }
+            index.put(value, merged);
+        }
+    }
+
+    /**
+     * Rebuilds the index where the underlying list has been modified other than via this class.
+     */
+    private void checkIndex() {
+        if (modificationCount != list.getModificationCount()) {
+            updateIndex();
+        }
+    }
+
+    /**
+     * Re-indexes components indexed on the specified value where their properties have been modified.
+     */
+    private void checkComponents(final String value) {
+        final ComponentList<T> components = index.get(value);
+        if (components != null) {
+            List<T> modified = null;
+            for (final T component : components) {
+                if (entries.get(component).isModified(component)) {
+                    if (modified == null) {
+                        modified = new ArrayList<T>();
+                    }
+                    modified.add(component);
+                }
+            }
+            if (modified != null) {
+                for (final T component : modified) {
+                    final Entry entry = entries.get(component);
+                    // a component may occur more than once..
+                    if (entry.isModified(component)) {
+                        updateEntry(component, entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateIndex() {
+        index.clear();
+        entries.clear();
+        for (final T component : list) {
+            Entry entry = entries.get(component);
+            if (entry == null) {
+                entry = new Entry(component);
+                entries.put(component, entry);
+            }
+            entry.count++;
+            for (final String value : entry.values) {
+                getIndexedComponents(value).add(component);
+            }
+        }
+        modificationCount = list.getModificationCount();
+    }
+
+    private ComponentList<T> getIndexedComponents(final String value) {
+        ComponentList<T> components = index.get(value);
+        if (components == null) {
+            components = new ComponentList<T>();
+            index.put(value, components);
+        }
+        return components;
+    }
+
+    private static int frequency(final String[] values, final String value) {
+        int frequency = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (value == null ? values[i] == null : value.equals(values[i])) {
+                frequency++;
+            }
+        }
+        return frequency;
+    }
+
+    /**
+     * @return the position of the specified component instance in the list, or -1 if not found
+     */
+    private static int indexOf(final List<? extends Component> components, final Component component) {
+        for (int i = 0; i < components.size(); i++) {
+            if (components.get(i) == component) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The indexed property values of a component, and the number of occurrences of the component in the list.
+     */
+    private final class Entry {
+
+        private String[] values;
+
+        private int count;
+
+        /**
+         * The property list of the component, and its modification count, at the time of indexing.
+         */
+        private PropertyList properties;
+
+        private int propertiesModificationCount;
+
+        private Entry(final T component) {
+            update(component);
+        }
+
+        private void update(final T component) {
+            properties = component.getProperties();
+            propertiesModificationCount = properties.getModificationCount();
+            final List<String> indexedValues = new ArrayList<String>();
+            for (final Property property : properties.getProperties(propertyName)) {
+                indexedValues.add(property.getValue());
+            }
+            values = indexedValues.toArray(new String[indexedValues.size()]);
+        }
+
+        /**
+         * @return true if properties have been added to, removed from or replaced in the component since indexing
+         */
+        private boolean isModified(final T component) {
+            return component.getProperties() != properties
+                    || properties.getModificationCount() != propertiesModificationCount;
+        }
+    }
 }
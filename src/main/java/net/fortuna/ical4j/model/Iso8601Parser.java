@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.TimeZones;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * A thread-safe parser for the ISO 8601 basic format representations of dates and date-times used in iCalendar
+ * (i.e. yyyyMMdd['T'HHmmss['Z']]). Values consisting of the expected digits are converted directly to the number of
+ * milliseconds since the epoch, with offsets of iCalendar timezones resolved from the (cached) transitions of the
+ * timezone rather than via a {@link Calendar}. Results are equivalent to those of the corresponding
+ * {@link SimpleDateFormat} or {@link CalendarDateFormatFactory} formats, which are used to parse any other values.
+ * @author Ben Fortuna
+ */
+final class Iso8601Parser {
+
+    /**
+     * A parser for UTC date-time values.
+     */
+    public static final Iso8601Parser UTC_DATE_TIME = new Iso8601Parser("yyyyMMdd'T'HHmmss'Z'");
+
+    /**
+     * A parser for local date-time values.
+     */
+    public static final Iso8601Parser DATE_TIME = new Iso8601Parser("yyyyMMdd'T'HHmmss");
+
+    /**
+     * A parser for date values.
+     */
+    public static final Iso8601Parser DATE = new Iso8601Parser("yyyyMMdd");
+
+    /**
+     * The earliest year converted without a calendar. Earlier dates are subject to the Julian calendar cutover.
+     */
+    private static final int MIN_GREGORIAN_YEAR = 1583;
+
+    private final String pattern;
+
+    private final boolean hasTime;
+
+    private final boolean utc;
+
+    private final int length;
+
+    private Iso8601Parser(final String pattern) {
+        this.pattern = pattern;
+        this.hasTime = pattern.indexOf('T') >= 0;
+        this.utc = pattern.endsWith("'Z'");
+        this.length = hasTime ? (utc ? 16 : 15) : 8;
+    }
+
+    /**
+     * Parses the specified value equivalent to a {@link SimpleDateFormat} of this parser's pattern.
+     * @param value a string representation of a date or date-time
+     * @param timezone the timezone in which to interpret the value
+     * @param lenient indicates whether to apply lenient parsing
+     * @return the number of milliseconds since the epoch
+     * @throws ParseException where the value is not a valid date or date-time
+     */
+    public long parse(final String value, final java.util.TimeZone timezone, final boolean lenient)
+            throws ParseException {
+
+        // the fields of a SimpleDateFormat are fixed width only where followed by another field, and so characters
+        // following the last field may alter how the field is parsed..
+        final int end = utc ? length - 1 : length;
+        if (!isFixedWidth(value, end)) {
+            return parseFormat(value, timezone, lenient);
+        }
+        final char next = value.length() > end ? value.charAt(end) : 0;
+        if (utc) {
+            if (next == 0) {
+                throw new ParseException("Unparseable date: \"" + value + "\"", end);
+            }
+            else if (next != 'Z') {
+                return parseFormat(value, timezone, lenient);
+            }
+        }
+        else if (next != 0 && next != 'T' && next != 'Z') {
+            return parseFormat(value, timezone, lenient);
+        }
+        return getTime(value, timezone, lenient, hasTime);
+    }
+
+    /**
+     * Parses the specified value equivalent to the specified format, where the format is an instance of this
+     * parser's pattern as returned by {@link CalendarDateFormatFactory#getInstance(String)}.
+     * @param value a string representation of a date or date-time
+     * @param format the format for which parsing is equivalent
+     * @return the number of milliseconds since the epoch
+     * @throws ParseException where the value is not a valid date or date-time
+     */
+    public long parse(final String value, final DateFormat format) throws ParseException {
+        // lenient formats ignore superfluous input..
+        final int end = utc ? length - 1 : length;
+        if (isFixedWidth(value, end) && (format.isLenient() ? value.length() >= length : value.length() == length)
+                && (!utc || value.charAt(end) == 'Z')) {
+
+            return getTime(value, format.getTimeZone(), format.isLenient(), true);
+        }
+        return format.parse(value).getTime();
+    }
+
+    private long parseFormat(final String value, final java.util.TimeZone timezone, final boolean lenient)
+            throws ParseException {
+
+        final DateFormat format = new SimpleDateFormat(pattern);
+        format.setTimeZone(timezone);
+        format.setLenient(lenient);
+        return format.parse(value).getTime();
+    }
+
+    /**
+     * @return true if the value contains the expected digits (and time designator) up to the specified index
+     */
+    private boolean isFixedWidth(final String value, final int end) {
+        return value.length() >= end && isDigits(value, 0, 8)
+            && (!hasTime || (value.charAt(8) == 'T' && isDigits(value, 9, 15)));
+    }
+
+    /**
+     * @param timeSet indicates whether time fields are set (and so validated by strict parsing) for date values
+     */
+    private long getTime(final String value, final java.util.TimeZone timezone, final boolean lenient,
+            final boolean timeSet) throws ParseException {
+
+        final int year = getDigits(value, 0, 4);
+        final int month = getDigits(value, 4, 6);
+        final int day = getDigits(value, 6, 8);
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if (hasTime) {
+            hour = getDigits(value, 9, 11);
+            minute = getDigits(value, 11, 13);
+            second = getDigits(value, 13, 15);
+        }
+
+        if (year >= MIN_GREGORIAN_YEAR) {
+            if (!lenient && (month < 1 || month > 12 || day < 1 || day > Dates.getDaysInMonth(year, month)
+                    || hour > 23 || minute > 59 || second > 59)) {
+                throw new ParseException("Unparseable date: \"" + value + "\"", 0);
+            }
+            final long localTime = getLocalTime(year, month, day, hour, minute, second);
+
+            // note that timezone identifiers aren't a reliable indicator of UTC..
+            if (timezone == TimeZones.getUtcTimeZone()) {
+                return localTime;
+            }
+            else if (timezone instanceof TimeZone) {
+                final TimeZone tz = (TimeZone) timezone;
+                final long time = localTime - tz.getLocalOffset(localTime);
+                // strict parsing rejects local times skipped by a transition..
+                if (!lenient) {
+                    final long actualTime = time + tz.getOffset(time);
+                    if (timeSet ? actualTime != localTime
+                            : actualTime < localTime || actualTime >= localTime + Dates.MILLIS_PER_DAY) {
+                        throw new ParseException("Unparseable date: \"" + value + "\"", 0);
+                    }
+                }
+                return time;
+            }
+        }
+
+        final Calendar cal = new GregorianCalendar(timezone);
+        cal.setLenient(lenient);
+        cal.clear();
+        if (timeSet) {
+            cal.set(year, month - 1, day, hour, minute, second);
+        }
+        else {
+            cal.set(year, month - 1, day);
+        }
+        try {
+            return cal.getTimeInMillis();
+        }
+        catch (IllegalArgumentException iae) {
+            throw new ParseException("Unparseable date: \"" + value + "\"", 0);
+        }
+    }
+
+    private static boolean isDigits(final String value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getDigits(final String value, final int start, final int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Returns the local time represented by the specified fields, where (as for a lenient calendar) months, days
+     * and times outside of the normal range overflow into the adjacent field.
+     * @return the number of milliseconds since the epoch in the proleptic gregorian calendar
+     */
+    private static long getLocalTime(final int year, final int month, final int day, final int hour,
+            final int minute, final int second) {
+
+        int y = year + (month - 1) / 12;
+        int m = (month - 1) % 12;
+        if (m < 0) {
+            m += 12;
+            y--;
+        }
+        final long epochDay = Dates.getEpochDay(y, m + 1, day);
+        return epochDay * Dates.MILLIS_PER_DAY + hour * Dates.MILLIS_PER_HOUR
+                + minute * Dates.MILLIS_PER_MINUTE + second * Dates.MILLIS_PER_SECOND;
+    }
+}
@@ -31,6 +31,9 @@
  */
 package net.fortuna.ical4j.model;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URISyntaxException;
 
 import net.fortuna.ical4j.util.Strings;
@@ -201,16 +204,35 @@ public abstract class Parameter extends Content {
      * {@inheritDoc}
      */
     public final String toString() {
-        final StringBuffer b = new StringBuffer();
-        b.append(getName());
-        b.append('=');
+        final StringWriter out = new StringWriter();
+        try {
+            write(out);
+        }
+        catch (IOException ioe) {
+            // not thrown by a string writer..
+            throw new RuntimeException(ioe);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the iCalendar representation of this parameter to the specified writer. Output is equivalent to
+     * {@link #toString()}.
+     * @param out a writer to write the parameter to
+     * @throws IOException where an error occurs writing to the specified writer
+     */
+    public final void write(final Writer out) throws IOException {
+        out.write(getName());
+        out.write('=');
+        final String value = Strings.valueOf(getValue());
         if (isQuotable()) {
-            b.append(Strings.quote(Strings.valueOf(getValue())));
+            out.write('"');
+            out.write(value);
+            out.write('"');
         }
         else {
-            b.append(Strings.valueOf(getValue()));
+            out.write(value);
         }
-        return b.toString();
     }
 
     /**
@@ -32,8 +32,11 @@
 package net.fortuna.ical4j.model;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.Iterator;
 import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.model.property.XProperty;
 
@@ -358,6 +361,13 @@ public abstract class Property extends Content {
 
     private final PropertyFactory factory;
     
+    private volatile String deferredValue;
+
+    /**
+     * Indicates a deferred value is being parsed by the thread holding this property's lock.
+     */
+    private transient boolean parsing;
+
     /**
      * Constructor.
      * @param aName property name
@@ -408,12 +418,33 @@ public abstract class Property extends Content {
      * {@inheritDoc}
      */
     public final String toString() {
-        final StringBuffer buffer = new StringBuffer();
-        buffer.append(getName());
+        final StringWriter out = new StringWriter();
+        try {
+            write(out);
+        }
+        catch (IOException ioe) {
+            // not thrown by a string writer..
+            throw new RuntimeException(ioe);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the iCalendar representation of this property (i.e. a content line terminated by a line separator)
+     * to the specified writer. Output is equivalent to {@link #toString()}, without constructing an intermediate
+     * string representation of the property.
+     * @param out a writer to write the property to
+     * @throws IOException where an error occurs writing to the specified writer
+     */
+    public final void write(final Writer out) throws IOException {
+        out.write(getName());
         if (getParameters() != null) {
-            buffer.append(getParameters());
+            for (final Iterator<Parameter> i = getParameters().iterator(); i.hasNext();) {
+                out.write(';');
+                i.next().write(out);
+            }
         }
-        buffer.append(':');
+        out.write(':');
         boolean needsEscape = false;
         if (this instanceof XProperty) {
             Value valParam = (Value)getParameter(Parameter.VALUE);
@@ -424,14 +455,12 @@ public abstract class Property extends Content {
             needsEscape = true;
         }
         if (needsEscape) {
-            buffer.append(Strings.escape(Strings.valueOf(getValue())));
+            Strings.escape(Strings.valueOf(getValue()), out);
         }
         else {
-            buffer.append(Strings.valueOf(getValue()));
+            out.write(Strings.valueOf(getValue()));
         }
-        buffer.append(Strings.LINE_SEPARATOR);
-
-        return buffer.toString();
+        out.write(Strings.LINE_SEPARATOR);
     }
 
     /**
@@ -488,6 +517,85 @@ public abstract class Property extends Content {
     public abstract void setValue(String aValue) throws IOException,
             URISyntaxException, ParseException;
 
+    /**
+     * Sets the current value of the property, deferring parsing of the value until it is first accessed where
+     * supported by the property. This avoids the cost of parsing typed values (such as dates, recurrence rules
+     * and URIs) that are never used. Properties that don't support deferred parsing parse the value immediately.
+     * 
+     * Note that an invalid deferred value is reported via a {@link CalendarException} when the value is accessed.
+     * @param aValue a string representation of the property value
+     * @throws IOException possibly thrown by setting the value of certain properties
+     * @throws URISyntaxException possibly thrown by setting the value of certain properties
+     * @throws ParseException possibly thrown by setting the value of certain properties
+     * @see #isDeferrable()
+     */
+    public final void setDeferredValue(final String aValue) throws IOException,
+            URISyntaxException, ParseException {
+        
+        if (isDeferrable()) {
+            deferredValue = aValue;
+        }
+        else {
+            setValue(aValue);
+        }
+    }
+
+    /**
+     * Indicates whether the property supports deferred parsing of values. Properties that return true must invoke
+     * {@link #parseDeferredValue()} prior to accessing their typed value, and {@link #clearDeferredValue()} when the
+     * typed value is replaced.
+     * @return true if parsing of values may be deferred, otherwise false
+     */
+    protected boolean isDeferrable() {
+        return false;
+    }
+
+    /**
+     * Parses a value previously specified via {@link #setDeferredValue(String)}, if any. Parsing is synchronized on
+     * the property, and the deferred value is discarded only once the typed value is set, such that properties may
+     * be read concurrently.
+     * @throws CalendarException where the deferred value is invalid
+     */
+    protected final void parseDeferredValue() {
+        if (deferredValue == null) {
+            return;
+        }
+        synchronized (this) {
+            // ignore access to the typed value while parsing..
+            if (deferredValue != null && !parsing) {
+                final String value = deferredValue;
+                parsing = true;
+                // an invalid value is retained such that subsequent access fails consistently..
+                try {
+                    setValue(value);
+                    deferredValue = null;
+                }
+                catch (IOException e) {
+                    throw new CalendarException(e);
+                }
+                catch (URISyntaxException e) {
+                    throw new CalendarException(e);
+                }
+                catch (ParseException e) {
+                    throw new CalendarException(e);
+                }
+                finally {
+                    parsing = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards a value previously specified via {@link #setDeferredValue(String)}, if any.
+     */
+    protected final void clearDeferredValue() {
+        // the value being parsed is discarded once parsing completes..
+        if (!parsing) {
+            deferredValue = null;
+        }
+    }
+
     /**
      * Perform validation on a property.
      * @throws ValidationException where the property is not in a valid state
@@ -33,25 +33,50 @@ package net.fortuna.ical4j.model;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 /**
  * $Id$ [Apr 5, 2004]
  *
  * Defines a list of iCalendar properties.
+ *
+ * An indexed property list (see {@link #PropertyList(boolean)}) also maintains a list of the properties of each
+ * name, such that {@link #getProperty(String)} and {@link #getProperties(String)} don't scan the list. The index is
+ * created on the first lookup and is subsequently updated as properties are added, removed or replaced. Lists
+ * returned by {@link #getProperties(String)} for an indexed list are read-only, and are shared by subsequent lookups
+ * until properties of the same name are added, removed or replaced (such that, as for a list that isn't indexed,
+ * changes to the list aren't reflected in previously returned lists).
  * @author Ben Fortuna
  */
 public class PropertyList extends ArrayList<Property> implements Serializable {
 
     private static final long serialVersionUID = -8875923766224921031L;
 
+    private transient int replacementCount;
+
+    private final boolean indexed;
+
+    private static final PropertyListView EMPTY_VIEW = new PropertyListView();
+
+    private transient Map<String, PropertyListView> index;
+
+    /**
+     * The modification count of the list reflected by the index.
+     */
+    private transient int indexModificationCount;
+
     /**
      * Default constructor.
      */
     public PropertyList() {
+        this(false);
     }
 
     /**
@@ -60,10 +85,19 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
      */
     public PropertyList(final int initialCapacity) {
         super(initialCapacity);
+        this.indexed = false;
     }
 
     /**
-     * Creates a deep copy of the specified property list.
+     * Creates a new instance.
+     * @param indexed indicates whether to index properties by name
+     */
+    public PropertyList(final boolean indexed) {
+        this.indexed = indexed;
+    }
+
+    /**
+     * Creates a deep copy of the specified property list. The copy is indexed if the specified list is indexed.
      * @param properties a property list
      * @throws ParseException where property data cannot be parsed
      * @throws IOException where property data cannot be read
@@ -71,6 +105,7 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
      */
     public PropertyList(PropertyList properties) throws ParseException, IOException, URISyntaxException {
         super();
+        this.indexed = properties.indexed;
         for (Property p : properties) {
             add(p.copy());
         }
@@ -87,12 +122,31 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
         return buffer.toString();
     }
 
+    /**
+     * Writes the iCalendar representation of all properties in the list to the specified writer.
+     * @param out a writer to write the properties to
+     * @throws IOException where an error occurs writing to the specified writer
+     * @see Property#write(Writer)
+     */
+    public final void write(final Writer out) throws IOException {
+        for (final Iterator<Property> i = iterator(); i.hasNext();) {
+            i.next().write(out);
+        }
+    }
+
     /**
      * Returns the first property of specified name.
      * @param aName name of property to return
      * @return a property or null if no matching property found
      */
     public final Property getProperty(final String aName) {
+        if (indexed) {
+            final PropertyList properties = getIndexedView(aName);
+            if (!properties.isEmpty()) {
+                return properties.get(0);
+            }
+            return null;
+        }
         for (final Iterator<Property> i = iterator(); i.hasNext();) {
             final Property p = i.next();
             if (p.getName().equalsIgnoreCase(aName)) {
@@ -103,11 +157,17 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
     }
 
     /**
-     * Returns a list of properties with the specified name.
+     * Returns a list of properties with the specified name. Where this list is indexed the returned list is
+     * read-only.
      * @param name name of properties to return
      * @return a property list
      */
     public final PropertyList getProperties(final String name) {
+        if (indexed) {
+            final PropertyListView view = getIndexedView(name);
+            view.shared = true;
+            return view;
+        }
         final PropertyList list = new PropertyList();
         for (final Iterator<Property> i = iterator(); i.hasNext();) {
             final Property p = i.next();
@@ -118,6 +178,160 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
         return list;
     }
 
+    /**
+     * @return true if properties are indexed by name, otherwise false
+     */
+    public final boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean add(final Property property) {
+        final boolean current = isIndexCurrent();
+        final boolean result = super.add(property);
+        if (current) {
+            getWritableView(property.getName()).addView(property);
+            indexModificationCount = getModificationCount();
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void add(final int index, final Property property) {
+        final boolean current = isIndexCurrent();
+        super.add(index, property);
+        if (current) {
+            getWritableView(property.getName()).addView(getViewIndex(index, property.getName()), property);
+            indexModificationCount = getModificationCount();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean addAll(final Collection<? extends Property> c) {
+        final boolean current = isIndexCurrent();
+        final Object[] properties = c.toArray();
+        final boolean result = super.addAll(c);
+        if (current) {
+            for (int i = 0; i < properties.length; i++) {
+                final Property property = (Property) properties[i];
+                getWritableView(property.getName()).addView(property);
+            }
+            indexModificationCount = getModificationCount();
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean addAll(final int index, final Collection<? extends Property> c) {
+        final boolean result = super.addAll(index, c);
+        updateIndex();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Property remove(final int index) {
+        final boolean current = isIndexCurrent();
+        final Property property = get(index);
+        final int viewIndex = current ? getViewIndex(index, property.getName()) : -1;
+        super.remove(index);
+        if (current) {
+            getWritableView(property.getName()).removeView(viewIndex);
+            indexModificationCount = getModificationCount();
+        }
+        return property;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean remove(final Object o) {
+        if (index == null) {
+            return super.remove(o);
+        }
+        final int i = indexOf(o);
+        if (i >= 0) {
+            remove(i);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean removeAll(final Collection<?> c) {
+        final boolean result = super.removeAll(c);
+        updateIndex();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean retainAll(final Collection<?> c) {
+        final boolean result = super.retainAll(c);
+        updateIndex();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clear() {
+        super.clear();
+        updateIndex();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void removeRange(final int fromIndex, final int toIndex) {
+        super.removeRange(fromIndex, toIndex);
+        updateIndex();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Property set(final int index, final Property property) {
+        final boolean current = isIndexCurrent();
+        final Property replaced = get(index);
+        final int viewIndex = current ? getViewIndex(index, replaced.getName()) : -1;
+        replacementCount++;
+        super.set(index, property);
+        if (current) {
+            if (replaced.getName().equalsIgnoreCase(property.getName())) {
+                getWritableView(property.getName()).setView(viewIndex, property);
+            }
+            else {
+                getWritableView(replaced.getName()).removeView(viewIndex);
+                getWritableView(property.getName()).addView(getViewIndex(index, property.getName()), property);
+            }
+            indexModificationCount = getModificationCount();
+        }
+        return replaced;
+    }
+
+    /**
+     * Returns a count of the modifications made to this list, such that a change in the count indicates that
+     * properties have been added, removed or replaced. Note that changes to the values of individual properties are
+     * not counted.
+     * @return a modification count
+     */
+    public final int getModificationCount() {
+        return modCount + replacementCount;
+    }
+
     /**
      * Remove a property from the list.
      * @param property the property to remove
@@ -127,4 +341,154 @@ public class PropertyList extends ArrayList<Property> implements Serializable {
     public final boolean remove(final Property property) {
         return remove((Object) property);
     }
+
+    /**
+     * @return true if an index exists and reflects the current state of the list
+     */
+    private boolean isIndexCurrent() {
+        return index != null && indexModificationCount == getModificationCount();
+    }
+
+    /**
+     * Rebuilds an existing index to reflect the current state of the list.
+     */
+    private void updateIndex() {
+        if (index != null) {
+            index = new HashMap<String, PropertyListView>();
+            for (final Iterator<Property> i = iterator(); i.hasNext();) {
+                final Property property = i.next();
+                getWritableView(property.getName()).addView(property);
+            }
+            indexModificationCount = getModificationCount();
+        }
+    }
+
+    /**
+     * @return a list of the properties with the specified name, creating or updating the index as required
+     */
+    private PropertyListView getIndexedView(final String name) {
+        if (index == null) {
+            index = new HashMap<String, PropertyListView>();
+            updateIndex();
+        }
+        else if (indexModificationCount != getModificationCount()) {
+            // the list was modified other than via the methods of this class (e.g. via a sub-list)..
+            updateIndex();
+        }
+        final PropertyListView view = index.get(name.toUpperCase());
+        if (view != null) {
+            return view;
+        }
+        return EMPTY_VIEW;
+    }
+
+    /**
+     * @return a modifiable list of the properties with the specified name, replacing lists returned by previous
+     * lookups
+     */
+    private PropertyListView getWritableView(final String name) {
+        final String key = name.toUpperCase();
+        PropertyListView view = index.get(key);
+        if (view == null) {
+            view = new PropertyListView();
+            index.put(key, view);
+        }
+        else if (view.shared) {
+            final PropertyListView copy = new PropertyListView();
+            copy.addAllView(view);
+            view = copy;
+            index.put(key, view);
+        }
+        return view;
+    }
+
+    /**
+     * @return the number of properties with the specified name preceding the specified index
+     */
+    private int getViewIndex(final int index, final String name) {
+        int viewIndex = 0;
+        for (int i = 0; i < index; i++) {
+            if (get(i).getName().equalsIgnoreCase(name)) {
+                viewIndex++;
+            }
+        }
+        return viewIndex;
+    }
+
+    /**
+     * A read-only list of the properties of a single name, maintained by an indexed list.
+     */
+    private static final class PropertyListView extends PropertyList {
+
+        private static final long serialVersionUID = 3409468405384720566L;
+
+        /**
+         * Indicates whether the list has been returned by a lookup, and so may no longer be modified.
+         */
+        private boolean shared;
+
+        private void addView(final Property property) {
+            super.add(property);
+        }
+
+        private void addAllView(final Collection<? extends Property> c) {
+            super.addAll(c);
+        }
+
+        private void addView(final int index, final Property property) {
+            super.add(index, property);
+        }
+
+        private void removeView(final int index) {
+            super.remove(index);
+        }
+
+        private void setView(final int index, final Property property) {
+            super.set(index, property);
+        }
+
+        public boolean add(final Property property) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void add(final int index, final Property property) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean addAll(final Collection<? extends Property> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean addAll(final int index, final Collection<? extends Property> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Property remove(final int index) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean remove(final Object o) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean removeAll(final Collection<?> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean retainAll(final Collection<?> c) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        protected void removeRange(final int fromIndex, final int toIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Property set(final int index, final Property property) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -584,13 +584,10 @@ public class Recur implements Serializable {
         // optimize the start time for selecting candidates
         // (only applicable where a COUNT is not specified)
         if (getCount() < 1) {
-            final Calendar seededCal = (Calendar) cal.clone();
-            while (seededCal.getTime().before(periodStart)) {
-                cal.setTime(seededCal.getTime());
-                increment(seededCal);
-            }
+            fastForward(cal, periodStart);
         }
 
+        final RecurrenceEngine engine = new RecurrenceEngine(this);
         int invalidCandidateCount = 0;
         int noCandidateIncrementCount = 0;
         Date candidate = null;
@@ -623,7 +620,7 @@ public class Recur implements Serializable {
                 }
             }
 
-            final DateList candidates = getCandidates(candidateSeed, value);
+            final DateList candidates = getCandidates(engine, candidateSeed, value);
             if (!candidates.isEmpty()) {
                 noCandidateIncrementCount = 0;
                 // sort candidates for identifying when UNTIL date is exceeded..
@@ -676,13 +673,10 @@ public class Recur implements Serializable {
         // optimize the start time for selecting candidates
         // (only applicable where a COUNT is not specified)
         if (getCount() < 1) {
-            final Calendar seededCal = (Calendar) cal.clone();
-            while (seededCal.getTime().before(startDate)) {
-                cal.setTime(seededCal.getTime());
-                increment(seededCal);
-            }
+            fastForward(cal, startDate);
         }
 
+        final RecurrenceEngine engine = new RecurrenceEngine(this);
         int invalidCandidateCount = 0;
         int noCandidateIncrementCount = 0;
         Date candidate = null;
@@ -708,7 +702,7 @@ public class Recur implements Serializable {
                 }
             }
 
-            final DateList candidates = getCandidates(candidateSeed, value);
+            final DateList candidates = getCandidates(engine, candidateSeed, value);
             if (!candidates.isEmpty()) {
                 noCandidateIncrementCount = 0;
                 // sort candidates for identifying when UNTIL date is exceeded..
@@ -742,6 +736,87 @@ public class Recur implements Serializable {
         return null;
     }
 
+    /**
+     * Returns an iterator over the dates represented by this recur, commencing with the specified seed date.
+     * @param seed the start date of this Recurrence's first instance
+     * @param value the type of dates to generate (i.e. date/date-time)
+     * @return an iterator over recurrence dates
+     * @see #iterator(Date, Date, Value)
+     */
+    public final Iterator<Date> iterator(final Date seed, final Value value) {
+        return iterator(seed, seed, value);
+    }
+
+    /**
+     * Returns an iterator over the dates represented by this recur that occur on or after the specified period
+     * start. Unlike {@link #getDates(Date, Date, Date, Value)}, dates are generated incrementally (one interval at a
+     * time) as the iterator is advanced, such that callers may stop after any number of instances without expanding
+     * the remainder of the recurrence. The COUNT, UNTIL and BYSETPOS rules are applied as for
+     * {@link #getDates(Date, Date, Date, Value)}.
+     * 
+     * Note that a recurrence without a COUNT or UNTIL rule is unbounded, and as such the iterator may never be
+     * exhausted. Removal of dates is not supported.
+     * @param seed the start date of this Recurrence's first instance
+     * @param periodStart the earliest date returned by the iterator
+     * @param value the type of dates to generate (i.e. date/date-time)
+     * @return an iterator over recurrence dates
+     */
+    public final Iterator<Date> iterator(final Date seed, final Date periodStart, final Value value) {
+        return new RecurrenceIterator(seed, periodStart, value);
+    }
+
+    /**
+     * Advances the specified calendar (initialised with a seed date) to the last interval boundary of this recurrence
+     * prior to the specified date, or leaves it unchanged if the seed date is not prior to the specified date.
+     * 
+     * For frequencies with intervals of a (near) constant length (i.e. SECONDLY through WEEKLY) the number of
+     * intervals is calculated directly, such that only the final intervals are incremented individually.
+     * @param cal a java.util.Calendar initialised with a seed date
+     * @param date the date to advance towards
+     */
+    private void fastForward(final Calendar cal, final Date date) {
+        final long span = date.getTime() - cal.getTimeInMillis();
+        final long intervalMillis = getIntervalMillis();
+        if (intervalMillis > 0 && span > intervalMillis) {
+            // one less than the estimated intervals allows for daylight savings adjustments of calendar days..
+            final long intervals = span / intervalMillis - 1;
+            if (calIncField == Calendar.DAY_OF_YEAR || calIncField == Calendar.WEEK_OF_YEAR) {
+                // retain local time of day across daylight savings transitions..
+                cal.add(Calendar.DAY_OF_YEAR, (int) (intervals * (intervalMillis / Dates.MILLIS_PER_DAY)));
+            }
+            else {
+                cal.setTimeInMillis(cal.getTimeInMillis() + intervals * intervalMillis);
+            }
+        }
+        final Calendar seededCal = (Calendar) cal.clone();
+        while (seededCal.getTime().before(date)) {
+            cal.setTime(seededCal.getTime());
+            increment(seededCal);
+        }
+    }
+
+    /**
+     * @return the length of an interval of this recurrence in milliseconds, or zero for frequencies with intervals
+     * of varying length (i.e. MONTHLY and YEARLY)
+     */
+    private long getIntervalMillis() {
+        final long calInterval = (getInterval() >= 1) ? getInterval() : 1;
+        switch (calIncField) {
+            case Calendar.SECOND:
+                return calInterval * Dates.MILLIS_PER_SECOND;
+            case Calendar.MINUTE:
+                return calInterval * Dates.MILLIS_PER_MINUTE;
+            case Calendar.HOUR_OF_DAY:
+                return calInterval * Dates.MILLIS_PER_HOUR;
+            case Calendar.DAY_OF_YEAR:
+                return calInterval * Dates.MILLIS_PER_DAY;
+            case Calendar.WEEK_OF_YEAR:
+                return calInterval * Dates.MILLIS_PER_WEEK;
+            default:
+                return 0;
+        }
+    }
+
     /**
      * Increments the specified calendar according to the frequency and interval specified in this recurrence rule.
      * @param cal a java.util.Calendar to increment
@@ -754,11 +829,32 @@ public class Recur implements Serializable {
 
     /**
      * Returns a list of possible dates generated from the applicable BY* rules, using the specified date as a seed.
+     * Where supported by the specified engine, candidates are generated without the use of
+     * <code>java.util.Calendar</code> instances.
+     * @param engine an engine used to generate candidates for this recurrence
      * @param date the seed date
      * @param value the type of date list to return
      * @return a DateList
      */
-    private DateList getCandidates(final Date date, final Value value) {
+    private DateList getCandidates(final RecurrenceEngine engine, final Date date, final Value value) {
+        final DateList dates = engine.getCandidates(date, value);
+        if (dates != null) {
+            // debugging..
+            if (log.isDebugEnabled()) {
+                log.debug("Dates after BY* processing: " + dates);
+            }
+            return dates;
+        }
+        return getCandidates(date, value);
+    }
+
+    /**
+     * Returns a list of possible dates generated from the applicable BY* rules, using the specified date as a seed.
+     * @param date the seed date
+     * @param value the type of date list to return
+     * @return a DateList
+     */
+    DateList getCandidates(final Date date, final Value value) {
         DateList dates = new DateList(value);
         if (date instanceof DateTime) {
             if (((DateTime) date).isUtc()) {
@@ -1226,4 +1322,116 @@ public class Recur implements Serializable {
         return list;
     }
 
+    /**
+     * Generates recurrence dates one interval at a time.
+     */
+    private class RecurrenceIterator implements Iterator<Date> {
+
+        private final Date seed;
+
+        private final Date periodStart;
+
+        private final Value value;
+
+        private final Calendar cal;
+
+        private final RecurrenceEngine engine;
+
+        private Iterator<Date> candidates;
+
+        private Date next;
+
+        private int candidateCount;
+
+        private int noCandidateIncrementCount;
+
+        private boolean complete;
+
+        public RecurrenceIterator(final Date seed, final Date periodStart, final Value value) {
+            this.seed = seed;
+            this.periodStart = periodStart;
+            this.value = value;
+            
+            cal = Dates.getCalendarInstance(seed);
+            cal.setTime(seed);
+            engine = new RecurrenceEngine(Recur.this);
+
+            // optimize the start time for selecting candidates
+            // (only applicable where a COUNT is not specified)
+            if (getCount() < 1) {
+                fastForward(cal, periodStart);
+            }
+            candidates = Collections.<Date>emptyList().iterator();
+        }
+
+        public boolean hasNext() {
+            while (next == null && !complete) {
+                if (candidates.hasNext()) {
+                    final Date candidate = candidates.next();
+                    // don't count candidates that occur before the seed date..
+                    if (candidate.before(seed)) {
+                        continue;
+                    }
+                    // candidates are sorted, so all subsequent candidates will also exceed UNTIL..
+                    if ((getUntil() != null && candidate.after(getUntil()))
+                            || (getCount() >= 1 && candidateCount >= getCount())) {
+                        complete = true;
+                    }
+                    else {
+                        candidateCount++;
+                        if (!candidate.before(periodStart)) {
+                            next = candidate;
+                        }
+                    }
+                }
+                else {
+                    nextCandidates();
+                }
+            }
+            return next != null;
+        }
+
+        public Date next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Date date = next;
+            next = null;
+            return date;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Generates candidates for the next interval of the recurrence.
+         */
+        private void nextCandidates() {
+            final Date candidateSeed = Dates.getInstance(cal.getTime(), value);
+            if (candidateSeed instanceof DateTime && seed instanceof DateTime) {
+                if (((DateTime) seed).isUtc()) {
+                    ((DateTime) candidateSeed).setUtc(true);
+                }
+                else {
+                    ((DateTime) candidateSeed).setTimeZone(((DateTime) seed).getTimeZone());
+                }
+            }
+            increment(cal);
+
+            final DateList dates = getCandidates(engine, candidateSeed, value);
+            if (!dates.isEmpty()) {
+                noCandidateIncrementCount = 0;
+                // sort candidates for identifying when UNTIL date is exceeded..
+                Collections.sort(dates);
+                candidates = dates.iterator();
+            }
+            else {
+                noCandidateIncrementCount++;
+                if ((maxIncrementCount > 0) && (noCandidateIncrementCount > maxIncrementCount)) {
+                    complete = true;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,694 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.util.Dates;
+import net.fortuna.ical4j.util.TimeZones;
+
+/**
+ * <pre>
+ * $Id$
+ *
+ * Created on 17/10/2026
+ * </pre>
+ *
+ * Generates the candidate dates of a single recurrence interval using field arithmetic on primitive epoch values
+ * rather than <code>java.util.Calendar</code> instances. Candidates are held in reusable buffers of epoch
+ * milliseconds, such that the only objects created per interval are the resulting dates.
+ *
+ * The results are identical to those of {@link Recur#getCandidates(Date, Value)}, including the behaviour of
+ * <code>java.util.Calendar</code> for values that are out of range (e.g. month lengths are pinned when applying
+ * BYMONTH rules, and an invalid BYMONTHDAY excludes any subsequent days of the same date). Field arithmetic is only
+ * applied where the calendar time zone has a fixed (UTC) offset, being UTC date-times and dates. Date-times with a
+ * time zone and floating date-times are expanded by applying the same operations as
+ * {@link Recur#getCandidates(Date, Value)} to a single calendar instance, such that local times skipped or repeated
+ * at offset transitions are resolved identically. Dates in a non-UTC time zone, as well as rules with BYWEEKNO or
+ * BYYEARDAY parts, are not supported and should be expanded via <code>java.util.Calendar</code>.
+ *
+ * Instances are not thread-safe, and are intended to be used for the expansion of a single recurrence.
+ *
+ * @author Ben Fortuna
+ */
+class RecurrenceEngine {
+
+    /**
+     * The earliest supported date (1600-01-01T00:00:00Z), such that Julian calendar dates prior to the Gregorian
+     * cutover are never encountered.
+     */
+    private static final long MIN_TIME = -11676096000000L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Recur recur;
+
+    private final boolean gregorian;
+
+    private long[] values = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    private long[] variants = new long[INITIAL_CAPACITY];
+
+    private int variantsSize;
+
+    private TimeZone defaultTimeZone;
+
+    private TimeZone calendarZone;
+
+    private Calendar calendar;
+
+    private int calendarFirstDayOfWeek;
+
+    private int year;
+
+    private int month;
+
+    private int dayOfMonth;
+
+    /**
+     * @param recur the recurrence rule to expand
+     */
+    RecurrenceEngine(final Recur recur) {
+        this.recur = recur;
+        // non-gregorian calendars may be returned for some default locales..
+        this.gregorian = Calendar.getInstance(TimeZones.getUtcTimeZone()) instanceof GregorianCalendar;
+    }
+
+    /**
+     * Returns a list of possible dates generated from the applicable BY* rules, using the specified date as a seed.
+     * @param date the seed date
+     * @param value the type of date list to return
+     * @return a DateList, or null if the recurrence rule or seed date is not supported
+     */
+    DateList getCandidates(final Date date, final Value value) {
+        if (!isSupported(date, value)) {
+            return null;
+        }
+        final boolean dateValue = Value.DATE.equals(value);
+        size = 0;
+        add(date.getTime());
+        final Calendar cal = getCalendar(date);
+        if (cal == null) {
+            if (!applyRules(dateValue)) {
+                return null;
+            }
+        }
+        else if (!applyRules(cal)) {
+            return null;
+        }
+        if (!recur.getSetPosList().isEmpty()) {
+            applySetPos();
+        }
+
+        final DateList dates = new DateList(value);
+        if (!dateValue) {
+            final DateTime dateTime = (DateTime) date;
+            if (dateTime.isUtc()) {
+                dates.setUtc(true);
+            }
+            else {
+                dates.setTimeZone(dateTime.getTimeZone());
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (dateValue) {
+                dates.add(new Date(values[i]));
+            }
+            else {
+                dates.add(new DateTime(values[i]));
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Applies the BY* rules (other than BYSETPOS) to candidates with a fixed (UTC) offset.
+     * @return false if the rules cannot be applied
+     */
+    private boolean applyRules(final boolean dateValue) {
+        if (!recur.getMonthList().isEmpty()) {
+            applyMonths(dateValue);
+        }
+        if (!recur.getMonthDayList().isEmpty()) {
+            if (!applyMonthDays(dateValue)) {
+                return false;
+            }
+        }
+        if (!recur.getDayList().isEmpty()) {
+            if (!applyDays(dateValue)) {
+                return false;
+            }
+        }
+        if (!recur.getHourList().isEmpty()) {
+            applyTimeField(recur.getHourList(), Dates.MILLIS_PER_DAY, Dates.MILLIS_PER_HOUR, dateValue);
+        }
+        if (!recur.getMinuteList().isEmpty()) {
+            applyTimeField(recur.getMinuteList(), Dates.MILLIS_PER_HOUR, Dates.MILLIS_PER_MINUTE, dateValue);
+        }
+        if (!recur.getSecondList().isEmpty()) {
+            applyTimeField(recur.getSecondList(), Dates.MILLIS_PER_MINUTE, Dates.MILLIS_PER_SECOND, dateValue);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the BY* rules (other than BYSETPOS) to date-times with a time zone or floating date-times.
+     * @param cal a calendar in the time zone of the candidates
+     * @return false if the rules cannot be applied
+     */
+    private boolean applyRules(final Calendar cal) {
+        if (!recur.getMonthList().isEmpty()) {
+            applyMonths(cal);
+        }
+        if (!recur.getMonthDayList().isEmpty()) {
+            if (!applyMonthDays(cal)) {
+                return false;
+            }
+        }
+        if (!recur.getDayList().isEmpty()) {
+            if (!applyDays(cal)) {
+                return false;
+            }
+        }
+        if (!recur.getHourList().isEmpty()) {
+            applyTimeField(cal, recur.getHourList(), Calendar.HOUR_OF_DAY);
+        }
+        if (!recur.getMinuteList().isEmpty()) {
+            applyTimeField(cal, recur.getMinuteList(), Calendar.MINUTE);
+        }
+        if (!recur.getSecondList().isEmpty()) {
+            applyTimeField(cal, recur.getSecondList(), Calendar.SECOND);
+        }
+        return true;
+    }
+
+    /**
+     * @param date a seed date
+     * @param value the type of dates to generate
+     * @return true if candidates for the specified seed may be generated by this engine
+     */
+    private boolean isSupported(final Date date, final Value value) {
+        if (!gregorian || !recur.getWeekNoList().isEmpty() || !recur.getYearDayList().isEmpty()) {
+            return false;
+        }
+        if (date.getTime() < MIN_TIME) {
+            return false;
+        }
+        if (date instanceof DateTime) {
+            // intermediate date-times are rounded in the default timezone where a value includes milliseconds..
+            return Value.DATE_TIME.equals(value)
+                    && (((DateTime) date).isUtc() || date.getTime() % Dates.MILLIS_PER_SECOND == 0);
+        }
+        return Value.DATE.equals(value) && TimeZones.isUtc(TimeZones.getDateTimeZone());
+    }
+
+    /**
+     * @param date a seed date
+     * @return a calendar in the time zone of a date-time with a time zone or floating date-time, or null where the
+     * seed has a fixed (UTC) offset
+     */
+    private Calendar getCalendar(final Date date) {
+        if (!(date instanceof DateTime) || ((DateTime) date).isUtc()) {
+            return null;
+        }
+        TimeZone zone = ((DateTime) date).getTimeZone();
+        if (zone == null) {
+            // floating date-times are expanded in the default timezone..
+            zone = TimeZone.getDefault();
+        }
+        if (calendar == null || calendarZone != zone) {
+            calendar = Calendar.getInstance(zone);
+            calendarZone = zone;
+            calendarFirstDayOfWeek = calendar.getFirstDayOfWeek();
+        }
+        return calendar;
+    }
+
+    /**
+     * Applies BYMONTH rules equivalent to rolling the month of a calendar, such that the year is unchanged and the
+     * day of month is limited to the length of each month in turn.
+     */
+    private void applyMonths(final boolean dateValue) {
+        final NumberList months = recur.getMonthList();
+        variantsSize = 0;
+        for (int i = 0; i < size; i++) {
+            final long day = floorDiv(values[i], Dates.MILLIS_PER_DAY);
+            final long time = values[i] - day * Dates.MILLIS_PER_DAY;
+            setDate(day);
+            int monthDay = dayOfMonth;
+            for (int j = 0; j < months.size(); j++) {
+                final int rolledMonth = (int) floorMod(months.get(j).intValue() - 1, 12) + 1;
+                monthDay = Math.min(monthDay, Dates.getDaysInMonth(year, rolledMonth));
+                addVariant(Dates.getEpochDay(year, rolledMonth, monthDay) * Dates.MILLIS_PER_DAY + time, dateValue);
+            }
+        }
+        swap();
+    }
+
+    /**
+     * Applies BYMONTHDAY rules equivalent to setting the day of month of a non-lenient calendar. As such once an
+     * invalid day of month is encountered for a date all subsequent month days are also excluded.
+     * @return false if the rules cannot be applied
+     */
+    private boolean applyMonthDays(final boolean dateValue) {
+        final NumberList monthDays = recur.getMonthDayList();
+        variantsSize = 0;
+        for (int i = 0; i < size; i++) {
+            final long day = floorDiv(values[i], Dates.MILLIS_PER_DAY);
+            final long time = values[i] - day * Dates.MILLIS_PER_DAY;
+            setDate(day);
+            final int monthLength = Dates.getDaysInMonth(year, month);
+            long current = values[i];
+            for (int j = 0; j < monthDays.size(); j++) {
+                final int monthDay = monthDays.get(j).intValue();
+                if (monthDay == 0 || monthDay < -Dates.MAX_DAYS_PER_MONTH || monthDay > Dates.MAX_DAYS_PER_MONTH) {
+                    continue;
+                }
+                final int absMonthDay = getAbsMonthDay(current, monthDay);
+                if (absMonthDay < 1) {
+                    return false;
+                }
+                if (monthDay < 0) {
+                    setDate(day);
+                }
+                if (absMonthDay > monthLength) {
+                    break;
+                }
+                current = Dates.getEpochDay(year, month, absMonthDay) * Dates.MILLIS_PER_DAY + time;
+                addVariant(current, dateValue);
+            }
+        }
+        swap();
+        return true;
+    }
+
+    /**
+     * Applies BYDAY rules, either filtering existing dates (where BYMONTHDAY rules are specified) or expanding to
+     * the matching days of the week, month or year in accordance with the frequency.
+     * @return false if the rules cannot be applied
+     */
+    private boolean applyDays(final boolean dateValue) {
+        final WeekDayList weekDays = recur.getDayList();
+        final boolean filter = !recur.getMonthDayList().isEmpty();
+        final String frequency = recur.getFrequency();
+        // default week start is Monday per RFC5545
+        int weekStartDay = Calendar.MONDAY;
+        if (!filter && size > 0 && recur.getWeekStartDay() != null) {
+            weekStartDay = WeekDay.getCalendarDay(new WeekDay(recur.getWeekStartDay()));
+        }
+        variantsSize = 0;
+        for (int i = 0; i < size; i++) {
+            final long day = floorDiv(values[i], Dates.MILLIS_PER_DAY);
+            final long time = values[i] - day * Dates.MILLIS_PER_DAY;
+            final int dayOfWeek = getDayOfWeek(day);
+            for (int j = 0; j < weekDays.size(); j++) {
+                final WeekDay weekDay = weekDays.get(j);
+                final int calDay = WeekDay.getCalendarDay(weekDay);
+                if (filter) {
+                    if (weekDay.getOffset() == 0 && calDay == dayOfWeek) {
+                        addVariant(values[i], false);
+                    }
+                    continue;
+                }
+                if (calDay == -1) {
+                    continue;
+                }
+                final int start = variantsSize;
+                if (Recur.DAILY.equals(frequency)) {
+                    if (dayOfWeek == calDay) {
+                        addVariant(values[i], dateValue);
+                    }
+                }
+                else if (Recur.WEEKLY.equals(frequency)) {
+                    if (weekStartDay == -1) {
+                        return false;
+                    }
+                    // the matching day within the week (commencing on the week start day) containing the date..
+                    final long weekStart = day - floorMod(dayOfWeek - weekStartDay, 7);
+                    addVariant((weekStart + floorMod(calDay - weekStartDay, 7)) * Dates.MILLIS_PER_DAY + time,
+                            dateValue);
+                }
+                else if (Recur.MONTHLY.equals(frequency) || !recur.getMonthList().isEmpty()) {
+                    setDate(day);
+                    final long firstDay = day - dayOfMonth + 1;
+                    addWeekDays(firstDay, firstDay + Dates.getDaysInMonth(year, month), time, calDay, dateValue);
+                }
+                else if (Recur.YEARLY.equals(frequency)) {
+                    setDate(day);
+                    final long firstDay = Dates.getEpochDay(year, 1, 1);
+                    addWeekDays(firstDay, Dates.getEpochDay(year + 1, 1, 1), time, calDay, dateValue);
+                }
+                applyOffset(start, weekDay.getOffset());
+            }
+        }
+        swap();
+        return true;
+    }
+
+    /**
+     * Adds variants for each occurrence of the specified day of the week in the specified range of days.
+     */
+    private void addWeekDays(final long firstDay, final long endDay, final long time, final int calDay,
+            final boolean dateValue) {
+        for (long day = firstDay + floorMod(calDay - getDayOfWeek(firstDay), 7); day < endDay;
+                day += Dates.DAYS_PER_WEEK) {
+            addVariant(day * Dates.MILLIS_PER_DAY + time, dateValue);
+        }
+    }
+
+    /**
+     * Retains only the variant at the specified (one-based) offset of those added since the specified start index.
+     * No variants are retained for an invalid offset, and all are retained for an offset of zero.
+     */
+    private void applyOffset(final int start, final int offset) {
+        if (offset == 0) {
+            return;
+        }
+        final int count = variantsSize - start;
+        if (offset < 0 && offset >= -count) {
+            variants[start] = variants[variantsSize + offset];
+            variantsSize = start + 1;
+        }
+        else if (offset > 0 && offset <= count) {
+            variants[start] = variants[start + offset - 1];
+            variantsSize = start + 1;
+        }
+        else {
+            variantsSize = start;
+        }
+    }
+
+    /**
+     * Applies BYHOUR, BYMINUTE or BYSECOND rules equivalent to setting the corresponding field of a lenient calendar,
+     * such that out of range values are carried into the next larger field for any subsequent values.
+     * @param fieldValues the values of the field to set
+     * @param rangeMillis the length of the next larger field
+     * @param fieldMillis the length of the field
+     */
+    private void applyTimeField(final NumberList fieldValues, final long rangeMillis, final long fieldMillis,
+            final boolean dateValue) {
+        variantsSize = 0;
+        for (int i = 0; i < size; i++) {
+            long current = values[i];
+            for (int j = 0; j < fieldValues.size(); j++) {
+                current = floorDiv(current, rangeMillis) * rangeMillis + fieldValues.get(j).intValue() * fieldMillis
+                        + floorMod(current, fieldMillis);
+                addVariant(current, dateValue);
+            }
+        }
+        swap();
+    }
+
+    /**
+     * Applies BYMONTH rules by rolling the month of the calendar.
+     */
+    private void applyMonths(final Calendar cal) {
+        final NumberList months = recur.getMonthList();
+        variantsSize = 0;
+        for (int i = 0; i < size; i++) {
+            cal.setTimeInMillis(values[i]);
+            for (int j = 0; j < months.size(); j++) {
+                cal.roll(Calendar.MONTH, (months.get(j).intValue() - 1) - cal.get(Calendar.MONTH));
+                addVariant(cal.getTimeInMillis(), false);
+            }
+        }
+        swap();
+    }
+
+    /**
+     * Applies BYMONTHDAY rules by setting the day of month of the calendar in non-lenient mode.
+     * @return false if the rules cannot be applied
+     */
+    private boolean applyMonthDays(final Calendar cal) {
+        final NumberList monthDays = recur.getMonthDayList();
+        variantsSize = 0;
+        cal.setLenient(false);
+        try {
+            for (int i = 0; i < size; i++) {
+                cal.setTimeInMillis(values[i]);
+                for (int j = 0; j < monthDays.size(); j++) {
+                    final int monthDay = monthDays.get(j).intValue();
+                    if (monthDay == 0 || monthDay < -Dates.MAX_DAYS_PER_MONTH
+                            || monthDay > Dates.MAX_DAYS_PER_MONTH) {
+                        continue;
+                    }
+                    try {
+                        final int absMonthDay = getAbsMonthDay(cal.getTimeInMillis(), monthDay);
+                        if (absMonthDay < 1) {
+                            return false;
+                        }
+                        cal.set(Calendar.DAY_OF_MONTH, absMonthDay);
+                        addVariant(cal.getTimeInMillis(), false);
+                    }
+                    catch (IllegalArgumentException iae) {
+                        // invalid day of month, which also applies to any subsequent month days..
+                    }
+                }
+            }
+        }
+        finally {
+            cal.setLenient(true);
+        }
+        swap();
+        return true;
+    }
+
+    /**
+     * Applies BYDAY rules by filtering existing dates (where BYMONTHDAY rules are specified), or by stepping the
+     * calendar through the matching days of the week, month or year in accordance with the frequency.
+     * @return false if the rules cannot be applied
+     */
+    private boolean applyDays(final Calendar cal) {
+        final WeekDayList weekDays = recur.getDayList();
+        final boolean filter = !recur.getMonthDayList().isEmpty();
+        final String frequency = recur.getFrequency();
+        // default week start is Monday per RFC5545
+        int weekStartDay = Calendar.MONDAY;
+        if (!filter && recur.getWeekStartDay() != null) {
+            weekStartDay = WeekDay.getCalendarDay(new WeekDay(recur.getWeekStartDay()));
+            if (weekStartDay == -1) {
+                return false;
+            }
+        }
+        variantsSize = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < weekDays.size(); j++) {
+                final WeekDay weekDay = weekDays.get(j);
+                final int calDay = WeekDay.getCalendarDay(weekDay);
+                if (filter) {
+                    cal.setTimeInMillis(values[i]);
+                    if (weekDay.getOffset() == 0 && calDay == cal.get(Calendar.DAY_OF_WEEK)) {
+                        addVariant(values[i], false);
+                    }
+                    continue;
+                }
+                if (calDay == -1) {
+                    continue;
+                }
+                final int start = variantsSize;
+                cal.setFirstDayOfWeek(weekStartDay);
+                cal.setTimeInMillis(values[i]);
+                if (Recur.DAILY.equals(frequency)) {
+                    if (cal.get(Calendar.DAY_OF_WEEK) == calDay) {
+                        addVariant(cal.getTimeInMillis(), false);
+                    }
+                }
+                else if (Recur.WEEKLY.equals(frequency)) {
+                    final int weekNo = cal.get(Calendar.WEEK_OF_YEAR);
+                    cal.set(Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek());
+                    while (cal.get(Calendar.DAY_OF_WEEK) != calDay) {
+                        cal.add(Calendar.DAY_OF_WEEK, 1);
+                    }
+                    if (cal.get(Calendar.WEEK_OF_YEAR) == weekNo) {
+                        addVariant(cal.getTimeInMillis(), false);
+                    }
+                }
+                else if (Recur.MONTHLY.equals(frequency) || !recur.getMonthList().isEmpty()) {
+                    addWeekDays(cal, Calendar.MONTH, Calendar.DAY_OF_MONTH, calDay);
+                }
+                else if (Recur.YEARLY.equals(frequency)) {
+                    addWeekDays(cal, Calendar.YEAR, Calendar.DAY_OF_YEAR, calDay);
+                }
+                applyOffset(start, weekDay.getOffset());
+            }
+        }
+        cal.setFirstDayOfWeek(calendarFirstDayOfWeek);
+        swap();
+        return true;
+    }
+
+    /**
+     * Adds variants for each occurrence of the specified day of the week in the month or year of the calendar.
+     * @param field the field identifying the period (i.e. month or year)
+     * @param dayField the field identifying the day within the period
+     */
+    private void addWeekDays(final Calendar cal, final int field, final int dayField, final int calDay) {
+        final int period = cal.get(field);
+        cal.set(dayField, 1);
+        while (cal.get(Calendar.DAY_OF_WEEK) != calDay) {
+            cal.add(dayField, 1);
+        }
+        while (cal.get(field) == period) {
+            addVariant(cal.getTimeInMillis(), false);
+            cal.add(dayField, Dates.DAYS_PER_WEEK);
+        }
+    }
+
+    /**
+     * Applies BYHOUR, BYMINUTE or BYSECOND rules by setting the corresponding field of the calendar.
+     */
+    private void applyTimeField(final Calendar cal, final NumberList fieldValues, final int field) {
+        variantsSize = 0;
+        for (int i = 0; i < size; i++) {
+            cal.setTimeInMillis(values[i]);
+            for (int j = 0; j < fieldValues.size(); j++) {
+                cal.set(field, fieldValues.get(j).intValue());
+                addVariant(cal.getTimeInMillis(), false);
+            }
+        }
+        swap();
+    }
+
+    /**
+     * Returns the absolute day of month equivalent to {@link Dates#getAbsMonthDay(java.util.Date, int)}, such that
+     * negative month days are resolved in the default timezone.
+     * @param instant the date to which the month day applies
+     * @param monthDay a valid month day
+     * @return the absolute month day, or a value less than one if the month day precedes the start of the month
+     */
+    private int getAbsMonthDay(final long instant, final int monthDay) {
+        if (monthDay > 0) {
+            return monthDay;
+        }
+        if (defaultTimeZone == null) {
+            defaultTimeZone = TimeZone.getDefault();
+        }
+        setDate(floorDiv(instant + defaultTimeZone.getOffset(instant), Dates.MILLIS_PER_DAY));
+        return Dates.getDaysInMonth(year, month) + monthDay + 1;
+    }
+
+    /**
+     * Applies BYSETPOS rules to the sorted candidates. Invalid positions are ignored.
+     */
+    private void applySetPos() {
+        final NumberList setPosList = recur.getSetPosList();
+        Arrays.sort(values, 0, size);
+        variantsSize = 0;
+        for (int i = 0; i < setPosList.size(); i++) {
+            final int pos = setPosList.get(i).intValue();
+            if (pos > 0 && pos <= size) {
+                addVariant(values[pos - 1], false);
+            }
+            else if (pos < 0 && pos >= -size) {
+                addVariant(values[size + pos], false);
+            }
+        }
+        swap();
+    }
+
+    private void add(final long time) {
+        if (size == values.length) {
+            values = grow(values);
+        }
+        values[size++] = time;
+    }
+
+    /**
+     * Adds a variant of the current candidates, truncated to the start of the day for date values.
+     */
+    private void addVariant(final long time, final boolean dateValue) {
+        if (variantsSize == variants.length) {
+            variants = grow(variants);
+        }
+        if (dateValue) {
+            variants[variantsSize++] = floorDiv(time, Dates.MILLIS_PER_DAY) * Dates.MILLIS_PER_DAY;
+        }
+        else {
+            variants[variantsSize++] = time;
+        }
+    }
+
+    private static long[] grow(final long[] buffer) {
+        final long[] grown = new long[buffer.length * 2];
+        System.arraycopy(buffer, 0, grown, 0, buffer.length);
+        return grown;
+    }
+
+    /**
+     * Replaces the current candidates with the variants.
+     */
+    private void swap() {
+        final long[] tmp = values;
+        values = variants;
+        size = variantsSize;
+        variants = tmp;
+        variantsSize = 0;
+    }
+
+    /**
+     * Sets the year, month and day of month fields from the specified day relative to the epoch.
+     */
+    private void setDate(final long epochDay) {
+        final long shifted = epochDay + 719468;
+        final long era = floorDiv(shifted, 146097);
+        final long dayOfEra = shifted - era * 146097;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long monthIndex = (5 * dayOfYear + 2) / 153;
+        dayOfMonth = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+    }
+
+    /**
+     * @return the <code>java.util.Calendar</code> day of the week for the specified day relative to the epoch
+     */
+    private static int getDayOfWeek(final long epochDay) {
+        // the epoch is a thursday..
+        return (int) floorMod(epochDay + 4, 7) + Calendar.SUNDAY;
+    }
+
+    private static long floorDiv(final long x, final long y) {
+        final long q = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+    }
+
+    private static long floorMod(final long x, final long y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
@@ -0,0 +1,464 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.fortuna.ical4j.model.parameter.Value;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <pre>
+ * $Id$
+ *
+ * Created on 17/10/2026
+ * </pre>
+ *
+ * A cache of recurrence rule expansions used when calculating the recurrence sets of components. Expansions are
+ * retained per component (by identity) and recurrence rule, together with the range of dates expanded. When a
+ * recurrence set is subsequently calculated for a period not (fully) included in the expanded range, only the
+ * additional dates are expanded, and the expanded range extended accordingly.
+ * 
+ * Cached expansions of a component are discarded when the component's property list is modified (i.e. properties
+ * are added, removed or replaced), or where the start date of the component has changed. Modifications to the values
+ * of existing recurrence rules (e.g. via {@link Recur#setCount(int)}) are not detected, and require the component to
+ * be explicitly invalidated via {@link #invalidate(Component)}.
+ * 
+ * Memory use is bounded by both the number of components and the total number of dates retained, where the least
+ * recently used components are evicted first. Cache hits, misses, extensions and evictions are counted to assist
+ * with tuning these limits.
+ * 
+ * Instances are thread-safe.
+ * 
+ * <pre>
+ * RecurrenceSetCache cache = new RecurrenceSetCache();
+ * PeriodList recurrenceSet = event.calculateRecurrenceSet(period, cache);
+ * </pre>
+ * @see Component#calculateRecurrenceSet(Period, RecurrenceSetCache)
+ * @author Ben Fortuna
+ */
+public class RecurrenceSetCache {
+
+    /**
+     * The default maximum number of components for which expansions are retained.
+     */
+    public static final int DEFAULT_MAX_COMPONENTS = 1000;
+
+    /**
+     * The default maximum number of dates retained for all components.
+     */
+    public static final int DEFAULT_MAX_DATES = 100000;
+
+    private final Log log = LogFactory.getLog(RecurrenceSetCache.class);
+
+    private final int maxComponents;
+
+    private final int maxDates;
+
+    private final Map<ComponentKey, Entry> entries;
+
+    private int dateCount;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long extensionCount;
+
+    private long evictionCount;
+
+    private long invalidationCount;
+
+    /**
+     * Creates a new cache with the default limits.
+     */
+    public RecurrenceSetCache() {
+        this(DEFAULT_MAX_COMPONENTS, DEFAULT_MAX_DATES);
+    }
+
+    /**
+     * @param maxComponents the maximum number of components for which expansions are retained
+     * @param maxDates the maximum number of dates retained for all components
+     */
+    public RecurrenceSetCache(final int maxComponents, final int maxDates) {
+        if (maxComponents < 1 || maxDates < 1) {
+            throw new IllegalArgumentException("Cache limits must be greater than zero");
+        }
+        this.maxComponents = maxComponents;
+        this.maxDates = maxDates;
+        // access order for least recently used eviction..
+        this.entries = new LinkedHashMap<ComponentKey, Entry>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the dates of the specified recurrence rule in the specified period, as per
+     * {@link Recur#getDates(Date, Date, Date, Value)}, expanding only those dates not already cached.
+     * @param component the component containing the recurrence rule
+     * @param recur a recurrence rule of the component
+     * @param seed the start date of the component
+     * @param periodStart the start of the period
+     * @param periodEnd the end of the period
+     * @param value the type of dates to generate
+     * @return a list of dates
+     */
+    final DateList getDates(final Component component, final Recur recur, final Date seed,
+            final Date periodStart, final Date periodEnd, final Value value) {
+
+        final Entry entry = getEntry(component);
+        final DateList dates;
+        final int added;
+        synchronized (entry) {
+            Expansion expansion = entry.expansions.get(recur);
+            if (expansion != null && !expansion.matches(seed, value)) {
+                added = -expansion.dates.size();
+                expansion = null;
+            }
+            else {
+                added = 0;
+            }
+            if (expansion == null) {
+                expansion = new Expansion(seed, value);
+                entry.expansions.put(recur, expansion);
+            }
+            final int expanded = expansion.expand(recur, seed, periodStart, periodEnd);
+            dates = expansion.getDates(seed, periodStart.getTime(), periodEnd.getTime());
+            update(component, entry, added + expanded, expansion.status);
+        }
+        return dates;
+    }
+
+    /**
+     * Discards any cached expansions for the specified component.
+     * @param component a component
+     */
+    public final synchronized void invalidate(final Component component) {
+        final Entry entry = entries.remove(new ComponentKey(component));
+        if (entry != null) {
+            dateCount -= entry.dateCount;
+            invalidationCount++;
+        }
+    }
+
+    /**
+     * Discards all cached expansions.
+     */
+    public final synchronized void clear() {
+        entries.clear();
+        dateCount = 0;
+    }
+
+    /**
+     * @return the number of components for which expansions are cached
+     */
+    public final synchronized int getComponentCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total number of dates cached
+     */
+    public final synchronized int getDateCount() {
+        return dateCount;
+    }
+
+    /**
+     * @return the number of expansions satisfied entirely by cached dates
+     */
+    public final synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of expansions calculated without any cached dates
+     */
+    public final synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of expansions satisfied by extending previously cached dates
+     */
+    public final synchronized long getExtensionCount() {
+        return extensionCount;
+    }
+
+    /**
+     * @return the number of components evicted to maintain the cache limits
+     */
+    public final synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of components invalidated, either explicitly or due to modification
+     */
+    public final synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final synchronized String toString() {
+        return "RecurrenceSetCache[components=" + entries.size() + ", dates=" + dateCount + ", hits=" + hitCount
+                + ", misses=" + missCount + ", extensions=" + extensionCount + ", evictions=" + evictionCount
+                + ", invalidations=" + invalidationCount + "]";
+    }
+
+    /**
+     * Returns a current cache entry for the specified component, replacing any entry invalidated by modification of
+     * the component.
+     */
+    private synchronized Entry getEntry(final Component component) {
+        final ComponentKey key = new ComponentKey(component);
+        final int version = component.getProperties().getModificationCount();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version != version) {
+            dateCount -= entry.dateCount;
+            invalidationCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            entry = new Entry(version);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Updates statistics and enforces limits following an expansion.
+     */
+    private synchronized void update(final Component component, final Entry entry, final int added,
+            final int status) {
+
+        if (status == Expansion.HIT) {
+            hitCount++;
+        }
+        else if (status == Expansion.MISS) {
+            missCount++;
+        }
+        else {
+            extensionCount++;
+        }
+        // don't account for entries that have since been discarded..
+        if (entries.get(new ComponentKey(component)) != entry) {
+            return;
+        }
+        entry.dateCount += added;
+        dateCount += added;
+        for (final Iterator<Entry> i = entries.values().iterator(); i.hasNext()
+                && (entries.size() > maxComponents || dateCount > maxDates);) {
+            final Entry eldest = i.next();
+            i.remove();
+            dateCount -= eldest.dateCount;
+            evictionCount++;
+        }
+        if (log.isDebugEnabled() && status != Expansion.HIT) {
+            log.debug("Recurrence expansion cached: " + this);
+        }
+    }
+
+    /**
+     * Identifies a component by identity, as component equality is determined by (mutable) content.
+     */
+    private static class ComponentKey {
+
+        private final Component component;
+
+        public ComponentKey(final Component component) {
+            this.component = component;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean equals(final Object arg0) {
+            return arg0 instanceof ComponentKey && ((ComponentKey) arg0).component == component;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int hashCode() {
+            return System.identityHashCode(component);
+        }
+    }
+
+    /**
+     * Cached expansions for a single version of a component.
+     */
+    private static class Entry {
+
+        private final int version;
+
+        private final Map<Recur, Expansion> expansions = new IdentityHashMap<Recur, Expansion>();
+
+        private int dateCount;
+
+        public Entry(final int version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * The sorted dates of a recurrence rule in a contiguous range.
+     */
+    private static class Expansion {
+
+        private static final int HIT = 0;
+
+        private static final int MISS = 1;
+
+        private static final int EXTENSION = 2;
+
+        private final long seedTime;
+
+        private final Class<?> seedType;
+
+        private final boolean seedUtc;
+
+        private final TimeZone seedTimeZone;
+
+        private final Value value;
+
+        private List<Date> dates = new ArrayList<Date>();
+
+        private long start;
+
+        private long end;
+
+        private boolean expanded;
+
+        private int status;
+
+        public Expansion(final Date seed, final Value value) {
+            this.seedTime = seed.getTime();
+            this.seedType = seed.getClass();
+            if (seed instanceof DateTime) {
+                seedUtc = ((DateTime) seed).isUtc();
+                seedTimeZone = ((DateTime) seed).getTimeZone();
+            }
+            else {
+                seedUtc = false;
+                seedTimeZone = null;
+            }
+            this.value = value;
+        }
+
+        /**
+         * @return true if this expansion is applicable to the specified seed date and value type
+         */
+        public boolean matches(final Date seed, final Value value) {
+            if (seed.getTime() != seedTime || seed.getClass() != seedType || !ObjectUtils.equals(this.value, value)) {
+                return false;
+            }
+            if (seed instanceof DateTime) {
+                return ((DateTime) seed).isUtc() == seedUtc && ((DateTime) seed).getTimeZone() == seedTimeZone;
+            }
+            return true;
+        }
+
+        /**
+         * Expands the specified recurrence such that this expansion includes the specified range.
+         * @return the number of dates added
+         */
+        public int expand(final Recur recur, final Date seed, final Date periodStart, final Date periodEnd) {
+            final int size = dates.size();
+            // a disjoint range is expanded in place of any existing range..
+            if (!expanded || periodEnd.getTime() < start || periodStart.getTime() > end) {
+                status = MISS;
+                dates = new ArrayList<Date>(recur.getDates(seed, periodStart, periodEnd, value));
+                start = periodStart.getTime();
+                end = periodEnd.getTime();
+                expanded = true;
+                return dates.size() - size;
+            }
+            status = HIT;
+            if (periodStart.getTime() < start) {
+                status = EXTENSION;
+                dates.addAll(0, recur.getDates(seed, periodStart, new DateTime(start), value));
+                start = periodStart.getTime();
+            }
+            if (periodEnd.getTime() > end) {
+                status = EXTENSION;
+                dates.addAll(recur.getDates(seed, new DateTime(end), periodEnd, value));
+                end = periodEnd.getTime();
+            }
+            return dates.size() - size;
+        }
+
+        /**
+         * @return a new list of the dates in the specified range
+         */
+        public DateList getDates(final Date seed, final long periodStart, final long periodEnd) {
+            final DateList list = new DateList(value);
+            if (seed instanceof DateTime) {
+                if (((DateTime) seed).isUtc()) {
+                    list.setUtc(true);
+                }
+                else {
+                    list.setTimeZone(((DateTime) seed).getTimeZone());
+                }
+            }
+            for (int i = indexOf(periodStart); i < dates.size() && dates.get(i).getTime() < periodEnd; i++) {
+                list.add(dates.get(i));
+            }
+            return list;
+        }
+
+        /**
+         * @return the index of the first date not before the specified time
+         */
+        private int indexOf(final long time) {
+            int low = 0;
+            int high = dates.size();
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (dates.get(mid).getTime() < time) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -31,6 +31,7 @@
  */
 package net.fortuna.ical4j.model;
 
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -40,6 +41,7 @@ import net.fortuna.ical4j.model.component.Observance;
 import net.fortuna.ical4j.model.component.VTimeZone;
 import net.fortuna.ical4j.model.property.TzId;
 import net.fortuna.ical4j.model.property.TzOffsetTo;
+import net.fortuna.ical4j.util.Dates;
 
 /**
  * $Id$
@@ -54,9 +56,16 @@ public class TimeZone extends java.util.TimeZone {
     
     private static final long serialVersionUID = -5620979316746547234L;
     
+    /**
+     * The period (approx. ten years) for which transitions are calculated in advance of the latest date queried.
+     */
+    private static final long TRANSITION_HORIZON = 3653L * 24 * 60 * 60 * 1000;
+
     private final VTimeZone vTimeZone;
     private final int rawOffset;
     
+    private transient volatile Transitions transitions;
+    
     /**
      * Constructs a new instance based on the specified VTimeZone.
      * @param vTimeZone a VTIMEZONE object instance
@@ -81,18 +90,17 @@ public class TimeZone extends java.util.TimeZone {
         cal.set(Calendar.DAY_OF_YEAR, day);
         cal.set(Calendar.DAY_OF_WEEK, dayOfWeek);
         cal.set(Calendar.MILLISECOND, milliseconds);
-        final Observance observance = vTimeZone.getApplicableObservance(new DateTime(cal.getTime()));
-        if (observance != null) {
-            final TzOffsetTo offset = (TzOffsetTo) observance.getProperty(Property.TZOFFSETTO);
-            return (int) offset.getOffset().getOffset();
-        }
-        return 0;
+        return getOffset(cal.getTimeInMillis());
     }
 
     /**
      * {@inheritDoc}
      */
     public int getOffset(long date) {
+        final Transitions transitions = getTransitions(date);
+        if (transitions.supported) {
+            return transitions.getOffset(date);
+        }
         final Observance observance = vTimeZone.getApplicableObservance(new DateTime(date));
         if (observance != null) {
             final TzOffsetTo offset = (TzOffsetTo) observance.getProperty(Property.TZOFFSETTO);
@@ -101,6 +109,26 @@ public class TimeZone extends java.util.TimeZone {
         return 0;
     }
 
+    /**
+     * Returns the offset from UTC applicable to the specified local time. Local times are resolved consistent with
+     * {@link java.util.GregorianCalendar}, such that daylight savings apply where the corresponding standard time is
+     * in daylight time.
+     * @param localTime the number of milliseconds since the epoch in local time
+     * @return the offset from UTC in milliseconds
+     */
+    final int getLocalOffset(final long localTime) {
+        final long standardTime = localTime - rawOffset;
+        final Transitions transitions = getTransitions(standardTime);
+        final boolean daylight;
+        if (transitions.supported) {
+            daylight = transitions.inDaylightTime(standardTime);
+        }
+        else {
+            daylight = inDaylightTime(new Date(standardTime));
+        }
+        return daylight ? rawOffset + getDSTSavings() : rawOffset;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -117,6 +145,10 @@ public class TimeZone extends java.util.TimeZone {
      * @return true if the specified date is in daylight time, otherwise false
      */
     public final boolean inDaylightTime(final Date date) {
+        final Transitions transitions = getTransitions(date.getTime());
+        if (transitions.supported) {
+            return transitions.inDaylightTime(date.getTime());
+        }
         final Observance observance = vTimeZone.getApplicableObservance(new DateTime(date));
         return (observance != null && observance instanceof Daylight);
     }
@@ -143,6 +175,23 @@ public class TimeZone extends java.util.TimeZone {
         return vTimeZone;
     }
 
+    /**
+     * Returns the transitions of the underlying VTimeZone applicable to the specified instant, compiling the
+     * transitions where the VTimeZone has changed or the instant is beyond the current transition horizon.
+     * @param instant the instant for which transitions are required
+     * @return a transitions instance covering the specified instant
+     */
+    private Transitions getTransitions(final long instant) {
+        Transitions current = transitions;
+        if (current == null || instant >= current.horizon || !current.isCurrent(vTimeZone.getObservances())) {
+            long horizon = Math.max(instant, System.currentTimeMillis());
+            horizon = horizon > Long.MAX_VALUE - TRANSITION_HORIZON ? Long.MAX_VALUE : horizon + TRANSITION_HORIZON;
+            current = new Transitions(vTimeZone.getObservances(), horizon);
+            transitions = current;
+        }
+        return current;
+    }
+
 	private static final int getRawOffset(VTimeZone vt) {
 		ComponentList<Observance> seasonalTimes = vt.getObservances().getComponents(Observance.STANDARD);
         // if no standard time use daylight time..
@@ -159,4 +208,197 @@ public class TimeZone extends java.util.TimeZone {
         }
         return 0;
     }
+
+    /**
+     * An immutable table of the transitions defined by a list of observances, being the (UTC) instants at which the
+     * applicable observance changes, along with the offset and daylight status in effect from each instant. The
+     * table is accurate for all instants prior to the horizon, and records the version of the observances from
+     * which it was compiled so that changes may be detected.
+     */
+    private static final class Transitions {
+
+        private final long horizon;
+
+        private final boolean supported;
+
+        private final int observanceCount;
+
+        private final int version;
+
+        private final int[] observanceVersions;
+
+        private final long[] instants;
+
+        private final int[] offsets;
+
+        private final boolean[] daylight;
+
+        private final int initialOffset;
+
+        private final boolean initialDaylight;
+
+        private Transitions(final ComponentList<Observance> observances, final long horizon) {
+            this.horizon = horizon;
+            this.observanceCount = observances.size();
+            this.version = observances.getModificationCount();
+            this.observanceVersions = new int[observanceCount];
+            for (int i = 0; i < observanceCount; i++) {
+                observanceVersions[i] = observances.get(i).getProperties().getModificationCount();
+            }
+
+            final int[] observanceOffsets = new int[observanceCount];
+            final long[][] observanceOnsets = new long[observanceCount][];
+            boolean supported = true;
+            int onsetCount = 0;
+            for (int i = 0; i < observanceCount && supported; i++) {
+                final Observance observance = observances.get(i);
+                final TzOffsetTo offsetTo = (TzOffsetTo) observance.getProperty(Property.TZOFFSETTO);
+                if (offsetTo == null || offsetTo.getOffset() == null) {
+                    supported = false;
+                }
+                else {
+                    observanceOffsets[i] = (int) offsetTo.getOffset().getOffset();
+                    observanceOnsets[i] = getOnsets(observance, horizon);
+                    onsetCount += observanceOnsets[i].length;
+                }
+            }
+            this.supported = supported;
+
+            if (!supported) {
+                instants = new long[0];
+                offsets = new int[0];
+                daylight = new boolean[0];
+                initialOffset = 0;
+                initialDaylight = false;
+                return;
+            }
+
+            // prior to all onsets the last observance applies..
+            if (observanceCount > 0) {
+                initialOffset = observanceOffsets[observanceCount - 1];
+                initialDaylight = observances.get(observanceCount - 1) instanceof Daylight;
+            }
+            else {
+                initialOffset = 0;
+                initialDaylight = false;
+            }
+
+            final long[] candidates = new long[onsetCount];
+            int candidateCount = 0;
+            for (int i = 0; i < observanceCount; i++) {
+                System.arraycopy(observanceOnsets[i], 0, candidates, candidateCount, observanceOnsets[i].length);
+                candidateCount += observanceOnsets[i].length;
+            }
+            Arrays.sort(candidates);
+
+            final long[] instants = new long[candidateCount];
+            final int[] offsets = new int[candidateCount];
+            final boolean[] daylight = new boolean[candidateCount];
+            final int[] positions = new int[observanceCount];
+            int count = 0;
+            int lastOffset = initialOffset;
+            boolean lastDaylight = initialDaylight;
+            for (int c = 0; c < candidateCount; c++) {
+                final long instant = candidates[c];
+                if (c > 0 && instant == candidates[c - 1]) {
+                    continue;
+                }
+                // apply the same precedence as VTimeZone.getApplicableObservance()..
+                int applicable = -1;
+                long latestOnset = 0;
+                boolean hasLatestOnset = false;
+                for (int i = 0; i < observanceCount; i++) {
+                    final long[] onsets = observanceOnsets[i];
+                    while (positions[i] < onsets.length && onsets[positions[i]] <= instant) {
+                        positions[i]++;
+                    }
+                    final boolean hasOnset = positions[i] > 0;
+                    final long onset = hasOnset ? onsets[positions[i] - 1] : 0;
+                    if (!hasLatestOnset || (hasOnset && onset > latestOnset)) {
+                        applicable = i;
+                        latestOnset = onset;
+                        hasLatestOnset = hasOnset;
+                    }
+                }
+                final int offset = observanceOffsets[applicable];
+                final boolean isDaylight = observances.get(applicable) instanceof Daylight;
+                if (offset != lastOffset || isDaylight != lastDaylight) {
+                    instants[count] = instant;
+                    offsets[count] = offset;
+                    daylight[count] = isDaylight;
+                    lastOffset = offset;
+                    lastDaylight = isDaylight;
+                    count++;
+                }
+            }
+            this.instants = trim(instants, count);
+            this.offsets = new int[count];
+            System.arraycopy(offsets, 0, this.offsets, 0, count);
+            this.daylight = new boolean[count];
+            System.arraycopy(daylight, 0, this.daylight, 0, count);
+        }
+
+        /**
+         * @return the onsets of the specified observance prior to the horizon, in ascending order
+         */
+        private static long[] getOnsets(final Observance observance, final long horizon) {
+            // extend the limit to allow for onsets offset from local time..
+            final long limit = horizon > Long.MAX_VALUE - Dates.MILLIS_PER_DAY ? horizon
+                    : horizon + Dates.MILLIS_PER_DAY;
+            final DateList onsets = observance.getOnsets(new DateTime(limit));
+            if (onsets == null) {
+                return new long[0];
+            }
+            final long[] instants = new long[onsets.size()];
+            int count = 0;
+            for (final Date onset : onsets) {
+                if (onset.getTime() < horizon) {
+                    instants[count++] = onset.getTime();
+                }
+            }
+            return trim(instants, count);
+        }
+
+        private static long[] trim(final long[] values, final int length) {
+            if (values.length == length) {
+                return values;
+            }
+            final long[] trimmed = new long[length];
+            System.arraycopy(values, 0, trimmed, 0, length);
+            return trimmed;
+        }
+
+        /**
+         * @return true if the specified observances are unchanged since this table was compiled
+         */
+        private boolean isCurrent(final ComponentList<Observance> observances) {
+            if (observances.getModificationCount() != version || observances.size() != observanceCount) {
+                return false;
+            }
+            for (int i = 0; i < observanceCount; i++) {
+                if (observances.get(i).getProperties().getModificationCount() != observanceVersions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(final long instant) {
+            int index = Arrays.binarySearch(instants, instant);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index;
+        }
+
+        private int getOffset(final long instant) {
+            final int index = indexOf(instant);
+            return index < 0 ? initialOffset : offsets[index];
+        }
+
+        private boolean inDaylightTime(final long instant) {
+            final int index = indexOf(instant);
+            return index < 0 ? initialDaylight : daylight[index];
+        }
+    }
 }
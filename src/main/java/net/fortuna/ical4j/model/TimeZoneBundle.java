@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.component.Observance;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.Constants;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * A pre-compiled bundle of VTimeZone definitions. Definitions are stored in an indexed binary form, such that
+ * individual timezones are loaded on demand from the property names, parameters and values of the definition
+ * without parsing iCalendar data.
+ * 
+ * A bundle may be compiled from a directory of VTimeZone definitions (such as the default "zoneinfo" resources) as
+ * follows, where timezone identifiers are derived from the path of each definition relative to the directory:
+ * 
+ * <pre>
+ * java net.fortuna.ical4j.model.TimeZoneBundle src/main/resources/zoneinfo target/classes/zoneinfo/tz.bundle
+ * </pre>
+ * @author Ben Fortuna
+ */
+public final class TimeZoneBundle {
+
+    private static final int MAGIC = 0x69547A42;
+
+    private static final int VERSION = 1;
+
+    private static final String ICS_SUFFIX = ".ics";
+
+    private final Map<String, Integer> offsets;
+
+    private final byte[] data;
+
+    /**
+     * Reads a bundle from the specified stream.
+     * @param in an input stream from which to read a compiled bundle
+     * @throws IOException where an error occurs reading the bundle, or the stream is not a compiled bundle
+     */
+    public TimeZoneBundle(final InputStream in) throws IOException {
+        final DataInputStream din = new DataInputStream(in);
+        if (din.readInt() != MAGIC) {
+            throw new IOException("Invalid timezone bundle");
+        }
+        else if (din.readInt() != VERSION) {
+            throw new IOException("Unsupported timezone bundle version");
+        }
+        final int count = din.readInt();
+        offsets = new HashMap<String, Integer>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            final String id = din.readUTF();
+            offsets.put(id, din.readInt());
+        }
+        data = new byte[din.readInt()];
+        din.readFully(data);
+    }
+
+    /**
+     * @return the identifiers of all timezones included in the bundle
+     */
+    public Set<String> getIds() {
+        return Collections.unmodifiableSet(offsets.keySet());
+    }
+
+    /**
+     * Returns a new VTimeZone instance for the specified timezone.
+     * @param id a timezone identifier
+     * @return a VTimeZone definition, or null if the timezone is not included in the bundle
+     * @throws IOException where an error occurs reading the definition
+     * @throws URISyntaxException where the definition contains an invalid URI
+     * @throws ParseException where a property value of the definition is invalid
+     */
+    public VTimeZone getVTimeZone(final String id) throws IOException, URISyntaxException, ParseException {
+        final Integer offset = offsets.get(id);
+        if (offset == null) {
+            return null;
+        }
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset.intValue(),
+                data.length - offset.intValue()));
+        return (VTimeZone) readComponent(in);
+    }
+
+    private static Component readComponent(final DataInputStream in) throws IOException, URISyntaxException,
+            ParseException {
+
+        final String name = in.readUTF();
+        final PropertyList properties = new PropertyList();
+        for (int i = in.readInt(); i > 0; i--) {
+            final String propertyName = in.readUTF();
+            final ParameterList parameters = new ParameterList();
+            for (int j = in.readInt(); j > 0; j--) {
+                final String parameterName = in.readUTF();
+                parameters.add(ParameterFactoryImpl.getInstance().createParameter(parameterName, in.readUTF()));
+            }
+            properties.add(Constants.forProperty(PropertyFactoryImpl.getInstance().createProperty(propertyName,
+                    parameters, in.readUTF())));
+        }
+        final int componentCount = in.readInt();
+        if (Component.VTIMEZONE.equals(name)) {
+            final ComponentList<Observance> observances = new ComponentList<Observance>();
+            for (int i = 0; i < componentCount; i++) {
+                observances.add((Observance) readComponent(in));
+            }
+            return new VTimeZone(properties, observances);
+        }
+        return ComponentFactory.getInstance().createComponent(name, properties);
+    }
+
+    /**
+     * Writes a compiled bundle of the specified VTimeZone definitions.
+     * @param vTimeZones the definitions to include in the bundle, keyed by timezone identifier
+     * @param out an output stream to which the bundle is written
+     * @throws IOException where an error occurs writing the bundle
+     */
+    public static void write(final Map<String, VTimeZone> vTimeZones, final OutputStream out) throws IOException {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final DataOutputStream dataOut = new DataOutputStream(data);
+        final Map<String, Integer> offsets = new TreeMap<String, Integer>();
+        for (final Iterator<Map.Entry<String, VTimeZone>> i = vTimeZones.entrySet().iterator(); i.hasNext();) {
+            final Map.Entry<String, VTimeZone> entry = i.next();
+            offsets.put(entry.getKey(), dataOut.size());
+            writeComponent(entry.getValue(), dataOut);
+        }
+        dataOut.flush();
+
+        final DataOutputStream dout = new DataOutputStream(out);
+        dout.writeInt(MAGIC);
+        dout.writeInt(VERSION);
+        dout.writeInt(offsets.size());
+        for (final Iterator<Map.Entry<String, Integer>> i = offsets.entrySet().iterator(); i.hasNext();) {
+            final Map.Entry<String, Integer> entry = i.next();
+            dout.writeUTF(entry.getKey());
+            dout.writeInt(entry.getValue());
+        }
+        dout.writeInt(data.size());
+        data.writeTo(dout);
+        dout.flush();
+    }
+
+    private static void writeComponent(final Component component, final DataOutputStream out) throws IOException {
+        out.writeUTF(component.getName());
+        out.writeInt(component.getProperties().size());
+        for (final Property property : component.getProperties()) {
+            out.writeUTF(property.getName());
+            out.writeInt(property.getParameters().size());
+            for (final Iterator<Parameter> i = property.getParameters().iterator(); i.hasNext();) {
+                final Parameter parameter = i.next();
+                out.writeUTF(parameter.getName());
+                out.writeUTF(parameter.getValue());
+            }
+            out.writeUTF(property.getValue());
+        }
+        if (component instanceof VTimeZone) {
+            final ComponentList<Observance> observances = ((VTimeZone) component).getObservances();
+            out.writeInt(observances.size());
+            for (final Observance observance : observances) {
+                writeComponent(observance, out);
+            }
+        }
+        else {
+            out.writeInt(0);
+        }
+    }
+
+    /**
+     * Compiles a bundle from a directory of VTimeZone definitions.
+     * @param args the source directory and the bundle file to create
+     * @throws IOException where an error occurs reading the definitions or writing the bundle
+     * @throws ParserException where a definition is invalid
+     */
+    public static void main(final String[] args) throws IOException, ParserException {
+        if (args.length != 2) {
+            System.err.println("Usage: TimeZoneBundle <source directory> <bundle file>");
+            return;
+        }
+        final Map<String, VTimeZone> vTimeZones = new TreeMap<String, VTimeZone>();
+        addVTimeZones(new File(args[0]), "", vTimeZones);
+
+        final File bundle = new File(args[1]);
+        if (bundle.getParentFile() != null) {
+            bundle.getParentFile().mkdirs();
+        }
+        final OutputStream out = new FileOutputStream(bundle);
+        try {
+            write(vTimeZones, out);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private static void addVTimeZones(final File dir, final String prefix, final Map<String, VTimeZone> vTimeZones)
+            throws IOException, ParserException {
+
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException("Invalid directory: " + dir);
+        }
+        for (int i = 0; i < files.length; i++) {
+            if (files[i].isDirectory()) {
+                addVTimeZones(files[i], prefix + files[i].getName() + "/", vTimeZones);
+            }
+            else if (files[i].getName().endsWith(ICS_SUFFIX)) {
+                final InputStream in = new FileInputStream(files[i]);
+                try {
+                    final Calendar calendar = new CalendarBuilder().build(in);
+                    final VTimeZone vTimeZone = (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
+                    if (vTimeZone != null) {
+                        final String name = files[i].getName();
+                        vTimeZones.put(prefix + name.substring(0, name.length() - ICS_SUFFIX.length()), vTimeZone);
+                    }
+                }
+                finally {
+                    in.close();
+                }
+            }
+        }
+    }
+}
@@ -32,17 +32,24 @@
 package net.fortuna.ical4j.model;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.fortuna.ical4j.data.CalendarBuilder;
-import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.component.VTimeZone;
-import net.fortuna.ical4j.model.property.TzUrl;
 import net.fortuna.ical4j.util.CompatibilityHints;
 import net.fortuna.ical4j.util.Configurator;
 import net.fortuna.ical4j.util.ResourceLoader;
@@ -56,7 +63,10 @@ import org.apache.commons.logging.LogFactory;
  * Created on 18/09/2005
  *
  * The default implementation of a <code>TimeZoneRegistry</code>. This implementation will search the classpath for
- * applicable VTimeZone definitions used to back the provided TimeZone instances.
+ * applicable VTimeZone definitions used to back the provided TimeZone instances. Where a compiled
+ * {@link TimeZoneBundle} (named "tz.bundle") is found with the resource prefix, definitions are loaded from the
+ * bundle in preference to individual VTimeZone resources. Updates to the default definitions are requested
+ * from a {@link TimeZoneUpdater}, with timezones backed by the default definitions until an update is available.
  * @author Ben Fortuna
  */
 public class TimeZoneRegistryImpl implements TimeZoneRegistry {
@@ -67,23 +77,47 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
     
     private static final String UPDATE_ENABLED = "net.fortuna.ical4j.timezone.update.enabled";
 
-    private static final Map<String, TimeZone> DEFAULT_TIMEZONES = new ConcurrentHashMap<String, TimeZone>();
+    private static final String BUNDLE_RESOURCE = "tz.bundle";
 
-    private static final Properties ALIASES = new Properties();
+    /**
+     * Default timezones keyed by resource prefix and timezone identifier. Timezones are replaced where an updated
+     * definition is available.
+     */
+    private static final ConcurrentMap<String, Future<AtomicReference<TimeZone>>> DEFAULT_TIMEZONES =
+        new ConcurrentHashMap<String, Future<AtomicReference<TimeZone>>>();
+
+    /**
+     * Compiled timezone bundles keyed by resource prefix.
+     */
+    private static final ConcurrentMap<String, Future<TimeZoneBundle>> BUNDLES =
+        new ConcurrentHashMap<String, Future<TimeZoneBundle>>();
+
+    /**
+     * Timezone aliases, copied from the alias properties to avoid synchronized lookups.
+     */
+    private static final Map<String, String> ALIASES;
     static {
+        final Properties aliases = new Properties();
         try {
-            ALIASES.load(ResourceLoader.getResourceAsStream("net/fortuna/ical4j/model/tz.alias"));
+            aliases.load(ResourceLoader.getResourceAsStream("net/fortuna/ical4j/model/tz.alias"));
         }
         catch (IOException ioe) {
             LogFactory.getLog(TimeZoneRegistryImpl.class).warn(
                     "Error loading timezone aliases: " + ioe.getMessage());
         }
+        final Map<String, String> aliasMap = new HashMap<String, String>();
+        for (final Map.Entry<Object, Object> alias : aliases.entrySet()) {
+            aliasMap.put((String) alias.getKey(), (String) alias.getValue());
+        }
+        ALIASES = Collections.unmodifiableMap(aliasMap);
     }
 
-    private Map<String, TimeZone> timezones;
+    private ConcurrentMap<String, TimeZone> timezones;
 
     private String resourcePrefix;
 
+    private final TimeZoneUpdater updater;
+
     /**
      * Default constructor.
      */
@@ -96,7 +130,19 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
      * @param resourcePrefix a prefix prepended to classpath resource lookups for default timezones
      */
     public TimeZoneRegistryImpl(final String resourcePrefix) {
+        this(resourcePrefix, TimeZoneUpdater.getInstance());
+    }
+
+    /**
+     * Creates a new instance using the specified resource prefix and updater. Note that default timezones are shared
+     * by all instances with the same resource prefix, and so are updated by the updater of the instance that first
+     * loads a timezone.
+     * @param resourcePrefix a prefix prepended to classpath resource lookups for default timezones
+     * @param updater provides updates to timezone definitions
+     */
+    public TimeZoneRegistryImpl(final String resourcePrefix, final TimeZoneUpdater updater) {
         this.resourcePrefix = resourcePrefix;
+        this.updater = updater;
         timezones = new ConcurrentHashMap<String, TimeZone>();
     }
 
@@ -112,12 +158,15 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
      * {@inheritDoc}
      */
     public final void register(final TimeZone timezone, boolean update) {
+        timezones.put(timezone.getID(), timezone);
     	if (update) {
             // load any available updates for the timezone..
-            timezones.put(timezone.getID(), new TimeZone(updateDefinition(timezone.getVTimeZone())));
-    	}
-    	else {
-            timezones.put(timezone.getID(), timezone);
+            updater.update(timezone.getVTimeZone(), new TimeZoneUpdater.Callback() {
+                public void updated(final VTimeZone vTimeZone) {
+                    // replace only where the timezone hasn't been registered again since..
+                    timezones.replace(timezone.getID(), timezone, new TimeZone(vTimeZone));
+                }
+            });
     	}
     }
 
@@ -138,40 +187,38 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
     	
         TimeZone timezone = timezones.get(id);
         if (timezone == null) {
-            timezone = DEFAULT_TIMEZONES.get(id);
-            if (timezone == null) {
-                // if timezone not found with identifier, try loading an alias..
-                final String alias = ALIASES.getProperty(id);
-                if (alias != null) {
-                    return getTimeZone(alias);
-                }
-                else {
-                    synchronized (DEFAULT_TIMEZONES) {
-                    	// check again as it may be loaded now..
-                    	timezone = DEFAULT_TIMEZONES.get(id);
-                    	if (timezone == null) {
-                            try {
-                                final VTimeZone vTimeZone = loadVTimeZone(id);
-                                if (vTimeZone != null) {
-                                    // XXX: temporary kludge..
-                                    // ((TzId) vTimeZone.getProperties().getProperty(Property.TZID)).setValue(id);
-                                    timezone = new TimeZone(vTimeZone);
-                                    DEFAULT_TIMEZONES.put(timezone.getID(), timezone);
-                                }
-                                else if (CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)) {
-                                    // strip global part of id and match on default tz..
-                                    Matcher matcher = TZ_ID_SUFFIX.matcher(id);
-                                    if (matcher.find()) {
-                                        return getTimeZone(matcher.group());
-                                    }
-                                }
-                            }
-                            catch (Exception e) {
-                                Log log = LogFactory.getLog(TimeZoneRegistryImpl.class);
-                                log.warn("Error occurred loading VTimeZone", e);
+            // if timezone not found with identifier, try loading an alias..
+            final String alias = ALIASES.get(id);
+            if (alias != null) {
+                return getTimeZone(alias);
+            }
+            else {
+                try {
+                    // timezones are loaded once only, without blocking requests for other timezones..
+                    final AtomicReference<TimeZone> defaultTimezone = load(DEFAULT_TIMEZONES, resourcePrefix + id,
+                            new Callable<AtomicReference<TimeZone>>() {
+                        public AtomicReference<TimeZone> call() throws Exception {
+                            final VTimeZone vTimeZone = loadVTimeZone(id);
+                            if (vTimeZone != null) {
+                                return loadUpdates(vTimeZone);
                             }
-                    	}
+                            return null;
+                        }
+                    });
+                    if (defaultTimezone != null) {
+                        timezone = defaultTimezone.get();
                     }
+                    else if (CompatibilityHints.isHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING)) {
+                        // strip global part of id and match on default tz..
+                        Matcher matcher = TZ_ID_SUFFIX.matcher(id);
+                        if (matcher.find()) {
+                            return getTimeZone(matcher.group());
+                        }
+                    }
+                }
+                catch (Exception e) {
+                    Log log = LogFactory.getLog(TimeZoneRegistryImpl.class);
+                    log.warn("Error occurred loading VTimeZone", e);
                 }
             }
         }
@@ -179,43 +226,98 @@ public class TimeZoneRegistryImpl implements TimeZoneRegistry {
     }
 
     /**
-     * Loads an existing VTimeZone from the classpath corresponding to the specified Java timezone.
+     * Returns the value for the specified key, loading the value where it has not been loaded previously. Where
+     * multiple threads request a value that is not yet loaded, a single thread loads the value and other threads wait
+     * for the result. Values that fail to load are removed such that loading is retried on subsequent requests.
+     * @param values loaded (and loading) values
+     * @param key the key of the value to return
+     * @param loader loads the value where it has not been loaded previously
+     * @return the value for the specified key
+     * @throws Exception where an error occurs loading the value
      */
-    private VTimeZone loadVTimeZone(final String id) throws IOException, ParserException {
-        final URL resource = ResourceLoader.getResource(resourcePrefix + id + ".ics");
-        if (resource != null) {
-            final CalendarBuilder builder = new CalendarBuilder();
-            final Calendar calendar = builder.build(resource.openStream());
-            final VTimeZone vTimeZone = (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
-            // load any available updates for the timezone.. can be explicility disabled via configuration
-            if (!"false".equals(Configurator.getProperty(UPDATE_ENABLED))) {
-                return updateDefinition(vTimeZone);
+    private static <V> V load(final ConcurrentMap<String, Future<V>> values, final String key,
+            final Callable<V> loader) throws Exception {
+
+        Future<V> value = values.get(key);
+        if (value == null) {
+            final FutureTask<V> task = new FutureTask<V>(loader);
+            value = values.putIfAbsent(key, task);
+            if (value == null) {
+                value = task;
+                task.run();
             }
-            return vTimeZone;
         }
-        return null;
+        try {
+            return value.get();
+        }
+        catch (ExecutionException ee) {
+            values.remove(key, value);
+            if (ee.getCause() instanceof Exception) {
+                throw (Exception) ee.getCause();
+            }
+            throw ee;
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw ie;
+        }
     }
-    
+
     /**
-     * @param vTimeZone
-     * @return
+     * Loads an existing VTimeZone from the classpath corresponding to the specified Java timezone.
      */
-    private VTimeZone updateDefinition(VTimeZone vTimeZone) {
-        final TzUrl tzUrl = vTimeZone.getTimeZoneUrl();
-        if (tzUrl != null) {
-            try {
+    private VTimeZone loadVTimeZone(final String id) throws Exception {
+        final TimeZoneBundle bundle = load(BUNDLES, resourcePrefix, new Callable<TimeZoneBundle>() {
+            public TimeZoneBundle call() throws IOException {
+                return loadBundle();
+            }
+        });
+        VTimeZone vTimeZone = null;
+        if (bundle != null) {
+            vTimeZone = bundle.getVTimeZone(id);
+        }
+        if (vTimeZone == null) {
+            final URL resource = ResourceLoader.getResource(resourcePrefix + id + ".ics");
+            if (resource != null) {
                 final CalendarBuilder builder = new CalendarBuilder();
-                final Calendar calendar = builder.build(tzUrl.getUri().toURL().openStream());
-                final VTimeZone updatedVTimeZone = (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
-                if (updatedVTimeZone != null) {
-                    return updatedVTimeZone;
+                final Calendar calendar = builder.build(resource.openStream());
+                vTimeZone = (VTimeZone) calendar.getComponent(Component.VTIMEZONE);
+            }
+        }
+        return vTimeZone;
+    }
+
+    /**
+     * Requests updates for the specified default definition.
+     * @return a reference to a timezone backed by the specified definition until an update is available
+     */
+    private AtomicReference<TimeZone> loadUpdates(final VTimeZone vTimeZone) {
+        final AtomicReference<TimeZone> timezone = new AtomicReference<TimeZone>(new TimeZone(vTimeZone));
+        // load any available updates for the timezone.. can be explicility disabled via configuration
+        if (!"false".equals(Configurator.getProperty(UPDATE_ENABLED))) {
+            updater.update(vTimeZone, new TimeZoneUpdater.Callback() {
+                public void updated(final VTimeZone updatedVTimeZone) {
+                    timezone.set(new TimeZone(updatedVTimeZone));
                 }
+            });
+        }
+        return timezone;
+    }
+
+    /**
+     * Loads a compiled timezone bundle from the classpath.
+     * @return a timezone bundle, or null if no bundle exists for the resource prefix
+     */
+    private TimeZoneBundle loadBundle() throws IOException {
+        final InputStream in = ResourceLoader.getResourceAsStream(resourcePrefix + BUNDLE_RESOURCE);
+        if (in != null) {
+            try {
+                return new TimeZoneBundle(in);
             }
-            catch (Exception e) {
-                Log log = LogFactory.getLog(TimeZoneRegistryImpl.class);
-                log.warn("Unable to retrieve updates for timezone: " + vTimeZone.getTimeZoneId().getValue(), e);
+            finally {
+                in.close();
             }
         }
-        return vTimeZone;
+        return null;
     }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.Configurator;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * Provides updates to VTimeZone definitions, such as those available from the location identified by the TZURL
+ * property of a definition. Updates are provided asynchronously, such that timezones may be used with an existing
+ * definition until an update is available. Alternative implementations may be specified via the following system
+ * property:
+ * <pre>net.fortuna.ical4j.timezone.updater=&lt;updater_class_name&gt;</pre>
+ * @author Ben Fortuna
+ */
+public abstract class TimeZoneUpdater {
+
+    /**
+     * The system property used to specify an alternate <code>TimeZoneUpdater</code> implementation.
+     */
+    public static final String KEY_UPDATER_CLASS = "net.fortuna.ical4j.timezone.updater";
+
+    private static TimeZoneUpdater instance;
+    static {
+        try {
+            @SuppressWarnings("unchecked")
+            final Class<? extends TimeZoneUpdater> updaterClass = (Class<? extends TimeZoneUpdater>) Class.forName(
+                    Configurator.getProperty(KEY_UPDATER_CLASS));
+            instance = updaterClass.newInstance();
+        }
+        catch (Exception e) {
+            instance = new DefaultTimeZoneUpdater();
+        }
+    }
+
+    /**
+     * @return a shared updater instance
+     */
+    public static TimeZoneUpdater getInstance() {
+        return instance;
+    }
+
+    /**
+     * Requests an update of the specified definition. Implementations should not block the calling thread while
+     * retrieving an update, and may notify the specified callback from another thread. The callback is not notified
+     * where no update is available.
+     * @param vTimeZone the definition to update
+     * @param callback notified of an updated definition
+     */
+    public abstract void update(VTimeZone vTimeZone, Callback callback);
+
+    /**
+     * Receives updated VTimeZone definitions.
+     */
+    public interface Callback {
+
+        /**
+         * @param vTimeZone an updated definition
+         */
+        void updated(VTimeZone vTimeZone);
+    }
+}
@@ -31,13 +31,15 @@
  */
 package net.fortuna.ical4j.model.component;
 
-import java.text.DateFormat;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.GregorianCalendar;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import net.fortuna.ical4j.model.Component;
 import net.fortuna.ical4j.model.Date;
@@ -45,6 +47,7 @@ import net.fortuna.ical4j.model.DateList;
 import net.fortuna.ical4j.model.DateTime;
 import net.fortuna.ical4j.model.Property;
 import net.fortuna.ical4j.model.PropertyList;
+import net.fortuna.ical4j.model.Recur;
 import net.fortuna.ical4j.model.ValidationException;
 import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.model.property.DtStart;
@@ -83,26 +86,31 @@ public abstract class Observance extends Component implements Comparable<Observa
      */
     public static final String DAYLIGHT = "DAYLIGHT";
 
-    // TODO: clear cache when observance definition changes (??)
-    private long[] onsetsMillisec;
-    private DateTime[] onsetsDates;
-//    private Map onsets = new TreeMap();
-    private Date initialOnset = null;
-    
     /**
-     * Used for parsing times in a UTC date-time representation.
+     * The period (approx. ten years) by which cached onsets are extended beyond the date queried.
      */
-    private static final String UTC_PATTERN = "yyyyMMdd'T'HHmmss";
-    private static final DateFormat UTC_FORMAT = new SimpleDateFormat(
-            UTC_PATTERN);
-    
-    static {
-        UTC_FORMAT.setTimeZone(TimeZones.getUtcTimeZone());
-        UTC_FORMAT.setLenient(false);
-    }
+    private static final long ONSET_WINDOW = 3653L * Dates.MILLIS_PER_DAY;
+
+    /**
+     * The initial period searched for the latest onset prior to cached onsets.
+     */
+    private static final long PRECEDING_ONSET_WINDOW = 366L * Dates.MILLIS_PER_DAY;
 
-    /* If this is set we have rrules. If we get a date after this rebuild onsets */
-    private Date onsetLimit;
+    private static final AtomicReferenceFieldUpdater<Observance, OnsetSnapshot> ONSET_SNAPSHOT_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(Observance.class, OnsetSnapshot.class, "onsetSnapshot");
+
+    /**
+     * The length of dates in the local date-time representation (i.e. yyyyMMdd'T'HHmmss) used to calculate onsets.
+     */
+    private static final int LOCAL_DATE_TIME_LENGTH = 15;
+
+    /**
+     * The earliest year for which onsets are calculated arithmetically. Earlier dates are subject to the Julian
+     * calendar cutover.
+     */
+    private static final int MIN_GREGORIAN_YEAR = 1583;
+
+    private transient volatile OnsetSnapshot onsetSnapshot;
 
     /**
      * Constructs a timezone observance with the specified name and no properties.
@@ -160,34 +168,81 @@ public abstract class Observance extends Component implements Comparable<Observa
      * specified date
      */
     public final Date getLatestOnset(final Date date) {
-        
-        if (initialOnset == null) {
-            try {
-                initialOnset = applyOffsetFrom(calculateOnset(((DtStart) getProperty(Property.DTSTART)).getDate()));
-            } catch (ParseException e) {
-                Log log = LogFactory.getLog(Observance.class);
-                log.error("Unexpected error calculating initial onset", e);
-                // XXX: is this correct?
-                return null;
-            }
-        }
-        
+        final OnsetSnapshot snapshot = getOnsetSnapshot(date.getTime(), date.getTime());
         // observance not applicable if date is before the effective date of this observance..
-        if (date.before(initialOnset)) {
+        if (snapshot == null || date.before(snapshot.initialOnset)) {
             return null;
         }
+        return snapshot.getLatestOnset(date.getTime());
+    }
 
-        if ((onsetsMillisec != null) && (onsetLimit == null || date.before(onsetLimit))) {
-            return getCachedOnset(date);
+    /**
+     * Returns the applicable onsets of this observance in ascending order, commencing with the initial onset (i.e.
+     * the onset derived from the start date). All onsets derived from recurrence dates are included, whereas onsets
+     * derived from recurrence rules are included up to (at least) the specified limit.
+     * @param limit the latest date for which onsets derived from recurrence rules are required
+     * @return a list of UTC onsets, or null if the onsets cannot be determined
+     */
+    public final DateList getOnsets(final Date limit) {
+        final OnsetSnapshot snapshot = getOnsetSnapshot(Long.MIN_VALUE, limit.getTime());
+        if (snapshot == null) {
+            return null;
+        }
+        final DateList onsets = new DateList(Value.DATE_TIME);
+        onsets.setUtc(true);
+        for (int i = 0; i < snapshot.onsetsDates.length; i++) {
+            // onsets prior to the initial onset are not applicable..
+            if (!snapshot.onsetsDates[i].before(snapshot.initialOnset)) {
+                onsets.add(snapshot.onsetsDates[i]);
+            }
+        }
+        return onsets;
+    }
+
+    /**
+     * Returns a snapshot of onsets sufficient to determine the latest onset for all dates in the specified range,
+     * extending the current snapshot where required. Snapshots are immutable, such that concurrent callers may
+     * share a snapshot without synchronization and extensions are only calculated for onsets not already cached.
+     * @param from the earliest date in the range
+     * @param to the latest date in the range
+     * @return an onset snapshot, or null if onsets cannot be determined
+     */
+    private OnsetSnapshot getOnsetSnapshot(final long from, final long to) {
+        final int version = getProperties().getModificationCount();
+        OnsetSnapshot current = onsetSnapshot;
+        while (true) {
+            OnsetSnapshot updated = current;
+            if (updated == null || updated.version != version) {
+                updated = createOnsetSnapshot(version);
+                if (updated == null) {
+                    return null;
+                }
+            }
+            // onsets prior to the initial onset are not required..
+            final long lower = Math.max(from, updated.initialOnset.getTime());
+            if (to >= lower && !updated.covers(lower, to)) {
+                updated = extendOnsetSnapshot(updated, lower, to);
+            }
+            if (updated == current || ONSET_SNAPSHOT_UPDATER.compareAndSet(this, current, updated)) {
+                return updated;
+            }
+            current = onsetSnapshot;
         }
+    }
 
-        Date onset = initialOnset;
-        Date initialOnsetUTC;
+    /**
+     * Creates a snapshot of the onsets derived from the start date and recurrence dates. Where recurrence rules are
+     * specified the snapshot doesn't initially include any onsets derived from recurrence rules.
+     */
+    private OnsetSnapshot createOnsetSnapshot(final int version) {
+        final DateTime initialOnset;
+        final DateTime initialOnsetUTC;
         // get first onset without adding TZFROM as this may lead to a day boundary
         // change which would be incompatible with BYDAY RRULES
         // we will have to add the offset to all cacheable onsets
         try {
             initialOnsetUTC = calculateOnset(((DtStart) getProperty(Property.DTSTART)).getDate());
+            initialOnset = applyOffsetFrom(initialOnsetUTC);
         } catch (ParseException e) {
             Log log = LogFactory.getLog(Observance.class);
             log.error("Unexpected error calculating initial onset", e);
@@ -195,8 +250,7 @@ public abstract class Observance extends Component implements Comparable<Observa
             return null;
         }
         // collect all onsets for the purposes of caching..
-        final DateList cacheableOnsets = new DateList();
-        cacheableOnsets.setUtc(true);
+        final List<DateTime> cacheableOnsets = new ArrayList<DateTime>();
         cacheableOnsets.add(initialOnset);
 
         // check rdates for latest applicable onset..
@@ -206,13 +260,6 @@ public abstract class Observance extends Component implements Comparable<Observa
             for (final Date rdateDate : rdate.getDates()) {
                 try {
                     final DateTime rdateOnset = applyOffsetFrom(calculateOnset(rdateDate));
-                    if (!rdateOnset.after(date) && rdateOnset.after(onset)) {
-                        onset = rdateOnset;
-                    }
-                    /*
-                     * else if (rdateOnset.after(date) && rdateOnset.after(onset) && (nextOnset == null ||
-                     * rdateOnset.before(nextOnset))) { nextOnset = rdateOnset; }
-                     */
                     cacheableOnsets.add(rdateOnset);
                 } catch (ParseException e) {
                     Log log = LogFactory.getLog(Observance.class);
@@ -221,57 +268,205 @@ public abstract class Observance extends Component implements Comparable<Observa
             }
         }
 
-        // check recurrence rules for latest applicable onset..
+        // onsets derived from recurrence rules are added on demand..
+        if (getProperties(Property.RRULE).isEmpty()) {
+            return new OnsetSnapshot(version, initialOnset, initialOnsetUTC, Long.MIN_VALUE, Long.MAX_VALUE,
+                    cacheableOnsets);
+        }
+        return new OnsetSnapshot(version, initialOnset, initialOnsetUTC, Long.MAX_VALUE, Long.MIN_VALUE,
+                cacheableOnsets);
+    }
+
+    /**
+     * Extends the specified snapshot to include onsets derived from recurrence rules required to determine the
+     * latest onset for all dates in the specified range.
+     */
+    private OnsetSnapshot extendOnsetSnapshot(final OnsetSnapshot snapshot, final long from, final long to) {
+        long lower = snapshot.lower;
+        long upper = snapshot.upper;
+        final List<DateTime> cacheableOnsets = new ArrayList<DateTime>(Arrays.asList(snapshot.onsetsDates));
+        if (lower > upper) {
+            // no onsets derived from recurrence rules are cached..
+            lower = from;
+            upper = add(to, ONSET_WINDOW);
+            if (lower <= snapshot.initialOnset.getTime()) {
+                lower = Long.MIN_VALUE;
+            }
+            addRuleOnsets(snapshot, lower, upper, cacheableOnsets);
+        }
+        else {
+            if (from < lower) {
+                long extendedLower = add(from, -ONSET_WINDOW);
+                if (extendedLower <= snapshot.initialOnset.getTime()) {
+                    extendedLower = Long.MIN_VALUE;
+                }
+                addRuleOnsets(snapshot, extendedLower, lower, cacheableOnsets);
+                lower = extendedLower;
+            }
+            if (to >= upper) {
+                final long extendedUpper = add(to, ONSET_WINDOW);
+                addRuleOnsets(snapshot, upper, extendedUpper, cacheableOnsets);
+                upper = extendedUpper;
+            }
+        }
+        // include the latest onset prior to the cached range, as this applies to dates early in the range..
+        if (lower != snapshot.lower && lower != Long.MIN_VALUE) {
+            addPrecedingRuleOnsets(snapshot, lower, cacheableOnsets);
+        }
+        return new OnsetSnapshot(snapshot.version, snapshot.initialOnset, snapshot.initialOnsetUTC, lower, upper,
+                cacheableOnsets);
+    }
+
+    /**
+     * Adds onsets derived from recurrence rules that occur in the specified range.
+     */
+    private void addRuleOnsets(final OnsetSnapshot snapshot, final long from, final long to,
+            final List<DateTime> onsets) {
+
         final PropertyList rrules = getProperties(Property.RRULE);
         for (final Iterator<Property> i = rrules.iterator(); i.hasNext();) {
             final RRule rrule = (RRule) i.next();
-            // include future onsets to determine onset period..
-            final Calendar cal = Dates.getCalendarInstance(date);
-            cal.setTime(date);
-            cal.add(Calendar.YEAR, 10);
-            onsetLimit = Dates.getInstance(cal.getTime(), Value.DATE_TIME);
-            final DateList recurrenceDates = rrule.getRecur().getDates(initialOnsetUTC,
-                    onsetLimit, Value.DATE_TIME);
-            for (final Date recurDate : recurrenceDates) {
-                final DateTime rruleOnset = applyOffsetFrom((DateTime) recurDate);
-                if (!rruleOnset.after(date) && rruleOnset.after(onset)) {
-                    onset = rruleOnset;
+            onsets.addAll(getRuleOnsets(rrule.getRecur(), snapshot, from, to));
+        }
+    }
+
+    /**
+     * Adds the latest onset derived from each recurrence rule that occurs prior to the specified date. Onsets are
+     * searched in successively larger periods to avoid calculating all prior onsets.
+     */
+    private void addPrecedingRuleOnsets(final OnsetSnapshot snapshot, final long before,
+            final List<DateTime> onsets) {
+
+        final PropertyList rrules = getProperties(Property.RRULE);
+        for (final Iterator<Property> i = rrules.iterator(); i.hasNext();) {
+            final RRule rrule = (RRule) i.next();
+            long end = before;
+            long window = PRECEDING_ONSET_WINDOW;
+            while (end != Long.MIN_VALUE) {
+                long start = add(end, -window);
+                if (start <= snapshot.initialOnset.getTime()) {
+                    start = Long.MIN_VALUE;
                 }
-                /*
-                 * else if (rruleOnset.after(date) && rruleOnset.after(onset) && (nextOnset == null ||
-                 * rruleOnset.before(nextOnset))) { nextOnset = rruleOnset; }
-                 */
-                cacheableOnsets.add(rruleOnset);
+                final List<DateTime> ruleOnsets = getRuleOnsets(rrule.getRecur(), snapshot, start, end);
+                if (!ruleOnsets.isEmpty()) {
+                    onsets.add(ruleOnsets.get(ruleOnsets.size() - 1));
+                    break;
+                }
+                end = start;
+                window *= 2;
             }
         }
+    }
 
-        // cache onsets..
-        Collections.sort(cacheableOnsets);
-        DateTime cacheableOnset = null;
-        this.onsetsMillisec = new long[cacheableOnsets.size()];
-        this.onsetsDates = new DateTime[onsetsMillisec.length];
-
-        for (int i = 0; i < onsetsMillisec.length; i++) {
-            cacheableOnset = (DateTime)cacheableOnsets.get(i);
-            onsetsMillisec[i] = cacheableOnset.getTime();
-            onsetsDates[i] = cacheableOnset;
+    /**
+     * @return the onsets derived from the specified recurrence rule that occur in the specified range (where a
+     * minimum value indicates the range commences at the initial onset)
+     */
+    private List<DateTime> getRuleOnsets(final Recur recur, final OnsetSnapshot snapshot, final long from,
+            final long to) {
+
+        // recurrence dates are calculated in local time..
+        final long offsetFrom = getOffsetFrom().getOffset().getOffset();
+        final DateTime periodStart;
+        if (from == Long.MIN_VALUE) {
+            periodStart = snapshot.initialOnsetUTC;
+        }
+        else {
+            periodStart = new DateTime(true);
+            periodStart.setTime(from + offsetFrom);
         }
+        final DateTime periodEnd = new DateTime(true);
+        periodEnd.setTime(add(to, offsetFrom));
+
+        final DateList recurrenceDates = recur.getDates(snapshot.initialOnsetUTC, periodStart, periodEnd,
+                Value.DATE_TIME);
+        final List<DateTime> onsets = new ArrayList<DateTime>(recurrenceDates.size());
+        for (final Date recurDate : recurrenceDates) {
+            final DateTime rruleOnset = applyOffsetFrom((DateTime) recurDate);
+            if (rruleOnset.getTime() < to) {
+                onsets.add(rruleOnset);
+            }
+        }
+        return onsets;
+    }
 
-        return onset;
+    private static long add(final long instant, final long amount) {
+        final long result = instant + amount;
+        if (amount > 0 && result < instant) {
+            return Long.MAX_VALUE;
+        }
+        else if (amount < 0 && result > instant) {
+            return Long.MIN_VALUE + 1;
+        }
+        return result;
     }
 
     /**
-     * Returns a cached onset for the specified date.
-     * @param date
-     * @return a cached onset date or null if no cached onset is applicable for the specified date
+     * An immutable snapshot of the onsets of an observance. A snapshot includes the onsets derived from the start
+     * date and recurrence dates, and the onsets derived from recurrence rules in the range between the lower
+     * (inclusive) and upper (exclusive) limits together with the latest such onset prior to the lower limit. As such
+     * the latest onset is accurately determined for any date in the range.
      */
-    private DateTime getCachedOnset(final Date date) {
-        int index = Arrays.binarySearch(onsetsMillisec, date.getTime());
-        if (index >= 0) {
-            return onsetsDates[index];
-        } else {
-            int insertionIndex = -index -1;
-            return onsetsDates[insertionIndex -1];
+    private static final class OnsetSnapshot {
+
+        private final int version;
+
+        private final DateTime initialOnset;
+
+        private final DateTime initialOnsetUTC;
+
+        private final long lower;
+
+        private final long upper;
+
+        private final long[] onsetsMillisec;
+
+        private final DateTime[] onsetsDates;
+
+        private OnsetSnapshot(final int version, final DateTime initialOnset, final DateTime initialOnsetUTC,
+                final long lower, final long upper, final List<DateTime> onsets) {
+
+            this.version = version;
+            this.initialOnset = initialOnset;
+            this.initialOnsetUTC = initialOnsetUTC;
+            this.lower = lower;
+            this.upper = upper;
+
+            Collections.sort(onsets);
+            final List<DateTime> distinctOnsets = new ArrayList<DateTime>(onsets.size());
+            for (final DateTime onset : onsets) {
+                if (distinctOnsets.isEmpty()
+                        || distinctOnsets.get(distinctOnsets.size() - 1).getTime() != onset.getTime()) {
+                    distinctOnsets.add(onset);
+                }
+            }
+            this.onsetsDates = distinctOnsets.toArray(new DateTime[distinctOnsets.size()]);
+            this.onsetsMillisec = new long[onsetsDates.length];
+            for (int i = 0; i < onsetsMillisec.length; i++) {
+                onsetsMillisec[i] = onsetsDates[i].getTime();
+            }
+        }
+
+        /**
+         * @return true if this snapshot determines the latest onset for all dates in the specified range
+         */
+        private boolean covers(final long from, final long to) {
+            return from >= lower && to < upper;
+        }
+
+        /**
+         * Returns a cached onset for the specified date.
+         * @param date
+         * @return a cached onset date or null if no cached onset is applicable for the specified date
+         */
+        private DateTime getLatestOnset(final long date) {
+            int index = Arrays.binarySearch(onsetsMillisec, date);
+            if (index >= 0) {
+                return onsetsDates[index];
+            } else {
+                int insertionIndex = -index -1;
+                return insertionIndex > 0 ? onsetsDates[insertionIndex -1] : null;
+            }
         }
     }
 
@@ -324,11 +519,7 @@ public abstract class Observance extends Component implements Comparable<Observa
         
         // Translate local onset into UTC time by parsing local time 
         // as GMT and adjusting by TZOFFSETFROM if required
-        long utcOnset;
-       
-        synchronized (UTC_FORMAT) {
-            utcOnset = UTC_FORMAT.parse(dateStr).getTime();
-        }
+        final long utcOnset = parseLocalDateTime(dateStr);
 
         // return a UTC
         DateTime onset = new DateTime(true);
@@ -336,6 +527,78 @@ public abstract class Observance extends Component implements Comparable<Observa
         return onset;
     }
 
+    /**
+     * Parses a local date-time of the form yyyyMMdd'T'HHmmss as a UTC time. Any characters following the date-time
+     * (e.g. a UTC designator) are ignored. This method is thread-safe and doesn't require synchronization.
+     * @param dateStr a date-time string
+     * @return the number of milliseconds since the epoch
+     * @throws ParseException where the string is not a valid date-time
+     */
+    private static long parseLocalDateTime(final String dateStr) throws ParseException {
+        if (dateStr.length() < LOCAL_DATE_TIME_LENGTH) {
+            throw new ParseException("Unparseable date: \"" + dateStr + "\"", dateStr.length());
+        }
+        if (dateStr.charAt(8) != 'T') {
+            throw new ParseException("Unparseable date: \"" + dateStr + "\"", 8);
+        }
+        final int year = parseDigits(dateStr, 0, 4);
+        final int month = parseDigits(dateStr, 4, 6);
+        final int day = parseDigits(dateStr, 6, 8);
+        final int hour = parseDigits(dateStr, 9, 11);
+        final int minute = parseDigits(dateStr, 11, 13);
+        final int second = parseDigits(dateStr, 13, 15);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > getDaysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            throw new ParseException("Unparseable date: \"" + dateStr + "\"", 0);
+        }
+
+        final long epochDay;
+        if (year >= MIN_GREGORIAN_YEAR) {
+            epochDay = Dates.getEpochDay(year, month, day);
+        }
+        else {
+            final Calendar cal = new GregorianCalendar(TimeZones.getUtcTimeZone());
+            cal.clear();
+            cal.setLenient(false);
+            cal.set(year, month - 1, day);
+            try {
+                epochDay = cal.getTimeInMillis() / Dates.MILLIS_PER_DAY;
+            }
+            catch (IllegalArgumentException iae) {
+                // dates omitted at the julian calendar cutover..
+                throw new ParseException("Unparseable date: \"" + dateStr + "\"", 0);
+            }
+        }
+        return epochDay * Dates.MILLIS_PER_DAY + hour * Dates.MILLIS_PER_HOUR + minute * Dates.MILLIS_PER_MINUTE
+                + second * Dates.MILLIS_PER_SECOND;
+    }
+
+    /**
+     * @return the value of the decimal digits in the specified range of the string
+     * @throws ParseException where the range includes non-digit characters
+     */
+    private static int parseDigits(final String dateStr, final int start, final int end) throws ParseException {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            final char c = dateStr.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new ParseException("Unparseable date: \"" + dateStr + "\"", i);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of days in the specified month, applying julian leap years prior to the gregorian cutover
+     */
+    private static int getDaysInMonth(final int year, final int month) {
+        if (year < MIN_GREGORIAN_YEAR && month == 2 && year % 4 == 0) {
+            return 29;
+        }
+        return Dates.getDaysInMonth(year, month);
+    }
+
     private DateTime applyOffsetFrom(DateTime orig) {
         DateTime withOffset = new DateTime(true);
         withOffset.setTime(orig.getTime() - getOffsetFrom().getOffset().getOffset());
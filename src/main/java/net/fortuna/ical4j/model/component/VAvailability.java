@@ -31,6 +31,9 @@
  */
 package net.fortuna.ical4j.model.component;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import net.fortuna.ical4j.model.ComponentList;
 import net.fortuna.ical4j.model.Parameter;
 import net.fortuna.ical4j.model.Property;
@@ -141,19 +144,17 @@ public class VAvailability extends CalendarComponent {
     /**
      * {@inheritDoc}
      */
-    public final String toString() {
-        final StringBuffer b = new StringBuffer();
-        b.append(BEGIN);
-        b.append(':');
-        b.append(getName());
-        b.append(Strings.LINE_SEPARATOR);
-        b.append(getProperties());
-        b.append(getAvailable());
-        b.append(END);
-        b.append(':');
-        b.append(getName());
-        b.append(Strings.LINE_SEPARATOR);
-        return b.toString();
+    public final void write(final Writer out) throws IOException {
+        out.write(BEGIN);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
+        getProperties().write(out);
+        getAvailable().write(out);
+        out.write(END);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
     }
 
     /**
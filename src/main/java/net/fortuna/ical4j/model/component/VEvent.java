@@ -32,6 +32,7 @@
 package net.fortuna.ical4j.model.component;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.HashMap;
@@ -313,19 +314,17 @@ public class VEvent extends CalendarComponent {
     /**
      * {@inheritDoc}
      */
-    public final String toString() {
-        final StringBuffer b = new StringBuffer();
-        b.append(BEGIN);
-        b.append(':');
-        b.append(getName());
-        b.append(Strings.LINE_SEPARATOR);
-        b.append(getProperties());
-        b.append(getAlarms());
-        b.append(END);
-        b.append(':');
-        b.append(getName());
-        b.append(Strings.LINE_SEPARATOR);
-        return b.toString();
+    public final void write(final Writer out) throws IOException {
+        out.write(BEGIN);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
+        getProperties().write(out);
+        getAlarms().write(out);
+        out.write(END);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
     }
 
     /**
@@ -32,6 +32,7 @@
 package net.fortuna.ical4j.model.component;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.HashMap;
@@ -225,19 +226,17 @@ public class VToDo extends CalendarComponent {
     /**
      * {@inheritDoc}
      */
-    public final String toString() {
-        final StringBuffer buffer = new StringBuffer();
-        buffer.append(BEGIN);
-        buffer.append(':');
-        buffer.append(getName());
-        buffer.append(Strings.LINE_SEPARATOR);
-        buffer.append(getProperties());
-        buffer.append(getAlarms());
-        buffer.append(END);
-        buffer.append(':');
-        buffer.append(getName());
-        buffer.append(Strings.LINE_SEPARATOR);
-        return buffer.toString();
+    public final void write(final Writer out) throws IOException {
+        out.write(BEGIN);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
+        getProperties().write(out);
+        getAlarms().write(out);
+        out.write(END);
+        out.write(':');
+        out.write(getName());
+        out.write(Strings.LINE_SEPARATOR);
     }
 
     /**
@@ -37,7 +37,6 @@ import net.fortuna.ical4j.model.ValidationException;
 import net.fortuna.ical4j.model.Validator;
 import net.fortuna.ical4j.model.property.Method;
 import net.fortuna.ical4j.util.PropertyValidator;
-import net.fortuna.ical4j.util.Strings;
 
 /**
  * $Id $ [Apr 5, 2004]
@@ -108,23 +107,6 @@ public class VVenue extends CalendarComponent {
         super(VVENUE, properties);
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    public final String toString() {
-        final StringBuffer b = new StringBuffer();
-        b.append(BEGIN);
-        b.append(':');
-        b.append(getName());
-        b.append(Strings.LINE_SEPARATOR);
-        b.append(getProperties());
-        b.append(END);
-        b.append(':');
-        b.append(getName());
-        b.append(Strings.LINE_SEPARATOR);
-        return b.toString();
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -105,6 +105,7 @@ public class Attendee extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws URISyntaxException {
+        clearDeferredValue();
         calAddress = Uris.create(aValue);
     }
 
@@ -156,6 +157,7 @@ public class Attendee extends Property {
      * @return Returns the calAddress.
      */
     public final URI getCalAddress() {
+        parseDeferredValue();
         return calAddress;
     }
 
@@ -170,6 +172,14 @@ public class Attendee extends Property {
      * @param calAddress The calAddress to set.
      */
     public final void setCalAddress(final URI calAddress) {
+        clearDeferredValue();
         this.calAddress = calAddress;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
 }
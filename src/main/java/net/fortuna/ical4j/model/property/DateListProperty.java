@@ -105,6 +105,7 @@ public abstract class DateListProperty extends Property {
      * @return Returns the dates.
      */
     public final DateList getDates() {
+        parseDeferredValue();
         return dates;
     }
 
@@ -112,6 +113,7 @@ public abstract class DateListProperty extends Property {
      * {@inheritDoc}
      */
     public void setValue(final String aValue) throws ParseException {
+        clearDeferredValue();
         dates = new DateList(aValue, (Value) getParameter(Parameter.VALUE),
                 timeZone);
     }
@@ -120,7 +122,7 @@ public abstract class DateListProperty extends Property {
      * {@inheritDoc}
      */
     public String getValue() {
-        return Strings.valueOf(dates);
+        return Strings.valueOf(getDates());
     }
 
     /**
@@ -128,6 +130,8 @@ public abstract class DateListProperty extends Property {
      * @param timezone a timezone to associate with this property
      */
     public void setTimeZone(final TimeZone timezone) {
+        // apply the timezone to a parsed value..
+        parseDeferredValue();
         if (dates == null) {
             throw new UnsupportedOperationException(
                     "TimeZone is not applicable to current value");
@@ -163,6 +167,7 @@ public abstract class DateListProperty extends Property {
      * @param utc the UTC value
      */
     public final void setUtc(final boolean utc) {
+        parseDeferredValue();
         if (dates == null || !Value.DATE_TIME.equals(dates.getType())) {
             throw new UnsupportedOperationException(
                     "TimeZone is not applicable to current value");
@@ -171,6 +176,13 @@ public abstract class DateListProperty extends Property {
         getParameters().remove(getParameter(Parameter.TZID));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -94,6 +94,7 @@ public abstract class DateProperty extends Property {
      * @return Returns the date.
      */
     public final Date getDate() {
+        parseDeferredValue();
         return date;
     }
 
@@ -103,6 +104,7 @@ public abstract class DateProperty extends Property {
      * @param date The date to set.
      */
     public final void setDate(final Date date) {
+        clearDeferredValue();
         this.date = date;
         if (date instanceof DateTime) {
             if (Value.DATE.equals(getParameter(Parameter.VALUE))) {
@@ -132,6 +134,7 @@ public abstract class DateProperty extends Property {
      * representation
      */
     public void setValue(final String value) throws ParseException {
+        clearDeferredValue();
         // value can be either a date-time or a date..
         if (Value.DATE.equals(getParameter(Parameter.VALUE))) {
             // ensure timezone is null for VALUE=DATE properties..
@@ -173,6 +176,8 @@ public abstract class DateProperty extends Property {
      * @param vTimeZone
      */
     private void updateTimeZone(final TimeZone timezone) {
+        // apply the timezone to a parsed value..
+        parseDeferredValue();
         this.timeZone = timezone;
         if (timezone != null) {
             if (getDate() != null && !(getDate() instanceof DateTime)) {
@@ -241,7 +246,7 @@ public abstract class DateProperty extends Property {
                         + "] is invalid for DATE-TIME instance");
             }
 
-            final DateTime dateTime = (DateTime) date;
+            final DateTime dateTime = (DateTime) getDate();
 
             // ensure tzid matches date-time timezone..
             final Parameter tzId = getParameter(Parameter.TZID);
@@ -267,6 +272,13 @@ public abstract class DateProperty extends Property {
         }
     }
     
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
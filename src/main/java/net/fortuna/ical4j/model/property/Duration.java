@@ -140,6 +140,7 @@ public class Duration extends Property {
      * @return Returns the duration.
      */
     public final Dur getDuration() {
+        parseDeferredValue();
         return duration;
     }
 
@@ -147,6 +148,7 @@ public class Duration extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) {
+        clearDeferredValue();
         // duration = DurationFormat.getInstance().parse(aValue);
         duration = new Dur(aValue);
     }
@@ -156,16 +158,24 @@ public class Duration extends Property {
      */
     public final String getValue() {
         // return DurationFormat.getInstance().format(getDuration());
-        return duration.toString();
+        return getDuration().toString();
     }
 
     /**
      * @param duration The duration to set.
      */
     public final void setDuration(final Dur duration) {
+        clearDeferredValue();
         this.duration = duration;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
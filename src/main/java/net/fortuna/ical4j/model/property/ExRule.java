@@ -94,6 +94,7 @@ public class ExRule extends Property {
      * @return Returns the recur.
      */
     public final Recur getRecur() {
+        parseDeferredValue();
         return recur;
     }
 
@@ -101,6 +102,7 @@ public class ExRule extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        clearDeferredValue();
         recur = new Recur(aValue);
     }
 
@@ -115,9 +117,17 @@ public class ExRule extends Property {
      * @param recur The recur to set.
      */
     public final void setRecur(final Recur recur) {
+        clearDeferredValue();
         this.recur = recur;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
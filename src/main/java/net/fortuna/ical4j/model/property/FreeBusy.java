@@ -178,7 +178,7 @@ public class FreeBusy extends Property {
          * ; the following is optional, ; and MAY occur more than once (";" xparam)
          */
         
-        if (!periods.isUtc()) {
+        if (!getPeriods().isUtc()) {
             throw new ValidationException("Periods must be in UTC format");
         }
     }
@@ -187,6 +187,7 @@ public class FreeBusy extends Property {
      * @return Returns the periods.
      */
     public final PeriodList getPeriods() {
+        parseDeferredValue();
         return periods;
     }
 
@@ -194,6 +195,7 @@ public class FreeBusy extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        clearDeferredValue();
         periods = new PeriodList(aValue);
     }
 
@@ -203,4 +205,11 @@ public class FreeBusy extends Property {
     public final String getValue() {
         return getPeriods().toString();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
 }
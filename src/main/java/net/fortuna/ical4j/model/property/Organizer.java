@@ -212,6 +212,7 @@ public class Organizer extends Property {
      * @return Returns the calAddress.
      */
     public final URI getCalAddress() {
+        parseDeferredValue();
         return calAddress;
     }
 
@@ -219,6 +220,7 @@ public class Organizer extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws URISyntaxException {
+        clearDeferredValue();
         calAddress = Uris.create(aValue);
     }
 
@@ -233,6 +235,14 @@ public class Organizer extends Property {
      * @param calAddress The calAddress to set.
      */
     public final void setCalAddress(final URI calAddress) {
+        clearDeferredValue();
         this.calAddress = calAddress;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
 }
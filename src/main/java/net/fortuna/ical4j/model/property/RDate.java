@@ -227,6 +227,7 @@ public class RDate extends DateListProperty {
      * @return Returns the period list.
      */
     public final PeriodList getPeriods() {
+        parseDeferredValue();
         return periods;
     }
 
@@ -234,6 +235,7 @@ public class RDate extends DateListProperty {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        clearDeferredValue();
         if (Value.PERIOD.equals(getParameter(Parameter.VALUE))) {
             periods = new PeriodList(aValue);
         }
@@ -246,6 +248,7 @@ public class RDate extends DateListProperty {
      * {@inheritDoc}
      */
     public final String getValue() {
+        parseDeferredValue();
         if (periods != null && !(periods.isEmpty() && periods.isUnmodifiable())) {
             return Strings.valueOf(getPeriods());
         }
@@ -256,6 +259,7 @@ public class RDate extends DateListProperty {
      * {@inheritDoc}
      */
     public final void setTimeZone(TimeZone timezone) {
+        parseDeferredValue();
         if (periods != null && !(periods.isEmpty() && periods.isUnmodifiable())) {
             periods.setTimeZone(timezone);
         }
@@ -103,6 +103,7 @@ public class RRule extends Property {
      * @return Returns the recur.
      */
     public final Recur getRecur() {
+        parseDeferredValue();
         return recur;
     }
 
@@ -110,6 +111,7 @@ public class RRule extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws ParseException {
+        clearDeferredValue();
         recur = new Recur(aValue);
     }
 
@@ -120,6 +122,13 @@ public class RRule extends Property {
         return getRecur().toString();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
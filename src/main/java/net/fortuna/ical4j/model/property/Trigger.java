@@ -238,6 +238,7 @@ public class Trigger extends UtcProperty {
      * @return Returns the duration.
      */
     public final Dur getDuration() {
+        parseDeferredValue();
         return duration;
     }
 
@@ -259,7 +260,7 @@ public class Trigger extends UtcProperty {
      * {@inheritDoc}
      */
     public final String getValue() {
-        if (duration != null) {
+        if (getDuration() != null) {
             return duration.toString();
         }
         return super.getValue();
@@ -130,6 +130,7 @@ public class Url extends Property {
      * @return Returns the uri.
      */
     public final URI getUri() {
+        parseDeferredValue();
         return uri;
     }
 
@@ -137,6 +138,7 @@ public class Url extends Property {
      * {@inheritDoc}
      */
     public final void setValue(final String aValue) throws URISyntaxException {
+        clearDeferredValue();
         uri = Uris.create(aValue);
     }
 
@@ -151,6 +153,7 @@ public class Url extends Property {
      * @param uri The uri to set.
      */
     public final void setUri(final URI uri) {
+        clearDeferredValue();
         this.uri = uri;
     }
 
@@ -160,4 +163,11 @@ public class Url extends Property {
     public final void validate() throws ValidationException {
         // TODO: Auto-generated method stub
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected boolean isDeferrable() {
+        return true;
+    }
 }
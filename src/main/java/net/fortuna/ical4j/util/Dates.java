@@ -303,6 +303,44 @@ public final class Dates {
         return cal.getTimeInMillis();
     }
 
+    /**
+     * Returns the number of days in the specified month of the proleptic gregorian calendar.
+     * @param year a year
+     * @param month a month (where January is 1)
+     * @return the number of days in the month
+     */
+    public static int getDaysInMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Returns the number of days between the epoch (1 January 1970) and the specified date in the proleptic
+     * gregorian calendar. A day of month outside the range of the month overflows into adjacent months.
+     * @param year a year
+     * @param month a month (where January is 1)
+     * @param dayOfMonth a day of the month
+     * @return the number of days since the epoch, which is negative for dates preceding the epoch
+     */
+    public static long getEpochDay(final int year, final int month, final int dayOfMonth) {
+        // years commencing March 1 place the leap day last..
+        final long y = (month <= 2) ? year - 1 : year;
+        final long era = (y >= 0 ? y : y - 399) / 400;
+        final long yearOfEra = y - era * 400;
+        final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
     /**
      * Returns the {@code System.currentTimeMillis()}, rounded to the second.
      * <p>By doing a rough rounding here, we avoid an expensive java.util.Calendar based
@@ -31,6 +31,9 @@
  */
 package net.fortuna.ical4j.util;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.regex.Pattern;
 
 /**
@@ -155,7 +158,66 @@ public final class Strings {
      * string
      */
     public static String escape(final String aValue) {
-        return escapePunctuation(escapeNewline(escapeBackslash(aValue)));
+        if (aValue == null || indexOfEscape(aValue, 0) < 0) {
+            return aValue;
+        }
+        final StringWriter out = new StringWriter(aValue.length() + 16);
+        try {
+            escape(aValue, out);
+        }
+        catch (IOException ioe) {
+            // not thrown by a string writer..
+            throw new RuntimeException(ioe);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes an escaped representation of the specified string to a writer. Special characters are escaped in a
+     * single pass over the string, with unescaped characters written to the writer in runs (such that, for
+     * example, a {@link net.fortuna.ical4j.data.FoldingWriter} may fold the escaped value without an intermediate
+     * copy of the value).
+     * @param aValue a string value to escape
+     * @param out a writer to write the escaped value to
+     * @throws IOException where an error occurs writing to the specified writer
+     */
+    public static void escape(final String aValue, final Writer out) throws IOException {
+        final int length = aValue.length();
+        int start = 0;
+        for (int i = indexOfEscape(aValue, 0); i >= 0; i = indexOfEscape(aValue, start)) {
+            out.write(aValue, start, i - start);
+            out.write('\\');
+            final char c = aValue.charAt(i);
+            if (c == '\r') {
+                // CRLF is escaped as a single newline..
+                out.write('n');
+                start = i + 2;
+            }
+            else if (c == '\n') {
+                out.write('n');
+                start = i + 1;
+            }
+            else {
+                out.write(c);
+                start = i + 1;
+            }
+        }
+        out.write(aValue, start, length - start);
+    }
+
+    /**
+     * @return the index of the next character (or CRLF sequence) requiring escape, or -1 if no such character
+     */
+    private static int indexOfEscape(final String value, final int fromIndex) {
+        final int length = value.length();
+        for (int i = fromIndex; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' || c == '\n' || c == ',' || c == ';'
+                    || (c == '\r' && i + 1 < length && value.charAt(i + 1) == '\n')) {
+                return i;
+            }
+        }
+        return -1;
     }
     
     /**
@@ -167,21 +229,35 @@ public final class Strings {
      * original form
      */
     public static String unescape(final String aValue) {
-        return unescapeBackslash(unescapeNewline(unescapePunctuation(aValue)));
-    }
-
-    private static String escapePunctuation(String value) {
-        if (value != null) {
-            return value.replaceAll("([,;])", "\\\\$1");
+        if (aValue == null) {
+            return aValue;
         }
-        return value;
-    }
-
-    private static String unescapePunctuation(String value) {
-        if (value != null) {
-            return value.replaceAll("\\\\([,;\"])", "$1");
+        int index = aValue.indexOf('\\');
+        if (index < 0) {
+            return aValue;
         }
-        return value;
+        final int length = aValue.length();
+        final StringBuilder b = new StringBuilder(length);
+        int start = 0;
+        // escape sequences are decoded from left to right, such that an escaped backslash never escapes the
+        // following character..
+        for (; index >= 0 && index + 1 < length; index = aValue.indexOf('\\', start)) {
+            final char c = aValue.charAt(index + 1);
+            if (c == '\\' || c == ',' || c == ';' || c == '"') {
+                b.append(aValue, start, index).append(c);
+                start = index + 2;
+            }
+            else if (c == 'n') {
+                b.append(aValue, start, index).append('\n');
+                start = index + 2;
+            }
+            else {
+                // not an escape sequence..
+                b.append(aValue, start, index + 1);
+                start = index + 1;
+            }
+        }
+        return b.append(aValue, start, length).toString();
     }
 
     public static String escapeNewline(String value) {
@@ -191,27 +267,6 @@ public final class Strings {
         return value;
     }
 
-    private static String unescapeNewline(String value) {
-        if (value != null) {
-            return value.replaceAll("(?<!\\\\)\\\\n", "\n");
-        }
-        return value;
-    }
-
-    private static String escapeBackslash(String value) {
-        if (value != null) {
-            return value.replaceAll("\\\\", "\\\\\\\\");
-        }
-        return value;
-    }
-
-    private static String unescapeBackslash(String value) {
-        if (value != null) {
-            return value.replaceAll("\\\\\\\\", "\\\\");
-        }
-        return value;
-    }
-    
     /**
      * Wraps <code>java.lang.String.valueOf()</code> to return an empty string
      * where the specified object is null.
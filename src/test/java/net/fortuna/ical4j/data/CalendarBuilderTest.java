@@ -36,12 +36,20 @@ import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.ComponentList;
 import net.fortuna.ical4j.model.ValidationException;
+import net.fortuna.ical4j.model.component.CalendarComponent;
 import net.fortuna.ical4j.util.CompatibilityHints;
 
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
@@ -117,6 +125,127 @@ public class CalendarBuilderTest extends TestCase {
         calendar.validate();
     }
     
+    /**
+     * Assert components built via the streaming API are equal to those of the fully built calendar.
+     * @throws IOException
+     * @throws ParserException
+     */
+    public void testBuildComponents() throws IOException, ParserException {
+        final Calendar expected = new CalendarBuilder().build(new FileInputStream(filename));
+        
+        final ComponentList components = new ComponentList();
+        final Calendar calendar = builder.build(fin, new ComponentHandler() {
+            public void component(CalendarComponent component) {
+                components.add(component);
+            }
+        });
+        
+        assertEquals(expected.getProperties(), calendar.getProperties());
+        assertTrue(calendar.getComponents().isEmpty());
+        assertEquals(expected.getComponents().size(), components.size());
+        assertTrue(components.containsAll(expected.getComponents()));
+    }
+    
+    /**
+     * Assert calendars built concurrently are equal to those built sequentially.
+     * @throws IOException
+     * @throws ParserException
+     */
+    public void testBuildConcurrent() throws IOException, ParserException {
+        final Calendar expected = new CalendarBuilder().build(new FileInputStream(filename));
+        
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // use a small chunk size to ensure components are split across tasks..
+            final Calendar calendar = builder.build(new InputStreamReader(fin, "UTF-8"), executor, 1);
+            assertEquals(expected, calendar);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Assert calendars are built sequentially where a custom parser is configured, as the parser can't be applied to
+     * separate chunks concurrently.
+     * @throws IOException
+     * @throws ParserException
+     */
+    public void testBuildConcurrentCustomParser() throws IOException, ParserException {
+        final Calendar expected = new CalendarBuilder().build(new FileInputStream(filename));
+        
+        final int[] parseCount = new int[1];
+        final CalendarParser parser = new CalendarParser() {
+            private final CalendarParser delegate = new CalendarParserImpl();
+            public void parse(InputStream in, ContentHandler handler) throws IOException, ParserException {
+                parseCount[0]++;
+                delegate.parse(in, handler);
+            }
+            public void parse(Reader in, ContentHandler handler) throws IOException, ParserException {
+                parseCount[0]++;
+                delegate.parse(in, handler);
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Calendar calendar = new CalendarBuilder(parser).build(new InputStreamReader(fin, "UTF-8"),
+                    executor, 1);
+            assertEquals(expected, calendar);
+            assertEquals(1, parseCount[0]);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Assert calendars built from memory-mapped files are equal to those built from an input stream.
+     * @throws IOException
+     * @throws ParserException
+     */
+    public void testBuildFile() throws IOException, ParserException {
+        final Calendar expected = builder.build(fin);
+        assertEquals(expected, new CalendarBuilder().build(new File(filename)));
+    }
+    
+    /**
+     * Assert calendars built with deferred parsing of property values are equal to those built eagerly.
+     * @throws IOException
+     * @throws ParserException
+     * @throws ValidationException
+     */
+    public void testBuildDeferred() throws IOException, ParserException, ValidationException {
+        final Calendar expected = new CalendarBuilder().build(new FileInputStream(filename));
+        
+        builder.setDeferredParsing(true);
+        final Calendar calendar = builder.build(fin);
+        assertEquals(expected, calendar);
+        calendar.validate();
+    }
+    
+    /**
+     * Assert calendars built with indexed property and component lists are equal to those built without.
+     * @throws IOException
+     * @throws ParserException
+     * @throws ValidationException
+     */
+    public void testBuildIndexed() throws IOException, ParserException, ValidationException {
+        final Calendar expected = new CalendarBuilder().build(new FileInputStream(filename));
+        
+        builder.setIndexedProperties(true);
+        builder.setIndexedComponents(true);
+        final Calendar calendar = builder.build(fin);
+        assertEquals(expected, calendar);
+        assertTrue(calendar.getProperties().isIndexed());
+        assertTrue(calendar.getComponents().isIndexed());
+        assertEquals(expected.getComponents(Component.VEVENT), calendar.getComponents(Component.VEVENT));
+        assertEquals(expected.getComponents(Component.VTIMEZONE), calendar.getComponents(Component.VTIMEZONE));
+        for (final CalendarComponent component : calendar.getComponents()) {
+            assertTrue(component.getProperties().isIndexed());
+        }
+        calendar.validate();
+    }
+    
     /**
      * @throws IOException
      * @throws ParserException
@@ -164,6 +293,12 @@ public class CalendarBuilderTest extends TestCase {
         for (int i = 0; i < testFiles.length; i++) {
             log.info("Sample [" + testFiles[i] + "]");
             suite.addTest(new CalendarBuilderTest("testBuildValid", testFiles[i].getPath()));
+            suite.addTest(new CalendarBuilderTest("testBuildComponents", testFiles[i].getPath()));
+            suite.addTest(new CalendarBuilderTest("testBuildConcurrent", testFiles[i].getPath()));
+            suite.addTest(new CalendarBuilderTest("testBuildConcurrentCustomParser", testFiles[i].getPath()));
+            suite.addTest(new CalendarBuilderTest("testBuildFile", testFiles[i].getPath()));
+            suite.addTest(new CalendarBuilderTest("testBuildDeferred", testFiles[i].getPath()));
+            suite.addTest(new CalendarBuilderTest("testBuildIndexed", testFiles[i].getPath()));
         }
         
         // invalid tests..
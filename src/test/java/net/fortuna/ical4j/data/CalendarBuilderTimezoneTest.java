@@ -32,6 +32,10 @@
 package net.fortuna.ical4j.data;
 
 import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.TestCase;
 import net.fortuna.ical4j.model.Calendar;
@@ -106,4 +110,105 @@ public class CalendarBuilderTimezoneTest extends TestCase {
                         .getTimeZone().getID());
 
     }
+
+    /**
+     * Test that VTIMEZONES included after VEVENT are registered before the
+     * VEVENT is parsed concurrently.
+     */
+    public void testVTimeZoneAfterVEventConcurrent() throws Exception {
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 20; i++) {
+                // use a small chunk size to ensure each component is parsed by a separate task..
+                Calendar calendar = new CalendarBuilder().build(
+                        new FileReader("etc/samples/valid/evolution.ics"), executor, 1);
+                VEvent vevent = (VEvent) calendar.getComponent(Component.VEVENT);
+
+                DateTime dateTime = (DateTime) vevent.getStartDate().getDate();
+                assertNotNull("timezone not present", dateTime.getTimeZone());
+                assertEquals("timezone not correct",
+                        "/softwarestudio.org/Tzfile/America/Chicago", dateTime
+                                .getTimeZone().getID());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test that components built via the streaming API are deferred until
+     * VTIMEZONES included after them are parsed.
+     */
+    public void testVTimeZoneAfterVEventComponents() throws Exception {
+
+        FileInputStream fin = new FileInputStream(
+                "etc/samples/valid/evolution.ics");
+        CalendarBuilder builder = new CalendarBuilder();
+        
+        final ComponentList<CalendarComponent> comps = new ComponentList<CalendarComponent>();
+        builder.build(fin, new ComponentHandler() {
+            public void component(CalendarComponent component) {
+                comps.add(component);
+            }
+        });
+        
+        // timezone is received before the dependent event..
+        assertEquals(Component.VTIMEZONE, comps.get(0).getName());
+        VEvent vevent = (VEvent) comps.getComponent(Component.VEVENT);
+
+        DtStart dtstart = vevent.getStartDate();
+        DateTime dateTime = (DateTime) dtstart.getDate();
+
+        assertEquals("date value not correct", "20080624T130000", dtstart
+                .getValue());
+        assertNotNull("timezone not present", dateTime.getTimeZone());
+        assertEquals("timezone not correct",
+                "/softwarestudio.org/Tzfile/America/Chicago", dateTime
+                        .getTimeZone().getID());
+    }
+
+    /**
+     * Test that components awaiting timezone definitions via the streaming
+     * API are notified once the maximum number of deferred components is
+     * exceeded.
+     */
+    public void testMaxDeferredComponents() throws Exception {
+
+        final StringBuilder b = new StringBuilder();
+        b.append("BEGIN:VCALENDAR\r\nPRODID:-//test//EN\r\nVERSION:2.0\r\n");
+        for (int i = 0; i < 5; i++) {
+            b.append("BEGIN:VEVENT\r\nUID:").append(i).append("\r\n");
+            b.append("DTSTART;TZID=/test/Zone:20080624T13000").append(i).append("\r\n");
+            b.append("END:VEVENT\r\n");
+        }
+        b.append("BEGIN:VTIMEZONE\r\nTZID:/test/Zone\r\nBEGIN:STANDARD\r\n");
+        b.append("DTSTART:19700101T000000\r\nTZOFFSETFROM:+1000\r\nTZOFFSETTO:+1000\r\n");
+        b.append("END:STANDARD\r\nEND:VTIMEZONE\r\nEND:VCALENDAR\r\n");
+
+        CalendarBuilder builder = new CalendarBuilder();
+        builder.setMaxDeferredComponents(2);
+
+        final ComponentList<CalendarComponent> comps = new ComponentList<CalendarComponent>();
+        builder.build(new StringReader(b.toString()), new ComponentHandler() {
+            public void component(CalendarComponent component) {
+                comps.add(component);
+            }
+        });
+        assertEquals(6, comps.size());
+
+        // earliest events are notified before the timezone is defined..
+        for (int i = 0; i < 3; i++) {
+            VEvent vevent = (VEvent) comps.get(i);
+            assertEquals(String.valueOf(i), vevent.getUid().getValue());
+            assertNull(((DateTime) vevent.getStartDate().getDate()).getTimeZone());
+        }
+        assertEquals(Component.VTIMEZONE, comps.get(3).getName());
+        for (int i = 4; i < 6; i++) {
+            VEvent vevent = (VEvent) comps.get(i);
+            assertEquals(String.valueOf(i - 1), vevent.getUid().getValue());
+            assertEquals("/test/Zone", ((DateTime) vevent.getStartDate().getDate()).getTimeZone().getID());
+        }
+    }
 }
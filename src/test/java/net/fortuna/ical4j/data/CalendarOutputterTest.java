@@ -41,12 +41,18 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 import net.fortuna.ical4j.model.Calendar;
 import net.fortuna.ical4j.model.ValidationException;
+import net.fortuna.ical4j.model.component.VAlarm;
+import net.fortuna.ical4j.model.component.XComponent;
+import net.fortuna.ical4j.model.property.Summary;
 import net.fortuna.ical4j.util.CompatibilityHints;
 
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
@@ -72,7 +78,15 @@ public class CalendarOutputterTest extends TestCase {
      * @param file
      */
     public CalendarOutputterTest(final String file) {
-        super("testOutput");
+        this("testOutput", file);
+    }
+
+    /**
+     * @param testMethod
+     * @param file
+     */
+    public CalendarOutputterTest(final String testMethod, final String file) {
+        super(testMethod);
         this.filename = file;
     }
 
@@ -145,6 +159,62 @@ public class CalendarOutputterTest extends TestCase {
         }
     }
     
+    /**
+     * Test output (including concurrent output) is identical to the folded string representation of the calendar.
+     */
+    public void testOutputEqualsToString() throws Exception {
+        final Calendar calendar;
+        try {
+            calendar = new CalendarBuilder().build(new FileInputStream(filename));
+        }
+        catch (ParserException e) {
+            log.warn("Unable to parse: " + filename + ", skipping");
+            return;
+        }
+        final CalendarOutputter outputter = new CalendarOutputter(false);
+
+        final StringWriter expected = new StringWriter();
+        final FoldingWriter writer = new FoldingWriter(expected);
+        writer.write(calendar.toString());
+        writer.close();
+
+        final StringWriter out = new StringWriter();
+        outputter.output(calendar, out);
+        assertEquals(expected.toString(), out.toString());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final StringWriter concurrentOut = new StringWriter();
+            outputter.output(calendar, concurrentOut, executor, 1);
+            assertEquals(expected.toString(), concurrentOut.toString());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test output of components that write their own sub-components is identical to the string representation.
+     */
+    public void testOutputCustomComponent() throws Exception {
+        final XComponent component = new XComponent("X-CONTAINER") {
+            public void write(final Writer out) throws IOException {
+                out.write("BEGIN:X-CONTAINER\r\n");
+                getProperties().write(out);
+                new VAlarm().write(out);
+                out.write("END:X-CONTAINER\r\n");
+            }
+        };
+        component.getProperties().add(new Summary("Container"));
+        final Calendar calendar = new Calendar();
+        calendar.getComponents().add(component);
+
+        final StringWriter out = new StringWriter();
+        new CalendarOutputter(false).output(calendar, out);
+        assertEquals(calendar.toString(), out.toString());
+        assertTrue(out.toString().contains("BEGIN:VALARM"));
+    }
+
     /* (non-Javadoc)
      * @see junit.framework.TestCase#getName()
      */
@@ -167,6 +237,7 @@ public class CalendarOutputterTest extends TestCase {
         for (int i = 0; i < testFiles.length; i++) {
             log.info("Sample [" + testFiles[i] + "]");
             suite.addTest(new CalendarOutputterTest(testFiles[i].getPath()));
+            suite.addTest(new CalendarOutputterTest("testOutputEqualsToString", testFiles[i].getPath()));
         }
         
         // invalid tests..
@@ -176,6 +247,7 @@ public class CalendarOutputterTest extends TestCase {
             suite.addTest(new CalendarOutputterTest(testFiles[i].getPath()));
         }
 
+        suite.addTest(new CalendarOutputterTest("testOutputCustomComponent", null));
         return suite;
     }
 }
@@ -31,7 +31,11 @@
  */
 package net.fortuna.ical4j.data;
 
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -62,7 +66,16 @@ public class CalendarParserImplTest extends TestCase {
      * @param expectedErrorLineNo
      */
     public CalendarParserImplTest(String filename, int expectedErrorLineNo) {
-        super("testParseException");
+        this("testParseException", filename, expectedErrorLineNo);
+    }
+    
+    /**
+     * @param testMethod
+     * @param filename
+     * @param expectedErrorLineNo
+     */
+    public CalendarParserImplTest(String testMethod, String filename, int expectedErrorLineNo) {
+        super(testMethod);
         this.filename = filename;
         this.expectedErrorLineNo = expectedErrorLineNo;
     }
@@ -98,6 +111,26 @@ public class CalendarParserImplTest extends TestCase {
         }
     }
     
+    /**
+     * Test the accuracy of parser exception line number when parsing concurrently.
+     * @throws IOException
+     */
+    public void testConcurrentParseException() throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // use a small chunk size to ensure components are split across tasks..
+            new CalendarBuilder().build(new InputStreamReader(new FileInputStream(filename), "UTF-8"), executor, 1);
+            fail("Should throw ParserException: [" + filename + "]");
+        }
+        catch (ParserException pe) {
+            LOG.info(pe.getMessage());
+            assertEquals(expectedErrorLineNo, pe.getLineNo());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+    
     /* (non-Javadoc)
      * @see junit.framework.TestCase#getName()
      */
@@ -114,19 +147,28 @@ public class CalendarParserImplTest extends TestCase {
     public static TestSuite suite() {
         TestSuite suite = new TestSuite();
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/google_aus_holidays.ics", 11));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/google_aus_holidays.ics", 11));
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/13-MoonPhase.ics", 215));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/13-MoonPhase.ics", 215));
 
         // CalendarParserImpl thinks this error happened on line 24, but you can
         // see that invalid property "X" starts on line 23, and ends there.
 //        suite.addTest(new CalendarParserImplTest("etc/samples/invalid/CalendarDataFile.ics", 23));
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/CalendarDataFile.ics", 24));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/CalendarDataFile.ics", 24));
         
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/overlaps.ics", 1));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/overlaps.ics", 1));
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/phpicalendar_sample.ics", 93));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/phpicalendar_sample.ics", 93));
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/schedule-unstable.ics", 196));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/schedule-unstable.ics", 196));
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/smallcluster.ics", 2));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/smallcluster.ics", 2));
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/twinkle.ics", 67));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/twinkle.ics", 67));
         suite.addTest(new CalendarParserImplTest("etc/samples/invalid/zidestoreical4jbomb.ics", 10));
+        suite.addTest(new CalendarParserImplTest("testConcurrentParseException", "etc/samples/invalid/zidestoreical4jbomb.ics", 10));
         return suite;
     }
 }
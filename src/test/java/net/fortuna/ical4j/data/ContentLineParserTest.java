@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.util.CompatibilityHints;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2026
+ *
+ * Unit tests for {@link ContentLineParser}.
+ * @author Ben Fortuna
+ */
+public class ContentLineParserTest extends TestCase {
+
+    private static final Log LOG = LogFactory.getLog(ContentLineParserTest.class);
+
+    private File file;
+    
+    private int expectedErrorLineNo;
+    
+    /**
+     * @param testMethod
+     * @param file
+     */
+    public ContentLineParserTest(String testMethod, File file) {
+        super(testMethod);
+        this.file = file;
+    }
+    
+    /**
+     * @param testMethod
+     * @param file
+     * @param expectedErrorLineNo
+     */
+    public ContentLineParserTest(String testMethod, File file, int expectedErrorLineNo) {
+        this(testMethod, file);
+        this.expectedErrorLineNo = expectedErrorLineNo;
+    }
+    
+    /**
+     * @param testMethod
+     */
+    public ContentLineParserTest(String testMethod) {
+        super(testMethod);
+    }
+    
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING, true);
+    }
+    
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#tearDown()
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        CompatibilityHints.clearHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING);
+    }
+    
+    /**
+     * Assert the sequence of content handler events is identical to that of {@link CalendarParserImpl}.
+     * @throws IOException
+     */
+    public void testContentHandlerEvents() throws IOException {
+        RecordingContentHandler expected = new RecordingContentHandler();
+        ParserException expectedException = null;
+        try {
+            new CalendarParserImpl().parse(new UnfoldingReader(newReader(file)), expected);
+        }
+        catch (ParserException pe) {
+            expectedException = pe;
+        }
+
+        RecordingContentHandler actual = new RecordingContentHandler();
+        ParserException actualException = null;
+        try {
+            new ContentLineParser().parse(newReader(file), actual);
+        }
+        catch (ParserException pe) {
+            actualException = pe;
+        }
+
+        assertEquals(expected.events, actual.events);
+        if (expectedException != null) {
+            assertNotNull(actualException);
+            assertEquals(expectedException.getLineNo(), actualException.getLineNo());
+        }
+        else {
+            assertNull(actualException);
+        }
+    }
+    
+    /**
+     * Test the accuracy of parser exception line number.
+     * @throws IOException
+     */
+    public void testParseException() throws IOException {
+        try {
+            new CalendarBuilder(new ContentLineParser()).build(newReader(file));
+            fail("Should throw ParserException: [" + file + "]");
+        }
+        catch (ParserException pe) {
+            LOG.info(pe.getMessage());
+            assertEquals(expectedErrorLineNo, pe.getLineNo());
+        }
+    }
+    
+    /**
+     * Test the accuracy of parser exception line number when parsing concurrently.
+     * @throws IOException
+     */
+    public void testConcurrentParseException() throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new CalendarBuilder(new ContentLineParser()).build(newReader(file), executor, 1);
+            fail("Should throw ParserException: [" + file + "]");
+        }
+        catch (ParserException pe) {
+            LOG.info(pe.getMessage());
+            assertEquals(expectedErrorLineNo, pe.getLineNo());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Test unfolding and splitting of content lines.
+     * @throws Exception
+     */
+    public void testParseFoldedLines() throws Exception {
+        String data = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nSUMMARY;LANGUAGE=en:A long\r\n  summary\r\n"
+            + "ATTENDEE;CN=\"Doe, John\";ROLE=REQ-PARTICIPANT:mailto:jdoe@\r\n\texample.com\r\n"
+            + "END:VEVENT\r\nEND:VCALENDAR\r\n";
+
+        RecordingContentHandler handler = new RecordingContentHandler();
+        new ContentLineParser().parse(new StringReader(data), handler);
+        
+        assertTrue(handler.events.contains("value:A long summary"));
+        assertTrue(handler.events.contains("parameter:CN=\"Doe, John\""));
+        assertTrue(handler.events.contains("parameter:ROLE=REQ-PARTICIPANT"));
+        assertTrue(handler.events.contains("value:mailto:jdoe@example.com"));
+        
+        Calendar calendar = new CalendarBuilder(new ContentLineParser()).build(new StringReader(data));
+        assertEquals("A long summary", calendar.getComponent("VEVENT").getProperty("SUMMARY").getValue());
+    }
+
+    private static Reader newReader(File file) throws IOException {
+        return new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8"));
+    }
+    
+    /**
+     * Overridden to return the current iCalendar file under test.
+     */
+    public final String getName() {
+        if (file != null) {
+            return super.getName() + " [" + file.getName() + "]";
+        }
+        return super.getName();
+    }
+    
+    /**
+     * @return
+     */
+    public static TestSuite suite() {
+        TestSuite suite = new TestSuite();
+        suite.addTest(new ContentLineParserTest("testParseFoldedLines"));
+
+        File[] testFiles = new File("etc/samples/valid").listFiles();
+        for (int i = 0; i < testFiles.length; i++) {
+            if (testFiles[i].isFile()) {
+                suite.addTest(new ContentLineParserTest("testContentHandlerEvents", testFiles[i]));
+            }
+        }
+        testFiles = new File("etc/samples/invalid").listFiles();
+        for (int i = 0; i < testFiles.length; i++) {
+            if (testFiles[i].isFile()) {
+                suite.addTest(new ContentLineParserTest("testContentHandlerEvents", testFiles[i]));
+            }
+        }
+        
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/google_aus_holidays.ics"), 11));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/google_aus_holidays.ics"), 11));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/13-MoonPhase.ics"), 215));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/13-MoonPhase.ics"), 215));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/CalendarDataFile.ics"), 24));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/CalendarDataFile.ics"), 24));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/overlaps.ics"), 1));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/overlaps.ics"), 1));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/phpicalendar_sample.ics"), 93));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/phpicalendar_sample.ics"), 93));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/schedule-unstable.ics"), 196));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/schedule-unstable.ics"), 196));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/smallcluster.ics"), 2));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/smallcluster.ics"), 2));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/twinkle.ics"), 67));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/twinkle.ics"), 67));
+        suite.addTest(new ContentLineParserTest("testParseException", new File("etc/samples/invalid/zidestoreical4jbomb.ics"), 10));
+        suite.addTest(new ContentLineParserTest("testConcurrentParseException", new File("etc/samples/invalid/zidestoreical4jbomb.ics"), 10));
+        return suite;
+    }
+    
+    /**
+     * A content handler that records each event notification.
+     */
+    private static class RecordingContentHandler implements ContentHandler {
+        
+        private final List<String> events = new ArrayList<String>();
+        
+        public void startCalendar() {
+            events.add("startCalendar");
+        }
+        
+        public void endCalendar() {
+            events.add("endCalendar");
+        }
+        
+        public void startComponent(String name) {
+            events.add("startComponent:" + name);
+        }
+        
+        public void endComponent(String name) {
+            events.add("endComponent:" + name);
+        }
+        
+        public void startProperty(String name) {
+            events.add("startProperty:" + name);
+        }
+        
+        public void propertyValue(String value) {
+            events.add("value:" + value);
+        }
+        
+        public void endProperty(String name) {
+            events.add("endProperty:" + name);
+        }
+        
+        public void parameter(String name, String value) {
+            events.add("parameter:" + name + "=" + value);
+        }
+    }
+}
@@ -66,4 +66,56 @@ public class FoldingWriterTest extends TestCase {
         writer.write("VERSION:2.0");
         LOG.info(sw.getBuffer());
     }
+
+    /**
+     * Test lines are folded according to the number of octets in the UTF-8 representation of the line.
+     */
+    public void testFoldOctets() throws IOException {
+        final StringBuilder b = new StringBuilder("SUMMARY:");
+        for (int i = 0; i < 40; i++) {
+            b.append("\u00e9\u20ac");
+        }
+        b.append("\ud834\udd1e");
+        b.append(Strings.LINE_SEPARATOR);
+
+        final StringWriter sw = new StringWriter();
+        final FoldingWriter writer = new FoldingWriter(sw, FoldingWriter.MAX_FOLD_LENGTH);
+        writer.write(b.toString());
+        writer.close();
+
+        final String[] lines = sw.toString().split(Strings.LINE_SEPARATOR);
+        assertTrue(lines.length > 1);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i], lines[i].getBytes("UTF-8").length <= FoldingWriter.MAX_FOLD_LENGTH);
+            // surrogate pairs aren't split..
+            assertFalse(lines[i], Character.isHighSurrogate(lines[i].charAt(lines[i].length() - 1)));
+        }
+        assertEquals(b.toString(), sw.toString().replaceAll(Strings.LINE_SEPARATOR + " ", ""));
+    }
+
+    /**
+     * Test folding of ASCII content is consistent across write methods.
+     */
+    public void testFoldAscii() throws IOException {
+        final StringBuilder b = new StringBuilder("DESCRIPTION:");
+        for (int i = 0; i < 20; i++) {
+            b.append("0123456789");
+        }
+        final String line = b.toString();
+
+        final StringWriter sw = new StringWriter();
+        final FoldingWriter writer = new FoldingWriter(sw);
+        writer.write(line);
+        writer.close();
+        assertEquals(line.substring(0, 73) + "\r\n " + line.substring(73, 145) + "\r\n " + line.substring(145),
+                sw.toString());
+
+        final StringWriter sw2 = new StringWriter();
+        final FoldingWriter writer2 = new FoldingWriter(sw2);
+        for (int i = 0; i < line.length(); i++) {
+            writer2.write(line.charAt(i));
+        }
+        writer2.close();
+        assertEquals(sw.toString(), sw2.toString());
+    }
 }
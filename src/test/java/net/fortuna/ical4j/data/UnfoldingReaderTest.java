@@ -52,6 +52,12 @@ public class UnfoldingReaderTest extends TestCase {
     
     private UnfoldingReader reader;
     
+    private String input;
+    
+    private String expected;
+    
+    private boolean relaxed;
+    
     /**
      * @param input
      */
@@ -67,6 +73,18 @@ public class UnfoldingReaderTest extends TestCase {
         this.reader = reader;
     }
     
+    /**
+     * @param input
+     * @param expected
+     * @param relaxed
+     */
+    public UnfoldingReaderTest(String input, String expected, boolean relaxed) {
+        super("testUnfoldedContent");
+        this.input = input;
+        this.expected = expected;
+        this.relaxed = relaxed;
+    }
+    
     /**
      * @throws IOException
      */
@@ -78,12 +96,63 @@ public class UnfoldingReaderTest extends TestCase {
         }
     }
     
+    /**
+     * Assert unfolded content is identical for all read buffer sizes, including where folds span the end of a block.
+     * @throws IOException
+     */
+    public void testUnfoldedContent() throws IOException {
+        for (int size = 1; size <= input.length() + 1; size++) {
+            UnfoldingReader reader = new UnfoldingReader(new StringReader(input), relaxed);
+            StringBuilder b = new StringBuilder();
+            char[] buffer = new char[size];
+            int read;
+            while ((read = reader.read(buffer, 0, size)) >= 0) {
+                b.append(buffer, 0, read);
+            }
+            assertEquals("Buffer size: " + size, expected, b.toString());
+        }
+
+        UnfoldingReader reader = new UnfoldingReader(new StringReader(input), relaxed);
+        StringBuilder b = new StringBuilder();
+        int c;
+        while ((c = reader.read()) >= 0) {
+            b.append((char) c);
+        }
+        assertEquals(expected, b.toString());
+    }
+    
+    /**
+     * Assert the number of lines unfolded is reported.
+     * @throws IOException
+     */
+    public void testLinesUnfolded() throws IOException {
+        UnfoldingReader reader = new UnfoldingReader(new StringReader("a\r\n b\r\n\tc\r\n\r\n d\n e\r\n"), false);
+        char[] buffer = new char[BUFFER_SIZE];
+        while (reader.read(buffer) >= 0) {
+        }
+        assertEquals(3, reader.getLinesUnfolded());
+    }
+    
     /**
      * @return
      */
     public static TestSuite suite() {
         TestSuite suite = new TestSuite();
         suite.addTest(new UnfoldingReaderTest("a\r\n bc"));
+        
+        suite.addTest(new UnfoldingReaderTest("a\r\n bc", "abc", false));
+        suite.addTest(new UnfoldingReaderTest("a\r\n\tbc\r\n", "abc\r\n", false));
+        suite.addTest(new UnfoldingReaderTest("a\r\n \r\n b\r\nc", "ab\r\nc", false));
+        suite.addTest(new UnfoldingReaderTest("a\r\n\r\n b", "a\r\nb", false));
+        suite.addTest(new UnfoldingReaderTest("a\n b\r\n", "a\n b\r\n", false));
+        suite.addTest(new UnfoldingReaderTest("a\n b\n\tc\r\n d\r", "abcd\r", true));
+        suite.addTest(new UnfoldingReaderTest("a\r b\r\n", "a\r b\r\n", true));
+        suite.addTest(new UnfoldingReaderTest("a\r\n", "a\r\n", false));
+        suite.addTest(new UnfoldingReaderTest("\r\n ", "", false));
+        
+        UnfoldingReaderTest linesUnfoldedTest = new UnfoldingReaderTest("");
+        linesUnfoldedTest.setName("testLinesUnfolded");
+        suite.addTest(linesUnfoldedTest);
         return suite;
     }
 }
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.component.VJournal;
+import net.fortuna.ical4j.model.component.VToDo;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * Unit tests for <code>ComponentList</code>.
+ * @author Ben Fortuna
+ */
+public class ComponentListTest extends TestCase {
+
+    private ComponentList<CalendarComponent> list;
+
+    private CalendarComponent event1;
+
+    private CalendarComponent event2;
+
+    private CalendarComponent todo;
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        list = new ComponentList<CalendarComponent>(true);
+        event1 = new VEvent();
+        event2 = new VEvent();
+        todo = new VToDo();
+        list.add(todo);
+        list.add(event1);
+    }
+
+    /**
+     * Test lookups of indexed components reflect modifications to the list.
+     */
+    public void testIndexedLookup() {
+        assertSame(todo, list.getComponent(Component.VTODO));
+        assertSame(event1, list.getComponent(Component.VEVENT));
+        assertNull(list.getComponent(Component.VJOURNAL));
+        assertTrue(list.getComponents(Component.VJOURNAL).isEmpty());
+
+        list.add(1, event2);
+        assertEquals(Arrays.asList(new Component[] {event2, event1}), list.getComponents(Component.VEVENT));
+
+        final CalendarComponent journal = new VJournal();
+        list.set(0, journal);
+        assertNull(list.getComponent(Component.VTODO));
+        assertSame(journal, list.getComponent(Component.VJOURNAL));
+
+        list.remove(event2);
+        assertEquals(Arrays.asList(new Component[] {event1}), list.getComponents(Component.VEVENT));
+
+        for (final Iterator<CalendarComponent> i = list.iterator(); i.hasNext();) {
+            if (i.next() == event1) {
+                i.remove();
+            }
+        }
+        assertTrue(list.getComponents(Component.VEVENT).isEmpty());
+
+        list.addAll(Arrays.asList(new CalendarComponent[] {event1, todo}));
+        assertSame(event1, list.getComponent(Component.VEVENT));
+        assertSame(todo, list.getComponent(Component.VTODO));
+
+        list.subList(0, 2).clear();
+        assertNull(list.getComponent(Component.VJOURNAL));
+        assertNull(list.getComponent(Component.VEVENT));
+        assertNotNull(list.getComponent(Component.VTODO));
+
+        list.clear();
+        assertNull(list.getComponent(Component.VTODO));
+    }
+
+    /**
+     * Test lists returned by lookups of indexed components are read-only, cached, and reflect subsequent
+     * modifications.
+     */
+    public void testIndexedLookupResult() {
+        final ComponentList<VEvent> events = list.getComponents(Component.VEVENT);
+        assertSame(events, list.getComponents(Component.VEVENT));
+        try {
+            events.add((VEvent) event2);
+            fail("Should throw UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            assertEquals(1, events.size());
+        }
+
+        list.add(event2);
+        assertEquals(Arrays.asList(new Component[] {event1, event2}), events);
+
+        // components may be removed while iterating over a view..
+        for (final VEvent event : events) {
+            list.remove(event);
+        }
+        assertTrue(events.isEmpty());
+
+        // views reflect bulk modifications..
+        final ComponentList<VJournal> journals = list.getComponents(Component.VJOURNAL);
+        list.addAll(0, Arrays.asList(new CalendarComponent[] {new VJournal(), event1}));
+        assertEquals(1, journals.size());
+        assertEquals(Arrays.asList(new Component[] {event1}), events);
+    }
+
+    /**
+     * Test lookups of components that aren't indexed.
+     */
+    public void testLookup() {
+        final ComponentList<CalendarComponent> unindexed = new ComponentList<CalendarComponent>();
+        unindexed.addAll(list);
+        assertFalse(unindexed.isIndexed());
+        assertSame(event1, unindexed.getComponent(Component.VEVENT));
+
+        final ComponentList<CalendarComponent> events = unindexed.getComponents(Component.VEVENT);
+        assertNotSame(events, unindexed.getComponents(Component.VEVENT));
+        events.add(event2);
+        assertEquals(1, unindexed.getComponents(Component.VEVENT).size());
+    }
+}
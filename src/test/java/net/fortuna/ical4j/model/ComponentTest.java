@@ -41,7 +41,10 @@ import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.component.CalendarComponent;
 import net.fortuna.ical4j.model.property.DtEnd;
 import net.fortuna.ical4j.model.property.DtStart;
+import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.model.property.Due;
+import net.fortuna.ical4j.model.property.ExDate;
+import net.fortuna.ical4j.model.property.ExRule;
 import net.fortuna.ical4j.model.property.RRule;
 import net.fortuna.ical4j.util.CompatibilityHints;
 
@@ -188,6 +191,26 @@ public class ComponentTest extends TestCase {
         expectedPeriods.add(new Period("20080622T000000Z/P1D"));
         expectedPeriods.add(new Period("20080629T000000Z/P1D"));
         suite.addTest(new ComponentTest("testCalculateRecurrenceSet", component, new Period(new DateTime("20080601T000000Z"), new Dur(6)), expectedPeriods));
+
+        component = new Component("test") {
+            public void validate(boolean recurse) throws ValidationException {
+            }
+        };
+        // daily 10am-12pm excluding date-time and date exceptions, and every third day..
+        component.getProperties().add(new DtStart("20080601T100000Z"));
+        component.getProperties().add(new DtEnd("20080601T120000Z"));
+        component.getProperties().add(new RRule(new Recur(Recur.DAILY, 10)));
+        component.getProperties().add(new ExDate(new DateList("20080602T100000Z,20080605T110000Z", Value.DATE_TIME)));
+        component.getProperties().add(new ExDate(new DateList("20080608", Value.DATE)));
+        component.getProperties().add(new ExRule(new Recur("FREQ=DAILY;INTERVAL=3;COUNT=2")));
+        expectedPeriods = new PeriodList();
+        expectedPeriods.add(new Period("20080603T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080605T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080606T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080607T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080609T100000Z/PT2H"));
+        expectedPeriods.add(new Period("20080610T100000Z/PT2H"));
+        suite.addTest(new ComponentTest("testCalculateRecurrenceSet", component, new Period(new DateTime("20080601T000000Z"), new Dur(14, 0, 0, 0)), expectedPeriods));
         return suite;
     }
 }
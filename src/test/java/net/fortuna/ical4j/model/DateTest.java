@@ -36,6 +36,7 @@ import java.util.Calendar;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import net.fortuna.ical4j.util.CompatibilityHints;
 import net.fortuna.ical4j.util.TimeZones;
 
 /**
@@ -54,6 +55,13 @@ public class DateTest extends TestCase {
     
     private String expectedString;
     
+    /**
+     * @param testMethod
+     */
+    public DateTest(String testMethod) {
+        super(testMethod);
+    }
+
     /**
      * @param date
      * @param expectedString
@@ -88,11 +96,40 @@ public class DateTest extends TestCase {
         assertEquals(date2, date);
     }
     
+    /**
+     * Test parsing of invalid date values, which are only accepted where relaxed parsing is enabled.
+     */
+    public void testDateString() throws ParseException {
+        final String[] invalidValues = {"20050230", "20051301", "200506301", "2005063", "2005O630"};
+        for (int i = 0; i < invalidValues.length; i++) {
+            try {
+                new Date(invalidValues[i]);
+                fail("Should throw ParseException: " + invalidValues[i]);
+            }
+            catch (ParseException pe) {
+                // expected..
+            }
+        }
+
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, true);
+        try {
+            assertEquals(new Date("20050302"), new Date("20050230"));
+            assertEquals(new Date("20060101"), new Date("20051301"));
+            assertEquals(new Date("20050630"), new Date("20050630T093000"));
+        }
+        finally {
+            CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, false);
+        }
+    }
+
     /* (non-Javadoc)
      * @see junit.framework.TestCase#getName()
      */
     public String getName() {
-        return super.getName() + " [" + date.toString() + "]";
+        if (date != null) {
+            return super.getName() + " [" + date.toString() + "]";
+        }
+        return super.getName();
     }
     
     /**
@@ -129,6 +166,8 @@ public class DateTest extends TestCase {
         calendar.clear(Calendar.SECOND);
         calendar.clear(Calendar.MILLISECOND);
         suite.addTest(new DateTest(new Date("20050101"), calendar.getTime()));
+
+        suite.addTest(new DateTest("testDateString"));
         return suite;
     }
 }
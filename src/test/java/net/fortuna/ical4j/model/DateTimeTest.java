@@ -34,7 +34,9 @@ package net.fortuna.ical4j.model;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -171,6 +173,101 @@ public class DateTimeTest extends TestCase {
         assertFalse(date5.isUtc());
     }
     
+    /**
+     * Test parsing date-times concurrently in different timezones.
+     */
+    public void testParseConcurrent() throws Exception {
+        final String[] tzIds = {"Australia/Melbourne", "America/Los_Angeles", "Europe/London", TimeZones.UTC_ID};
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        final Thread[] threads = new Thread[tzIds.length * 2];
+        for (int i = 0; i < threads.length; i++) {
+            final TimeZone timezone = registry.getTimeZone(tzIds[i % tzIds.length]);
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        final DateFormat expectedFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss");
+                        expectedFormat.setTimeZone(timezone);
+                        final DateFormat utcFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss");
+                        utcFormat.setTimeZone(TimeZones.getUtcTimeZone());
+                        for (int day = 1; day <= 28; day++) {
+                            for (int month = 1; month <= 12; month++) {
+                                final String value = "2011" + (month < 10 ? "0" : "") + month
+                                    + (day < 10 ? "0" : "") + day + "T123000";
+                                assertEquals(value, expectedFormat.parse(value).getTime(),
+                                        new DateTime(value, timezone).getTime());
+                                assertEquals(value, utcFormat.parse(value).getTime(),
+                                        new DateTime(value + "Z").getTime());
+                            }
+                        }
+                    }
+                    catch (Throwable t) {
+                        synchronized (errors) {
+                            errors.add(t);
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    /**
+     * Test relaxed parsing of dates without a timezone uses the default timezone.
+     */
+    public void testRelaxedParsing() throws Exception {
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, true);
+        try {
+            new DateTime("20050630", registry.getTimeZone("Australia/Melbourne"));
+            final DateTime dateTime = new DateTime("20050630");
+            final Calendar cal = Calendar.getInstance();
+            cal.clear();
+            cal.set(2005, 5, 30);
+            assertEquals(cal.getTimeInMillis(), dateTime.getTime());
+        }
+        finally {
+            CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, false);
+        }
+    }
+
+    /**
+     * Test parsing of local times either side of daylight savings transitions is consistent with
+     * {@link SimpleDateFormat}, such that times skipped by a transition are rejected.
+     */
+    public void testParseTransitions() throws Exception {
+        final String[] tzIds = {"Australia/Melbourne", "America/New_York", "Australia/Lord_Howe"};
+        for (int i = 0; i < tzIds.length; i++) {
+            final TimeZone timezone = registry.getTimeZone(tzIds[i]);
+            final DateFormat expectedFormat = new SimpleDateFormat("yyyyMMdd'T'HHmmss");
+            expectedFormat.setTimeZone(timezone);
+            expectedFormat.setLenient(false);
+            final String[] days = {"20070325", "20071007", "20070311", "20071104"};
+            for (int j = 0; j < days.length; j++) {
+                for (int minutes = 0; minutes < 24 * 60; minutes += 15) {
+                    final String value = days[j] + "T" + (minutes < 600 ? "0" : "") + minutes / 60
+                        + (minutes % 60 < 10 ? "0" : "") + minutes % 60 + "00";
+                    java.util.Date expected = null;
+                    try {
+                        expected = expectedFormat.parse(value);
+                    }
+                    catch (ParseException pe) {
+                        // local time skipped by a transition..
+                    }
+                    try {
+                        final DateTime dateTime = new DateTime(value, timezone);
+                        assertEquals(tzIds[i] + ": " + value, expected, new java.util.Date(dateTime.getTime()));
+                    }
+                    catch (ParseException pe) {
+                        assertNull(tzIds[i] + ": " + value, expected);
+                    }
+                }
+            }
+        }
+    }
+
     public String getName() {
         if (StringUtils.isNotEmpty(expectedToString)) {
             return super.getName() + " [" + expectedToString + "]";
@@ -230,6 +327,9 @@ public class DateTimeTest extends TestCase {
         suite.addTest(new DateTimeTest("testDateTimeString"));
         suite.addTest(new DateTimeTest("testDateTimeEquals"));
         suite.addTest(new DateTimeTest("testUtc"));
+        suite.addTest(new DateTimeTest("testParseConcurrent"));
+        suite.addTest(new DateTimeTest("testRelaxedParsing"));
+        suite.addTest(new DateTimeTest("testParseTransitions"));
         
         return suite;
     }
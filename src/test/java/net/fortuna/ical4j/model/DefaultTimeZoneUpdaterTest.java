@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.component.Observance;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.ResourceLoader;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * Unit tests for <code>DefaultTimeZoneUpdater</code>.
+ * @author Ben Fortuna
+ */
+public class DefaultTimeZoneUpdaterTest extends TestCase {
+
+    private static final long HOUR = 60 * 60 * 1000;
+
+    /**
+     * Retrieves updates in the calling thread.
+     */
+    private static final Executor SYNCHRONOUS_EXECUTOR = new Executor() {
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private File dir;
+
+    private File cacheDir;
+
+    private File updateFile;
+
+    private String definition;
+
+    private VTimeZone vTimeZone;
+
+    private final List<VTimeZone> updates = new ArrayList<VTimeZone>();
+
+    private final TimeZoneUpdater.Callback callback = new TimeZoneUpdater.Callback() {
+        public void updated(final VTimeZone vTimeZone) {
+            updates.add(vTimeZone);
+        }
+    };
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = File.createTempFile("ical4j", "");
+        dir.delete();
+        dir.mkdirs();
+        cacheDir = new File(dir, "cache");
+        updateFile = new File(dir, "London.ics");
+
+        // a definition that identifies the update location as a local file..
+        final InputStream in = ResourceLoader.getResourceAsStream("zoneinfo/Europe/London.ics");
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int b = in.read(); b >= 0; b = in.read()) {
+            data.write(b);
+        }
+        in.close();
+        definition = data.toString("UTF-8").replaceAll("TZURL:.*", "TZURL:" + updateFile.toURI());
+        vTimeZone = (VTimeZone) new CalendarBuilder().build(new ByteArrayInputStream(definition.getBytes("UTF-8")))
+                .getComponent(Component.VTIMEZONE);
+    }
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#tearDown()
+     */
+    protected void tearDown() throws Exception {
+        delete(dir);
+        super.tearDown();
+    }
+
+    private static void delete(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++) {
+                delete(files[i]);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Publishes an update at the update location with the specified standard time name.
+     */
+    private void publishUpdate(final String tzName) throws Exception {
+        final OutputStream out = new FileOutputStream(updateFile);
+        try {
+            out.write(definition.replaceAll("TZNAME:GMT", "TZNAME:" + tzName).getBytes("UTF-8"));
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private String getTzName(final int index) {
+        final VTimeZone update = updates.get(index);
+        return update.getObservances().getComponent(Observance.STANDARD).getProperty(Property.TZNAME).getValue();
+    }
+
+    /**
+     * Test updates are retrieved from the update location and cached.
+     */
+    public void testUpdate() throws Exception {
+        publishUpdate("UPD");
+        new DefaultTimeZoneUpdater(cacheDir, HOUR, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+        assertEquals(1, updates.size());
+        assertEquals("UPD", getTzName(0));
+        assertEquals(1, cacheDir.listFiles().length);
+    }
+
+    /**
+     * Test cached updates are used within the cache period, and where the update location is unavailable.
+     */
+    public void testCachedUpdate() throws Exception {
+        publishUpdate("UPD");
+        new DefaultTimeZoneUpdater(cacheDir, HOUR, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+
+        // cached update is used within the cache period..
+        publishUpdate("UPD2");
+        new DefaultTimeZoneUpdater(cacheDir, HOUR, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+        assertEquals("UPD", getTzName(1));
+
+        // expired update is replaced..
+        new DefaultTimeZoneUpdater(cacheDir, 0, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+        assertEquals("UPD2", getTzName(2));
+
+        // expired update is used where the update location is unavailable..
+        updateFile.delete();
+        new DefaultTimeZoneUpdater(cacheDir, 0, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+        assertEquals("UPD2", getTzName(3));
+        assertEquals(4, updates.size());
+    }
+
+    /**
+     * Test the callback is not notified where no update is available.
+     */
+    public void testNoUpdate() throws Exception {
+        // update location unavailable..
+        new DefaultTimeZoneUpdater(cacheDir, HOUR, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+        // caching disabled..
+        new DefaultTimeZoneUpdater(null, HOUR, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+        // no update location..
+        vTimeZone.getProperties().remove(vTimeZone.getTimeZoneUrl());
+        publishUpdate("UPD");
+        new DefaultTimeZoneUpdater(cacheDir, HOUR, SYNCHRONOUS_EXECUTOR).update(vTimeZone, callback);
+        assertTrue(updates.isEmpty());
+    }
+}
@@ -33,11 +33,14 @@ package net.fortuna.ical4j.model;
 
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import junit.framework.TestCase;
 import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.Uid;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -75,6 +78,95 @@ public class IndexedComponentListTest extends TestCase {
             + " (" + (System.currentTimeMillis() - start) + "ms)");
     }
     
+    /**
+     * Test the index reflects components added, removed and updated via the index.
+     */
+    public void testIncrementalIndexing() throws Exception {
+        final ComponentList<VEvent> events = new ComponentList<VEvent>();
+        final VEvent event1 = createEvent("1");
+        final VEvent event2 = createEvent("2");
+        events.add(event1);
+        final IndexedComponentList<VEvent> list = new IndexedComponentList<VEvent>(events, Property.UID);
+        assertSame(event1, list.getComponent("1"));
+        assertNull(list.getComponent("2"));
+
+        list.add(event2);
+        assertEquals(Arrays.asList(new VEvent[] {event1, event2}), events);
+        assertSame(event2, list.getComponent("2"));
+
+        // components with equal properties are distinguished by instance..
+        final VEvent override = createEvent("1");
+        list.add(override);
+        assertEquals(2, list.getComponents("1").size());
+        assertTrue(list.remove(override));
+        assertEquals(Arrays.asList(new VEvent[] {event1}), list.getComponents("1"));
+        assertSame(event1, events.get(0));
+        assertFalse(list.remove(override));
+
+        event2.getProperty(Property.UID).setValue("1");
+        list.update(event2);
+        assertNull(list.getComponent("2"));
+        assertEquals(Arrays.asList(new VEvent[] {event1, event2}), list.getComponents("1"));
+
+        event1.getProperty(Property.UID).setValue("3");
+        list.update(event1);
+        assertEquals(Arrays.asList(new VEvent[] {event2}), list.getComponents("1"));
+        assertSame(event1, list.getComponent("3"));
+
+        assertTrue(list.remove(event2));
+        assertTrue(list.getComponents("1").isEmpty());
+        assertEquals(Arrays.asList(new VEvent[] {event1}), events);
+    }
+
+    /**
+     * Test the index reflects modifications made directly to the underlying list.
+     */
+    public void testListModification() throws Exception {
+        final ComponentList<VEvent> events = new ComponentList<VEvent>();
+        final IndexedComponentList<VEvent> list = new IndexedComponentList<VEvent>(events, Property.UID);
+        final VEvent event = createEvent("1");
+        events.add(event);
+        assertSame(event, list.getComponent("1"));
+
+        final VEvent replacement = createEvent("2");
+        events.set(0, replacement);
+        assertNull(list.getComponent("1"));
+        assertSame(replacement, list.getComponent("2"));
+
+        events.clear();
+        assertNull(list.getComponent("2"));
+    }
+
+    /**
+     * Test lookups don't return components where the indexed property has been removed or replaced.
+     */
+    public void testPropertyModification() throws Exception {
+        final ComponentList<VEvent> events = new ComponentList<VEvent>();
+        final VEvent event1 = createEvent("1");
+        final VEvent event2 = createEvent("2");
+        events.add(event1);
+        events.add(event2);
+        final IndexedComponentList<VEvent> list = new IndexedComponentList<VEvent>(events, Property.UID);
+
+        event1.getProperties().remove(event1.getProperty(Property.UID));
+        assertTrue(list.getComponents("1").isEmpty());
+
+        event2.getProperties().set(event2.getProperties().indexOf(event2.getProperty(Property.UID)), new Uid("1"));
+        assertNull(list.getComponent("2"));
+        assertEquals(Arrays.asList(new VEvent[] {event2}), list.getComponents("1"));
+
+        // added properties must be notified..
+        event1.getProperties().add(new Uid("1"));
+        list.update(event1);
+        assertEquals(Arrays.asList(new VEvent[] {event1, event2}), list.getComponents("1"));
+    }
+
+    private VEvent createEvent(final String uid) {
+        final VEvent event = new VEvent();
+        event.getProperties().add(new Uid(uid));
+        return event;
+    }
+
     /**
      * Perform manual indexing.
      */
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.model.property.Attendee;
+import net.fortuna.ical4j.model.property.Description;
+import net.fortuna.ical4j.model.property.Summary;
+import net.fortuna.ical4j.model.property.XProperty;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * Unit tests for <code>PropertyList</code>.
+ * @author Ben Fortuna
+ */
+public class PropertyListTest extends TestCase {
+
+    private PropertyList list;
+
+    private Property summary;
+
+    private Property attendee1;
+
+    private Property attendee2;
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        list = new PropertyList(true);
+        summary = new Summary("Summary");
+        attendee1 = new Attendee("mailto:one@example.com");
+        attendee2 = new Attendee("mailto:two@example.com");
+        list.add(summary);
+        list.add(attendee1);
+    }
+
+    /**
+     * Test lookups of indexed properties reflect modifications to the list.
+     */
+    public void testIndexedLookup() {
+        assertSame(summary, list.getProperty(Property.SUMMARY));
+        assertSame(attendee1, list.getProperty("attendee"));
+        assertNull(list.getProperty(Property.DESCRIPTION));
+        assertTrue(list.getProperties(Property.DESCRIPTION).isEmpty());
+
+        list.add(1, attendee2);
+        assertEquals(Arrays.asList(new Property[] {attendee2, attendee1}), list.getProperties(Property.ATTENDEE));
+
+        final Property description = new Description("Description");
+        list.set(0, description);
+        assertNull(list.getProperty(Property.SUMMARY));
+        assertSame(description, list.getProperty(Property.DESCRIPTION));
+
+        list.remove(attendee2);
+        assertEquals(Arrays.asList(new Property[] {attendee1}), list.getProperties(Property.ATTENDEE));
+
+        for (final Iterator<Property> i = list.iterator(); i.hasNext();) {
+            if (i.next() == attendee1) {
+                i.remove();
+            }
+        }
+        assertTrue(list.getProperties(Property.ATTENDEE).isEmpty());
+
+        list.addAll(Arrays.asList(new Property[] {attendee1, new XProperty("X-TEST", "test")}));
+        assertSame(attendee1, list.getProperty(Property.ATTENDEE));
+        assertEquals("test", list.getProperty("X-TEST").getValue());
+
+        list.subList(0, 2).clear();
+        assertNull(list.getProperty(Property.DESCRIPTION));
+        assertNull(list.getProperty(Property.ATTENDEE));
+        assertNotNull(list.getProperty("X-TEST"));
+
+        list.clear();
+        assertNull(list.getProperty("X-TEST"));
+    }
+
+    /**
+     * Test lists returned by lookups of indexed properties are read-only, cached, and unaffected by subsequent
+     * modifications.
+     */
+    public void testIndexedLookupResult() {
+        final PropertyList attendees = list.getProperties(Property.ATTENDEE);
+        assertSame(attendees, list.getProperties(Property.ATTENDEE));
+        try {
+            attendees.add(attendee2);
+            fail("Should throw UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe) {
+            assertEquals(1, attendees.size());
+        }
+
+        // properties may be removed while iterating over a previous result..
+        list.add(attendee2);
+        for (final Property attendee : list.getProperties(Property.ATTENDEE)) {
+            list.remove(attendee);
+        }
+        assertEquals(Arrays.asList(new Property[] {attendee1}), attendees);
+        assertTrue(list.getProperties(Property.ATTENDEE).isEmpty());
+    }
+
+    /**
+     * Test lookups of properties that aren't indexed.
+     */
+    public void testLookup() {
+        final PropertyList unindexed = new PropertyList();
+        unindexed.addAll(list);
+        assertFalse(unindexed.isIndexed());
+        assertSame(attendee1, unindexed.getProperty(Property.ATTENDEE));
+
+        final PropertyList attendees = unindexed.getProperties(Property.ATTENDEE);
+        assertNotSame(attendees, unindexed.getProperties(Property.ATTENDEE));
+        attendees.add(attendee2);
+        assertEquals(1, unindexed.getProperties(Property.ATTENDEE).size());
+    }
+}
@@ -32,9 +32,11 @@
 package net.fortuna.ical4j.model;
 
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
 
@@ -287,6 +289,39 @@ public class RecurTest extends TestCase {
         }
     }
     
+    /**
+     * Assert dates returned by a recurrence iterator are equal to those returned by getDates().
+     */
+    public void testIterator() {
+        final DateList expected = recur.getDates(seed, periodStart, periodEnd, value);
+        
+        final List<Date> dates = new ArrayList<Date>();
+        for (final Iterator<Date> i = recur.iterator(seed, periodStart, value); i.hasNext();) {
+            final Date date = i.next();
+            if (!date.before(periodEnd)) {
+                break;
+            }
+            dates.add(date);
+        }
+        assertEquals(new ArrayList<Date>(expected), dates);
+    }
+    
+    /**
+     * Assert dates returned for a period long after the seed date are equal to those expanded from the seed date.
+     */
+    public void testGetDatesFastForward() {
+        final DateList expected = recur.getDates(seed, seed, periodEnd, value);
+        for (final Iterator<Date> i = expected.iterator(); i.hasNext();) {
+            if (i.next().before(periodStart)) {
+                i.remove();
+            }
+        }
+        final DateList dates = recur.getDates(seed, periodStart, periodEnd, value);
+        assertFalse(dates.isEmpty());
+        assertEquals(expected, dates);
+        assertEquals(expected.get(0), recur.getNextDate(seed, new DateTime(periodStart.getTime() - 1)));
+    }
+    
     /**
      * @throws ParseException
      */
@@ -826,6 +861,45 @@ public class RecurTest extends TestCase {
         recur = new Recur("FREQ=YEARLY;COUNT=4;INTERVAL=2;BYMONTH=1,2,3;BYMONTHDAY=-1");
         suite.addTest(new RecurTest(recur, seed, periodStart, new DateTime("20100131T070000")));
         
+        // fast-forward to period..
+        final net.fortuna.ical4j.model.TimeZone melbourne = tzreg.getTimeZone("Australia/Melbourne");
+        suite.addTest(new RecurTest("testGetDatesFastForward", new Recur("FREQ=DAILY"),
+                new DateTime("19800101T093000", melbourne), new DateTime("20120101T000000", melbourne),
+                new DateTime("20120201T000000", melbourne), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesFastForward", new Recur("FREQ=DAILY;INTERVAL=3;BYHOUR=9,17"),
+                new DateTime("19800101T090000Z"), new DateTime("20120101T000000Z"),
+                new DateTime("20120201T000000Z"), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesFastForward", new Recur("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,FR"),
+                new DateTime("19800101T090000", melbourne), new DateTime("20120101T000000", melbourne),
+                new DateTime("20120401T000000", melbourne), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesFastForward", new Recur("FREQ=HOURLY;INTERVAL=5"),
+                new DateTime("20070101T013000", melbourne), new DateTime("20120101T000000", melbourne),
+                new DateTime("20120108T000000", melbourne), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesFastForward", new Recur("FREQ=MINUTELY;INTERVAL=7"),
+                new DateTime("20111201T000000Z"), new DateTime("20120101T000000Z"),
+                new DateTime("20120102T000000Z"), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesFastForward", new Recur("FREQ=SECONDLY;INTERVAL=13"),
+                new DateTime("20111231T000000Z"), new DateTime("20120101T000000Z"),
+                new DateTime("20120101T010000Z"), Value.DATE_TIME));
+        suite.addTest(new RecurTest("testGetDatesFastForward", new Recur("FREQ=DAILY;INTERVAL=2"),
+                new Date("19800101"), new Date("20120101"), new Date("20120201"), Value.DATE));
+        
+        // recurrence iterators..
+        final String[] rules = new String[] {"FREQ=DAILY", "FREQ=DAILY;COUNT=10;INTERVAL=2",
+                "FREQ=WEEKLY;UNTIL=20120301T000000Z;BYDAY=MO,WE,FR", "FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1",
+                "FREQ=MONTHLY;COUNT=20;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=1,-1", "FREQ=YEARLY;BYMONTH=1,7;BYDAY=SU;BYHOUR=9,17",
+                "FREQ=HOURLY;INTERVAL=5;COUNT=100", "FREQ=DAILY;COUNT=60;BYDAY=TU,TH;BYSETPOS=2"};
+        seed = new DateTime("19800101T090000Z");
+        for (int i = 0; i < rules.length; i++) {
+            recur = new Recur(rules[i]);
+            suite.addTest(new RecurTest("testIterator", recur, seed, seed, new DateTime("19820101T000000Z"),
+                    Value.DATE_TIME));
+            suite.addTest(new RecurTest("testIterator", recur, seed, new DateTime("20120101T000000Z"),
+                    new DateTime("20120108T000000Z"), Value.DATE_TIME));
+            suite.addTest(new RecurTest("testIterator", recur, new Date("19800101"), new Date("19800201"),
+                    new Date("19810101"), Value.DATE));
+        }
+        
         return suite;
     }
 }
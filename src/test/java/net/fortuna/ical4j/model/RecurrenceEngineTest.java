@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Random;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.model.parameter.Value;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2026
+ *
+ * Compares the candidates generated by {@link RecurrenceEngine} with those generated via
+ * <code>java.util.Calendar</code> for randomly generated recurrence rules.
+ *
+ * @author Ben Fortuna
+ */
+public class RecurrenceEngineTest extends TestCase {
+
+    private static final String[] FREQUENCIES = {Recur.SECONDLY, Recur.MINUTELY, Recur.HOURLY, Recur.DAILY,
+        Recur.WEEKLY, Recur.MONTHLY, Recur.YEARLY};
+
+    private static final String[] DAYS = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+
+    private static final String[] TIMEZONES = {"Australia/Melbourne", "America/New_York", "America/Sao_Paulo",
+        "Australia/Lord_Howe", "Europe/London"};
+
+    private TimeZone originalDefault;
+
+    private Random random;
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        originalDefault = TimeZone.getDefault();
+        random = new Random(20261017L);
+    }
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#tearDown()
+     */
+    protected void tearDown() throws Exception {
+        TimeZone.setDefault(originalDefault);
+    }
+
+    /**
+     * Date-time candidates.
+     */
+    public void testDateTimeCandidates() throws ParseException {
+        assertCandidates(Value.DATE_TIME, 5000);
+    }
+
+    /**
+     * Date candidates.
+     */
+    public void testDateCandidates() throws ParseException {
+        assertCandidates(Value.DATE, 5000);
+    }
+
+    /**
+     * Negative month days are resolved in the default timezone.
+     */
+    public void testCandidatesNonUtcDefault() throws ParseException {
+        TimeZone.setDefault(TimeZone.getTimeZone("Australia/Melbourne"));
+        assertCandidates(Value.DATE_TIME, 2000);
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        assertCandidates(Value.DATE_TIME, 2000);
+    }
+
+    /**
+     * Date-times with a timezone, including local times skipped or repeated at offset transitions.
+     */
+    public void testZonedCandidates() throws ParseException {
+        final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+        for (int i = 0; i < TIMEZONES.length; i++) {
+            assertZonedCandidates(registry.getTimeZone(TIMEZONES[i]), 1000);
+        }
+    }
+
+    /**
+     * Floating date-times are expanded in the default timezone.
+     */
+    public void testFloatingCandidates() throws ParseException {
+        for (int i = 0; i < TIMEZONES.length; i++) {
+            TimeZone.setDefault(TimeZone.getTimeZone(TIMEZONES[i]));
+            assertZonedCandidates(null, 1000);
+        }
+    }
+
+    /**
+     * Local times skipped or repeated at offset transitions are resolved as per <code>java.util.Calendar</code>.
+     */
+    public void testTransitionCandidates() throws ParseException {
+        final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+        final net.fortuna.ical4j.model.TimeZone timezone = registry.getTimeZone("Australia/Melbourne");
+        final String[] rules = {"FREQ=DAILY;BYHOUR=1,2,3;BYMINUTE=30", "FREQ=MONTHLY;BYMONTHDAY=4,5,6",
+                "FREQ=MONTHLY;BYDAY=1SU,SA", "FREQ=YEARLY;BYMONTH=4,10;BYDAY=1SU", "FREQ=WEEKLY;BYDAY=SU;WKST=SU",
+                "FREQ=MONTHLY;BYMONTHDAY=-26,6;BYDAY=SU"};
+        final String[] seeds = {"20080406T023000", "20081005T033000", "20080405T023000", "20081004T023000"};
+        for (int i = 0; i < rules.length; i++) {
+            for (int j = 0; j < seeds.length; j++) {
+                final DateTime seed = new DateTime(seeds[j], timezone);
+                assertTrue(assertCandidates(new Recur(rules[i]), seed, Value.DATE_TIME));
+                // the earlier of a repeated local time..
+                seed.setTime(seed.getTime() - 60 * 60 * 1000);
+                assertTrue(assertCandidates(new Recur(rules[i]), seed, Value.DATE_TIME));
+            }
+        }
+    }
+
+    /**
+     * Rules with BYWEEKNO or BYYEARDAY parts and dates in a non-UTC timezone are not supported.
+     */
+    public void testUnsupported() throws ParseException {
+        final DateTime utc = new DateTime("20121017T093000Z");
+        assertNull(new RecurrenceEngine(new Recur("FREQ=YEARLY;BYWEEKNO=20")).getCandidates(utc, Value.DATE_TIME));
+        assertNull(new RecurrenceEngine(new Recur("FREQ=YEARLY;BYYEARDAY=100")).getCandidates(utc,
+                Value.DATE_TIME));
+        assertNotNull(new RecurrenceEngine(new Recur("FREQ=DAILY")).getCandidates(utc, Value.DATE_TIME));
+
+        final TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+        final DateTime local = new DateTime("20121017T093000", registry.getTimeZone("Australia/Melbourne"));
+        assertNull(new RecurrenceEngine(new Recur("FREQ=YEARLY;BYWEEKNO=20")).getCandidates(local,
+                Value.DATE_TIME));
+        assertNotNull(new RecurrenceEngine(new Recur("FREQ=DAILY")).getCandidates(local, Value.DATE_TIME));
+    }
+
+    private void assertCandidates(final Value value, final int count) throws ParseException {
+        int supported = 0;
+        for (int i = 0; i < count; i++) {
+            final Recur recur = new Recur(createRule());
+            final long time = createTime();
+            final Date seed;
+            if (Value.DATE.equals(value)) {
+                seed = new Date(time);
+            }
+            else {
+                seed = new DateTime(time / 1000 * 1000);
+                ((DateTime) seed).setUtc(true);
+            }
+            if (assertCandidates(recur, seed, value)) {
+                supported++;
+            }
+        }
+        assertTrue(supported > count * 9 / 10);
+    }
+
+    /**
+     * @param timezone the timezone of the seed date-times, or null for floating date-times
+     */
+    private void assertZonedCandidates(final net.fortuna.ical4j.model.TimeZone timezone, final int count)
+            throws ParseException {
+        int supported = 0;
+        final Calendar cal;
+        if (timezone != null) {
+            cal = Calendar.getInstance(timezone);
+        }
+        else {
+            cal = Calendar.getInstance();
+        }
+        for (int i = 0; i < count; i++) {
+            final Recur recur = new Recur(createRule());
+            cal.setTimeInMillis(createTime() / 1000 * 1000);
+            // favour the early hours where offset transitions usually occur..
+            if (random.nextBoolean()) {
+                cal.set(Calendar.HOUR_OF_DAY, random.nextInt(4));
+            }
+            final DateTime seed = new DateTime(cal.getTime());
+            seed.setTimeZone(timezone);
+            if (assertCandidates(recur, seed, Value.DATE_TIME)) {
+                supported++;
+            }
+        }
+        assertTrue(supported > count * 9 / 10);
+    }
+
+    /**
+     * @return true if candidates for the specified seed are generated by the engine
+     */
+    private boolean assertCandidates(final Recur recur, final Date seed, final Value value) {
+        final DateList candidates = new RecurrenceEngine(recur).getCandidates(seed, value);
+        if (candidates == null) {
+            return false;
+        }
+        final DateList expected = recur.getCandidates(seed, value);
+        Collections.sort(expected);
+        Collections.sort(candidates);
+        assertEquals(recur + " " + seed, expected.toString(), candidates.toString());
+        assertEquals(recur + " " + seed, expected, candidates);
+        return true;
+    }
+
+    /**
+     * @return a random time between 1950 and 2050
+     */
+    private long createTime() {
+        return -631152000000L + (long) (random.nextDouble() * 3155760000000L);
+    }
+
+    private String createRule() {
+        final StringBuffer b = new StringBuffer("FREQ=");
+        b.append(FREQUENCIES[random.nextInt(FREQUENCIES.length)]);
+        if (random.nextInt(4) == 0) {
+            b.append(";BYMONTH=").append(createList(1, 12, false));
+        }
+        if (random.nextInt(4) == 0) {
+            b.append(";BYMONTHDAY=").append(createList(1, 31, true));
+        }
+        if (random.nextInt(3) == 0) {
+            b.append(";BYDAY=");
+            final int size = 1 + random.nextInt(3);
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    b.append(',');
+                }
+                if (random.nextInt(3) == 0) {
+                    b.append((random.nextBoolean() ? 1 : -1) * (1 + random.nextInt(5)));
+                }
+                b.append(DAYS[random.nextInt(DAYS.length)]);
+            }
+        }
+        if (random.nextInt(4) == 0) {
+            b.append(";BYHOUR=").append(createList(0, 23, false));
+        }
+        if (random.nextInt(4) == 0) {
+            b.append(";BYMINUTE=").append(createList(0, 59, false));
+        }
+        if (random.nextInt(5) == 0) {
+            b.append(";BYSECOND=").append(createList(0, 59, false));
+        }
+        if (random.nextInt(4) == 0) {
+            b.append(";BYSETPOS=").append(createList(1, 4, true));
+        }
+        if (random.nextInt(4) == 0) {
+            b.append(";WKST=").append(DAYS[random.nextInt(DAYS.length)]);
+        }
+        return b.toString();
+    }
+
+    private String createList(final int min, final int max, final boolean negative) {
+        final StringBuffer b = new StringBuffer();
+        final int size = 1 + random.nextInt(3);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                b.append(',');
+            }
+            int n = min + random.nextInt(max - min + 1);
+            if (negative && random.nextInt(3) == 0) {
+                n = -n;
+            }
+            b.append(n);
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.text.ParseException;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.parameter.Value;
+import net.fortuna.ical4j.model.property.ExDate;
+import net.fortuna.ical4j.model.property.ExRule;
+import net.fortuna.ical4j.model.property.RDate;
+import net.fortuna.ical4j.model.property.RRule;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2026
+ *
+ * Unit tests for {@link RecurrenceSetCache}.
+ * @author Ben Fortuna
+ */
+public class RecurrenceSetCacheTest extends TestCase {
+
+    private VEvent event;
+
+    private RecurrenceSetCache cache;
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        event = new VEvent(new DateTime("20120102T090000Z"), new Dur(0, 1, 30, 0), "Daily standup");
+        event.getProperties().add(new RRule(new Recur("FREQ=DAILY;BYDAY=MO,TU,WE,TH,FR")));
+        event.getProperties().add(new ExRule(new Recur("FREQ=WEEKLY;INTERVAL=4;BYDAY=WE")));
+        final DateList exDates = new DateList("20120105T090000Z,20120301T090000Z", Value.DATE_TIME);
+        event.getProperties().add(new ExDate(exDates));
+        final DateList rDates = new DateList("20120107T100000Z", Value.DATE_TIME);
+        event.getProperties().add(new RDate(rDates));
+        cache = new RecurrenceSetCache();
+    }
+
+    /**
+     * Recurrence sets calculated with a cache must be identical to those calculated without.
+     */
+    public void testCalculateRecurrenceSet() throws ParseException {
+        assertRecurrenceSet("20120201T000000Z/P7D");
+        assertEquals(1, cache.getComponentCount());
+        assertEquals(2, cache.getMissCount());
+
+        // included periods..
+        assertRecurrenceSet("20120202T000000Z/P2D");
+        assertRecurrenceSet("20120201T000000Z/P7D");
+        assertEquals(4, cache.getHitCount());
+
+        // wider periods..
+        assertRecurrenceSet("20120115T000000Z/P60D");
+        assertRecurrenceSet("20120101T000000Z/P90D");
+        assertEquals(4, cache.getExtensionCount());
+
+        // a disjoint period..
+        assertRecurrenceSet("20130101T000000Z/P30D");
+        assertEquals(4, cache.getMissCount());
+
+        // periods starting during an instance..
+        assertRecurrenceSet("20130102T100000Z/P1D");
+        assertRecurrenceSet("20130104T093000Z/PT1M");
+    }
+
+    /**
+     * Modification of the property list must invalidate cached expansions.
+     */
+    public void testModification() throws ParseException {
+        assertRecurrenceSet("20120201T000000Z/P30D");
+        final int dateCount = cache.getDateCount();
+        assertTrue(dateCount > 0);
+
+        event.getProperties().remove(event.getProperty(Property.RRULE));
+        event.getProperties().add(new RRule(new Recur("FREQ=WEEKLY;BYDAY=MO")));
+        assertRecurrenceSet("20120201T000000Z/P30D");
+        assertEquals(1, cache.getInvalidationCount());
+        assertTrue(cache.getDateCount() < dateCount);
+
+        event.getProperties().set(event.getProperties().indexOf(event.getProperty(Property.RRULE)),
+                new RRule(new Recur("FREQ=DAILY;COUNT=10")));
+        assertRecurrenceSet("20120101T000000Z/P30D");
+        assertEquals(2, cache.getInvalidationCount());
+
+        // changes to recurrence values require explicit invalidation..
+        ((RRule) event.getProperty(Property.RRULE)).getRecur().setCount(5);
+        cache.invalidate(event);
+        assertRecurrenceSet("20120101T000000Z/P30D");
+        assertEquals(3, cache.getInvalidationCount());
+    }
+
+    /**
+     * The cache must not exceed its limits.
+     */
+    public void testEviction() throws ParseException {
+        cache = new RecurrenceSetCache(2, 100);
+        final Period period = new Period("20120101T000000Z/P30D");
+        final VEvent[] events = new VEvent[4];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new VEvent(new DateTime("20120102T090000Z"), new Dur(0, 1, 0, 0), "Event " + i);
+            events[i].getProperties().add(new RRule(new Recur("FREQ=DAILY")));
+            assertEquals(events[i].calculateRecurrenceSet(period), events[i].calculateRecurrenceSet(period, cache));
+        }
+        assertEquals(2, cache.getComponentCount());
+        assertEquals(2, cache.getEvictionCount());
+
+        // exceed the maximum dates..
+        assertEquals(events[0].calculateRecurrenceSet(new Period("20120101T000000Z/P365D")),
+                events[0].calculateRecurrenceSet(new Period("20120101T000000Z/P365D"), cache));
+        assertTrue(cache.getDateCount() <= 100);
+
+        cache.clear();
+        assertEquals(0, cache.getComponentCount());
+        assertEquals(0, cache.getDateCount());
+    }
+
+    private void assertRecurrenceSet(final String period) throws ParseException {
+        final Period p = new Period(period);
+        assertEquals(event.calculateRecurrenceSet(p), event.calculateRecurrenceSet(p, cache));
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.util.ResourceLoader;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * Unit tests for <code>TimeZoneBundle</code>.
+ * @author Ben Fortuna
+ */
+public class TimeZoneBundleTest extends TestCase {
+
+    private static final String[] TZ_IDS = {"Europe/London", "America/New_York", "Australia/Melbourne",
+        "Africa/Windhoek", "Asia/Kolkata"};
+
+    /**
+     * Loads the VTimeZone definitions included with iCal4j.
+     */
+    static Map<String, VTimeZone> loadVTimeZones(final String[] ids) throws Exception {
+        final Map<String, VTimeZone> vTimeZones = new HashMap<String, VTimeZone>();
+        for (int i = 0; i < ids.length; i++) {
+            final Calendar calendar = new CalendarBuilder().build(
+                    ResourceLoader.getResourceAsStream("zoneinfo/" + ids[i] + ".ics"));
+            vTimeZones.put(ids[i], (VTimeZone) calendar.getComponent(Component.VTIMEZONE));
+        }
+        return vTimeZones;
+    }
+
+    /**
+     * Test definitions read from a compiled bundle are equivalent to the parsed definitions.
+     */
+    public void testWriteAndRead() throws Exception {
+        final Map<String, VTimeZone> vTimeZones = loadVTimeZones(TZ_IDS);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TimeZoneBundle.write(vTimeZones, out);
+
+        final TimeZoneBundle bundle = new TimeZoneBundle(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(vTimeZones.keySet(), bundle.getIds());
+        for (int i = 0; i < TZ_IDS.length; i++) {
+            final VTimeZone vTimeZone = bundle.getVTimeZone(TZ_IDS[i]);
+            assertEquals(vTimeZones.get(TZ_IDS[i]).toString(), vTimeZone.toString());
+            // each request returns a new (mutable) instance..
+            assertNotSame(vTimeZone, bundle.getVTimeZone(TZ_IDS[i]));
+        }
+        assertNull(bundle.getVTimeZone("Asia/Tokyo"));
+
+        // verify timezones backed by the bundle definitions..
+        final TimeZone london = new TimeZone(bundle.getVTimeZone("Europe/London"));
+        final TimeZone expectedLondon = new TimeZone(vTimeZones.get("Europe/London"));
+        for (long time = 0; time < 40L * 365 * 24 * 60 * 60 * 1000; time += 7L * 24 * 60 * 60 * 1000) {
+            assertEquals(expectedLondon.getOffset(time), london.getOffset(time));
+        }
+    }
+
+    /**
+     * Test reading a stream that is not a compiled bundle.
+     */
+    public void testInvalidBundle() {
+        try {
+            new TimeZoneBundle(ResourceLoader.getResourceAsStream("zoneinfo/Europe/London.ics"));
+            fail("Should throw IOException");
+        }
+        catch (IOException ioe) {
+            // expected..
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2012, Ben Fortuna
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  o Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of Ben Fortuna nor the names of any other contributors
+ * may be used to endorse or promote products derived from this software
+ * without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.fortuna.ical4j.model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import net.fortuna.ical4j.model.component.VTimeZone;
+
+/**
+ * $Id$
+ *
+ * Created on 17/10/2012
+ *
+ * Unit tests for <code>TimeZoneRegistryImpl</code>.
+ * @author Ben Fortuna
+ */
+public class TimeZoneRegistryImplTest extends TestCase {
+
+    private static final String UPDATE_ENABLED = "net.fortuna.ical4j.timezone.update.enabled";
+
+    private String updateEnabled;
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#setUp()
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        // avoid updates to the included definitions..
+        updateEnabled = System.getProperty(UPDATE_ENABLED);
+        System.setProperty(UPDATE_ENABLED, "false");
+    }
+
+    /* (non-Javadoc)
+     * @see junit.framework.TestCase#tearDown()
+     */
+    protected void tearDown() throws Exception {
+        if (updateEnabled != null) {
+            System.setProperty(UPDATE_ENABLED, updateEnabled);
+        }
+        else {
+            System.clearProperty(UPDATE_ENABLED);
+        }
+        super.tearDown();
+    }
+
+    /**
+     * Test concurrent requests for timezones result in a single instance for each timezone.
+     */
+    public void testGetTimeZoneConcurrent() throws Exception {
+        final String[] tzIds = {"Asia/Tokyo", "Europe/Paris", "America/Chicago", "Pacific/Auckland"};
+        final TimeZone[][] results = new TimeZone[8][tzIds.length];
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        final Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final TimeZone[] result = results[i];
+            final int start = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        final TimeZoneRegistry registry = new TimeZoneRegistryImpl();
+                        for (int j = 0; j < tzIds.length; j++) {
+                            final int index = (start + j) % tzIds.length;
+                            result[index] = registry.getTimeZone(tzIds[index]);
+                        }
+                    }
+                    catch (Throwable t) {
+                        synchronized (errors) {
+                            errors.add(t);
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+        for (int j = 0; j < tzIds.length; j++) {
+            assertNotNull(results[0][j]);
+            assertEquals(tzIds[j], results[0][j].getID());
+            for (int i = 1; i < results.length; i++) {
+                assertSame(results[0][j], results[i][j]);
+            }
+        }
+    }
+
+    /**
+     * Test loading of timezones from a compiled bundle.
+     */
+    public void testGetTimeZoneFromBundle() throws Exception {
+        final Map<String, VTimeZone> vTimeZones = TimeZoneBundleTest.loadVTimeZones(new String[] {"Europe/London"});
+        final ClassLoader classLoader = setBundle("bundle-test/", vTimeZones);
+        try {
+            final TimeZoneRegistry registry = new TimeZoneRegistryImpl("bundle-test/");
+            final TimeZone timezone = registry.getTimeZone("Europe/London");
+            assertNotNull(timezone);
+            assertEquals(vTimeZones.get("Europe/London").toString(), timezone.getVTimeZone().toString());
+            // timezones not included in the bundle are loaded from resources with the same prefix (of which there
+            // are none)..
+            assertNull(registry.getTimeZone("Asia/Tokyo"));
+        }
+        finally {
+            Thread.currentThread().setContextClassLoader(classLoader);
+        }
+    }
+
+    /**
+     * Test default timezones are available prior to, and replaced by, updates.
+     */
+    public void testGetTimeZoneUpdated() throws Exception {
+        System.setProperty(UPDATE_ENABLED, "true");
+        final Map<String, VTimeZone> vTimeZones = TimeZoneBundleTest.loadVTimeZones(
+                new String[] {"Europe/London", "Asia/Tokyo"});
+        final ClassLoader classLoader = setBundle("update-test/", vTimeZones);
+        try {
+            final DeferredUpdater updater = new DeferredUpdater();
+            final TimeZoneRegistry registry = new TimeZoneRegistryImpl("update-test/", updater);
+            final TimeZone timezone = registry.getTimeZone("Europe/London");
+            assertSame(timezone, registry.getTimeZone("Europe/London"));
+            assertEquals(1, updater.callbacks.size());
+
+            final VTimeZone updated = vTimeZones.get("Asia/Tokyo");
+            updater.callbacks.get(0).updated(updated);
+            assertSame(updated, registry.getTimeZone("Europe/London").getVTimeZone());
+        }
+        finally {
+            Thread.currentThread().setContextClassLoader(classLoader);
+        }
+    }
+
+    /**
+     * Test registered timezones are available prior to, and replaced by, updates.
+     */
+    public void testRegisterUpdated() throws Exception {
+        final Map<String, VTimeZone> vTimeZones = TimeZoneBundleTest.loadVTimeZones(
+                new String[] {"Europe/London", "Asia/Tokyo"});
+        final DeferredUpdater updater = new DeferredUpdater();
+        final TimeZoneRegistry registry = new TimeZoneRegistryImpl("zoneinfo/", updater);
+        final TimeZone timezone = new TimeZone(vTimeZones.get("Europe/London"));
+        registry.register(timezone, true);
+        assertSame(timezone, registry.getTimeZone("Europe/London"));
+        assertEquals(1, updater.callbacks.size());
+
+        final VTimeZone updated = vTimeZones.get("Asia/Tokyo");
+        updater.callbacks.get(0).updated(updated);
+        assertSame(updated, registry.getTimeZone("Europe/London").getVTimeZone());
+
+        // updates don't replace subsequently registered timezones..
+        final TimeZone registered = new TimeZone(vTimeZones.get("Europe/London"));
+        registry.register(registered);
+        updater.callbacks.get(0).updated(vTimeZones.get("Europe/London"));
+        assertSame(registered, registry.getTimeZone("Europe/London"));
+    }
+
+    /**
+     * Writes a compiled bundle of the specified definitions, accessible via the thread context classloader.
+     * @return the existing thread context classloader
+     */
+    private ClassLoader setBundle(final String resourcePrefix, final Map<String, VTimeZone> vTimeZones)
+            throws IOException {
+
+        final File dir = File.createTempFile("ical4j", "");
+        dir.delete();
+        final File bundle = new File(dir, resourcePrefix + "tz.bundle");
+        bundle.getParentFile().mkdirs();
+        bundle.deleteOnExit();
+        bundle.getParentFile().deleteOnExit();
+        dir.deleteOnExit();
+        final OutputStream out = new FileOutputStream(bundle);
+        try {
+            TimeZoneBundle.write(vTimeZones, out);
+        }
+        finally {
+            out.close();
+        }
+
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] {dir.toURI().toURL()},
+                classLoader));
+        return classLoader;
+    }
+
+    /**
+     * Retains update requests for notification by tests.
+     */
+    private static class DeferredUpdater extends TimeZoneUpdater {
+
+        private final List<Callback> callbacks = new ArrayList<Callback>();
+
+        public void update(final VTimeZone vTimeZone, final Callback callback) {
+            callbacks.add(callback);
+        }
+    }
+}
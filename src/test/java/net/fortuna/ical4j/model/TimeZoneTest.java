@@ -31,13 +31,18 @@
  */
 package net.fortuna.ical4j.model;
 
+import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import net.fortuna.ical4j.model.component.Daylight;
+import net.fortuna.ical4j.model.component.Observance;
+import net.fortuna.ical4j.model.component.VTimeZone;
 import net.fortuna.ical4j.model.property.DtStart;
+import net.fortuna.ical4j.model.property.TzOffsetTo;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -297,6 +302,57 @@ public class TimeZoneTest extends TestCase {
                 .getTime()));
     }
 
+    /**
+     * Assert offsets and daylight time are consistent with the applicable observance of the underlying VTimeZone.
+     */
+    public void testTransitions() {
+        final VTimeZone vTimeZone = timezone.getVTimeZone();
+        final long hour = 60 * 60 * 1000;
+        final long start = new GregorianCalendar(1900, 0, 1).getTimeInMillis();
+        final long end = System.currentTimeMillis() + 20L * 365 * 24 * hour;
+        for (long instant = start; instant < end; instant += 97 * hour + 13 * 60 * 1000) {
+            assertApplicableObservance(vTimeZone, instant);
+        }
+        // transitions should be exact to the millisecond..
+        for (final Observance observance : vTimeZone.getObservances()) {
+            final DateList onsets = observance.getOnsets(new DateTime(end));
+            for (int i = 0; i < onsets.size() && i < 50; i++) {
+                final long onset = ((Date) onsets.get(i)).getTime();
+                assertApplicableObservance(vTimeZone, onset - 1);
+                assertApplicableObservance(vTimeZone, onset);
+            }
+        }
+    }
+
+    private void assertApplicableObservance(VTimeZone vTimeZone, long instant) {
+        // use a UTC date-time, as DateTime(long) rounds in the default timezone and so may shift instants
+        // in a daylight savings overlap..
+        final DateTime date = new DateTime(true);
+        date.setTime(instant);
+        final Observance observance = vTimeZone.getApplicableObservance(date);
+        long expectedOffset = 0;
+        if (observance != null) {
+            expectedOffset = ((TzOffsetTo) observance.getProperty(Property.TZOFFSETTO)).getOffset().getOffset();
+        }
+        assertEquals("getOffset() invalid: [" + instant + "]", expectedOffset, timezone.getOffset(instant));
+        assertEquals("inDaylightTime() invalid: [" + instant + "]", observance instanceof Daylight,
+                timezone.inDaylightTime(new Date(instant)));
+    }
+
+    /**
+     * Assert changes to the underlying VTimeZone are reflected in offsets.
+     */
+    public void testTransitionsUpdated() throws ParseException {
+        final Date summer = new DateTime("20100115T000000Z");
+        assertTrue(timezone.inDaylightTime(summer));
+        assertEquals(GMT_PLUS_10 + 60 * 60 * 1000, timezone.getOffset(summer.getTime()));
+
+        final ComponentList<Observance> observances = timezone.getVTimeZone().getObservances();
+        observances.removeAll(observances.getComponents(Observance.DAYLIGHT));
+        assertFalse(timezone.inDaylightTime(summer));
+        assertEquals(GMT_PLUS_10, timezone.getOffset(summer.getTime()));
+    }
+
     /**
      * Test custom DST savings implementation.
      */
@@ -342,6 +398,14 @@ public class TimeZoneTest extends TestCase {
         suite.addTest(new TimeZoneTest("testUseDaylightTime", "Africa/Abidjan", false));
         suite.addTest(new TimeZoneTest("testGetDSTSavings", "Australia/Melbourne", 3600000));
         
+        suite.addTest(new TimeZoneTest("testTransitions", "Australia/Melbourne"));
+        suite.addTest(new TimeZoneTest("testTransitions", "America/New_York"));
+        suite.addTest(new TimeZoneTest("testTransitions", "Europe/London"));
+        suite.addTest(new TimeZoneTest("testTransitions", "Asia/Kolkata"));
+        suite.addTest(new TimeZoneTest("testTransitions", "Pacific/Honolulu"));
+        suite.addTest(new TimeZoneTest("testTransitions", "America/Sao_Paulo"));
+        suite.addTest(new TimeZoneTest("testTransitionsUpdated", "Australia/Melbourne"));
+        
         suite.addTest(new TimeZoneTest("testGetOffset", "Australia/Melbourne"));
         //testHonoluluCurrentOffset..
         suite.addTest(new TimeZoneTest("testGetOffset", "Pacific/Honolulu", new Date(), GMT_MINUS_10));
@@ -31,10 +31,17 @@
  */
 package net.fortuna.ical4j.model.component;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 
 import net.fortuna.ical4j.model.Date;
+import net.fortuna.ical4j.model.DateList;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.parameter.Value;
 import net.fortuna.ical4j.model.property.DtStart;
+import net.fortuna.ical4j.model.property.RDate;
 import net.fortuna.ical4j.model.property.RRule;
 import net.fortuna.ical4j.model.property.TzOffsetFrom;
 import net.fortuna.ical4j.model.property.TzOffsetTo;
@@ -75,4 +82,90 @@ public class ObservanceTest extends TestCase {
         }
     }
 
+    /**
+     * Test onsets are determined correctly where successive dates are earlier and later than previous dates.
+     */
+    public void testGetLatestOnsetExtended() throws Exception {
+        assertEquals(new DateTime("20501030T010000Z"), observance.getLatestOnset(new DateTime("20501201T000000Z")));
+        assertEquals(new DateTime("19941030T010000Z"), observance.getLatestOnset(new DateTime("19950601T000000Z")));
+        assertEquals(new DateTime("20101031T010000Z"), observance.getLatestOnset(new DateTime("20101031T010000Z")));
+        assertEquals(new DateTime("20091025T010000Z"), observance.getLatestOnset(new DateTime("20101031T005959Z")));
+        assertEquals(new DateTime("17001031T010000Z"), observance.getLatestOnset(new DateTime("17010101T000000Z")));
+        assertEquals(new DateTime("20641026T010000Z"), observance.getLatestOnset(new DateTime("20650101T000000Z")));
+        assertNull(observance.getLatestOnset(new DateTime("16000101T000000Z")));
+    }
+
+    /**
+     * Test the latest onset is determined for dates well after the last recurrence.
+     */
+    public void testGetLatestOnsetAfterUntil() throws Exception {
+        observance.getProperties().remove(observance.getProperty(Property.RRULE));
+        observance.getProperties().add(new RRule("FREQ=YEARLY;BYMONTH=10;BYDAY=-1SU;UNTIL=19900101T000000Z"));
+        assertEquals(new DateTime("19891029T010000Z"), observance.getLatestOnset(new DateTime("20200101T000000Z")));
+        assertEquals(new DateTime("19891029T010000Z"), observance.getLatestOnset(new DateTime("19950101T000000Z")));
+    }
+
+    /**
+     * Test onsets reflect changes to the observance properties.
+     */
+    public void testGetLatestOnsetModified() throws Exception {
+        assertEquals(new DateTime("20101031T010000Z"), observance.getLatestOnset(new DateTime("20101201T000000Z")));
+        observance.getProperties().remove(observance.getProperty(Property.RRULE));
+        observance.getProperties().add(new RRule("FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU"));
+        assertEquals(new DateTime("20100328T010000Z"), observance.getLatestOnset(new DateTime("20101201T000000Z")));
+    }
+
+    /**
+     * Test onsets are calculated for local dates in the gregorian and julian calendars.
+     */
+    public void testGetOnsets() throws Exception {
+        final Observance rdateObservance = new Standard();
+        rdateObservance.getProperties().add(new DtStart("15000301T020000"));
+        rdateObservance.getProperties().add(new TzOffsetFrom("+0100"));
+        rdateObservance.getProperties().add(new TzOffsetTo("+0000"));
+        final DateList rdates = new DateList(Value.DATE_TIME);
+        rdates.add(new DateTime("20000229T020000"));
+        rdates.add(new DateTime("19991231T235959"));
+        rdateObservance.getProperties().add(new RDate(rdates));
+
+        final DateList onsets = rdateObservance.getOnsets(new DateTime("21000101T000000Z"));
+        assertEquals(3, onsets.size());
+        assertEquals(new DateTime("15000301T010000Z"), onsets.get(0));
+        assertEquals(new DateTime("19991231T225959Z"), onsets.get(1));
+        assertEquals(new DateTime("20000229T010000Z"), onsets.get(2));
+    }
+
+    /**
+     * Test onsets are consistent when determined concurrently.
+     */
+    public void testGetLatestOnsetConcurrent() throws Exception {
+        final DateList expected = new Standard(observance.getProperties()).getOnsets(new DateTime("21000101T000000Z"));
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        // alternate threads query onsets in reverse order..
+                        for (int j = 0; j < expected.size(); j++) {
+                            final int index = (offset % 2 == 0) ? j : expected.size() - 1 - j;
+                            final Date onset = (Date) expected.get(index);
+                            assertEquals(onset, observance.getLatestOnset(onset));
+                        }
+                    }
+                    catch (Throwable t) {
+                        synchronized (errors) {
+                            errors.add(t);
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
 }
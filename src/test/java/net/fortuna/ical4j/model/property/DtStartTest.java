@@ -32,9 +32,14 @@
 package net.fortuna.ical4j.model.property;
 
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
 
 import junit.framework.TestCase;
+import net.fortuna.ical4j.model.CalendarException;
 import net.fortuna.ical4j.model.Date;
 import net.fortuna.ical4j.model.DateTime;
 import net.fortuna.ical4j.model.ParameterList;
@@ -123,4 +128,84 @@ public class DtStartTest extends TestCase {
         assertEquals("DTSTART;VALUE=DATE-TIME;TZID=GMT:20070101T080000" + Strings.LINE_SEPARATOR,
                 start.toString());
     }
+    
+    /**
+     * Test deferred values are parsed on access.
+     */
+    public void testDeferredValue() throws Exception {
+        DtStart start = new DtStart();
+        start.getParameters().add(new TzId(timezone.getID()));
+        start.setTimeZone(timezone);
+        start.setDeferredValue("20070101T080000");
+        
+        assertEquals(new DtStart("20070101T080000", timezone).getDate(), start.getDate());
+        assertEquals(timezone, ((DateTime) start.getDate()).getTimeZone());
+        
+        // setting a value discards any deferred value..
+        start.setDeferredValue("20080101T080000");
+        start.setValue("20090101T080000");
+        assertEquals("20090101T080000", start.getValue());
+    }
+    
+    /**
+     * Test deferred values are parsed once and visible to all threads reading concurrently.
+     */
+    public void testDeferredValueConcurrent() throws Exception {
+        final Date expected = new DtStart("20070101T080000", timezone).getDate();
+        final List<Object> results = Collections.synchronizedList(new ArrayList<Object>());
+        for (int i = 0; i < 200; i++) {
+            final DtStart start = new DtStart();
+            start.getParameters().add(new TzId(timezone.getID()));
+            start.setTimeZone(timezone);
+            start.setDeferredValue("20070101T080000");
+
+            final CyclicBarrier barrier = new CyclicBarrier(4);
+            final Thread[] threads = new Thread[barrier.getParties()];
+            for (int j = 0; j < threads.length; j++) {
+                threads[j] = new Thread() {
+                    public void run() {
+                        try {
+                            barrier.await();
+                            results.add(start.getDate());
+                        }
+                        catch (Exception e) {
+                            results.add(e);
+                        }
+                    }
+                };
+                threads[j].start();
+            }
+            for (int j = 0; j < threads.length; j++) {
+                threads[j].join();
+            }
+        }
+        assertEquals(800, results.size());
+        for (final Object result : results) {
+            assertEquals(expected, result);
+        }
+    }
+    
+    /**
+     * Test invalid deferred values are reported on access.
+     */
+    public void testInvalidDeferredValue() throws Exception {
+        DtStart start = new DtStart();
+        start.setDeferredValue("invalid");
+        try {
+            start.getDate();
+            fail("Should throw CalendarException");
+        }
+        catch (CalendarException ce) {
+            assertTrue(ce.getCause() instanceof ParseException);
+        }
+        
+        // subsequent access should also fail..
+        try {
+            start.getValue();
+            fail("Should throw CalendarException");
+        }
+        catch (CalendarException ce) {
+            assertTrue(ce.getCause() instanceof ParseException);
+        }
+    }
 }
@@ -31,6 +31,9 @@
  */
 package net.fortuna.ical4j.util;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
@@ -73,10 +76,41 @@ public class StringsTest extends TestCase {
         this.expectedValue = expectedValue;
     }
     
-    public void testEscapeUnescape() {
+    public void testEscapeUnescape() throws IOException {
         final String value = Strings.escape(testString);
         assertEquals("Escape failed", expectedValue, value);
         assertEquals("Unescape failed", testString, Strings.unescape(value));
+
+        final StringWriter out = new StringWriter();
+        Strings.escape(testString, out);
+        assertEquals("Escape failed", expectedValue, out.toString());
+    }
+
+    /**
+     * Test strings without special characters aren't copied.
+     */
+    public void testEscapeUnchanged() {
+        final String value = "Project XYZ Final Review: Room 3B";
+        assertSame(value, Strings.escape(value));
+        assertNull(Strings.escape(null));
+    }
+
+    /**
+     * Test strings without escaped characters aren't copied.
+     */
+    public void testUnescapeUnchanged() {
+        final String value = "Project XYZ Final Review: Room 3B";
+        assertSame(value, Strings.unescape(value));
+        assertNull(Strings.unescape(null));
+        // unrecognised and incomplete escape sequences are retained..
+        assertEquals("a\\tb\\", Strings.unescape("a\\tb\\"));
+    }
+
+    /**
+     * Test CRLF sequences are escaped as a single newline.
+     */
+    public void testEscapeCrLf() {
+        assertEquals("a\\nb\r\\n", Strings.escape("a\r\nb\r\r\n"));
     }
 
     /**
@@ -114,6 +148,11 @@ public class StringsTest extends TestCase {
         suite.addTest(new StringsTest(DOUBLE_BACKSLASH, ESCAPED_DOUBLE_BACKSLASH));
         suite.addTest(new StringsTest(NEWLINE, ESCAPED_NEWLINE));
         suite.addTest(new StringsTest("a\\nb", "a\\\\nb"));
+        suite.addTest(new StringsTest("a\r\rb", "a\r\rb"));
+        suite.addTest(new StringsTest("a\\\nb", "a\\\\\\nb"));
+        suite.addTest(new StringsTest("testEscapeUnchanged"));
+        suite.addTest(new StringsTest("testEscapeCrLf"));
+        suite.addTest(new StringsTest("testUnescapeUnchanged"));
         
         suite.addTest(new StringsTest("testUnEscapeQuote"));
         suite.addTest(new StringsTest("testQuotableParamString"));